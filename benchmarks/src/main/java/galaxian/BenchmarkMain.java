@@ -0,0 +1,29 @@
+package galaxian;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Accepts the usual JMH command line and
+ * always adds the GC profiler, so every run reports allocation rates next to
+ * throughput.
+ */
+public class BenchmarkMain {
+
+    /**
+     * Runs the benchmarks selected on the command line.
+     * @param args JMH command line arguments
+     * @throws RunnerException if a benchmark fails
+     * @throws CommandLineOptionException if the arguments can't be parsed
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
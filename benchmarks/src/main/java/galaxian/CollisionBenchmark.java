@@ -0,0 +1,115 @@
+package galaxian;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the collision checks: the Sprite default method used for the
+ * player, the entity store's rectangle test, the swept test, and a
+ * broadphase query.
+ * Each benchmark tests every enemy of a full fleet once.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    private GameManager gameManager;
+    private EntityStore enemies;
+    private Player player;
+    private SpatialHash grid;
+
+    /**
+     * Starts a fresh game and fills the broadphase with its fleet.
+     */
+    @Setup
+    public void setUp() {
+        gameManager = new GameManager(42);
+        enemies = gameManager.getEnemies();
+        player = gameManager.getPlayer();
+        grid = new SpatialHash(GameManager.SCREEN_WIDTH, GameManager.SCREEN_HEIGHT, Enemy.WIDTH + 10);
+        for (int i = 0; i < enemies.getCount(); i++) {
+            grid.insert(i, enemies.x[i], enemies.y[i], enemies.x[i] + Enemy.WIDTH, enemies.y[i] + Enemy.HEIGHT);
+        }
+    }
+
+    /**
+     * Tests the player against every enemy with Sprite.collidesWith.
+     * @return Integer number of hits so the work can't be optimised away
+     */
+    @Benchmark
+    public int playerCollidesWith() {
+        int hits = 0;
+        for (int i = 0; i < enemies.getCount(); i++) {
+            if (player.collidesWith(enemies.x[i], enemies.y[i],
+                    enemies.x[i] + Enemy.WIDTH, enemies.y[i] + Enemy.HEIGHT)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Tests every enemy against the player with EntityStore.intersects.
+     * @return Integer number of hits so the work can't be optimised away
+     */
+    @Benchmark
+    public int storeIntersects() {
+        int hits = 0;
+        for (int i = 0; i < enemies.getCount(); i++) {
+            if (enemies.intersects(i, player)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Sweeps every enemy a full dive step towards the player with
+     * Collision.timeOfImpact.
+     * @return Integer number of hits so the work can't be optimised away
+     */
+    @Benchmark
+    public int sweptTimeOfImpact() {
+        int hits = 0;
+        for (int i = 0; i < enemies.getCount(); i++) {
+            if (Collision.timeOfImpact(enemies.x[i], enemies.y[i], Enemy.WIDTH, Enemy.HEIGHT, 0.5, 2,
+                    player.getMinX(), player.getMinY(), Player.WIDTH, Player.HEIGHT) != Collision.MISS) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Looks up the enemies near a missile in the middle of the formation and
+     * tests the candidates.
+     * @return Integer number of hits so the work can't be optimised away
+     */
+    @Benchmark
+    public int broadphaseQuery() {
+        double minX = 200;
+        double minY = 150;
+        double maxX = minX + Missile.WIDTH;
+        double maxY = minY + Missile.HEIGHT;
+        int hits = 0;
+        int candidates = grid.query(minX, minY, maxX, maxY);
+        for (int c = 0; c < candidates; c++) {
+            if (enemies.intersects(grid.getResult(c), minX, minY, maxX, maxY)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,67 @@
+package galaxian;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures spawning a fleet and the per-tick check for an empty fleet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetBenchmark {
+    private GameManager gameManager;
+
+    /**
+     * Starts a fresh game.
+     */
+    @Setup
+    public void setUp() {
+        gameManager = new GameManager(42);
+    }
+
+    /**
+     * Clears the fleet and creates a new one.
+     * @return EntityStore of enemies so the work can't be optimised away
+     */
+    @Benchmark
+    public EntityStore createEnemyFleet() {
+        gameManager.clearEnemies();
+        gameManager.createEnemyFleet();
+        return gameManager.getEnemies();
+    }
+
+    /**
+     * Checks for an empty fleet while a fleet is on screen, which is what
+     * happens on almost every tick.
+     * @return Integer number of fleets destroyed so the work can't be optimised away
+     */
+    @Benchmark
+    public int checkAndSpawnNewFleetWithFleet() {
+        gameManager.checkAndSpawnNewFleet();
+        return gameManager.getFleetsDestroyed();
+    }
+
+    /**
+     * Clears the fleet, so the check spawns a new one.
+     * @return Integer number of fleets destroyed so the work can't be optimised away
+     */
+    @Benchmark
+    public int checkAndSpawnNewFleetWhenEmpty() {
+        gameManager.clearEnemies();
+        gameManager.checkAndSpawnNewFleet();
+        return gameManager.getFleetsDestroyed();
+    }
+}
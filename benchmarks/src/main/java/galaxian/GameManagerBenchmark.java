@@ -0,0 +1,82 @@
+package galaxian;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one GameManager.update() at a given fleet size and number of
+ * player missiles in flight. Enemies and missiles lost during an operation
+ * are topped up afterwards, so every operation sees the same load.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameManagerBenchmark {
+    private static final int COLUMNS = 18;
+    private static final double MISSILE_SPEED = 30.0 / GameClock.TICKS_PER_SECOND;
+
+    @Param({"46", "1000", "10000"})
+    public int fleetSize;
+
+    @Param({"0", "64", "512"})
+    public int missileCount;
+
+    private GameManager gameManager;
+    private int spawned;
+    private int fired;
+
+    /**
+     * Starts a fresh game with the requested load.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        gameManager = new GameManager(42);
+        spawned = 0;
+        fired = 0;
+        topUp();
+    }
+
+    /**
+     * Steps the game logic once.
+     * @return GameManager so the work can't be optimised away
+     */
+    @Benchmark
+    public GameManager update() {
+        gameManager.update();
+        topUp();
+        return gameManager;
+    }
+
+    /**
+     * Adds enemies and player missiles until the requested counts are reached.
+     * Enemies are spread over the formation grid, and missiles are fired from
+     * the bottom of the screen at evenly spaced positions.
+     */
+    private void topUp() {
+        EntityStore enemies = gameManager.getEnemies();
+        while (enemies.getCount() < fleetSize) {
+            gameManager.spawnEnemy((spawned / COLUMNS) % GameManager.FLEET_ROWS, spawned % COLUMNS);
+            spawned++;
+        }
+        MissilePool pool = gameManager.getMissilePool();
+        while (pool.getInUse() < missileCount) {
+            double x = (fired * 37) % GameManager.SCREEN_WIDTH;
+            pool.acquire(x, GameManager.SCREEN_HEIGHT, 0, -1, MISSILE_SPEED, Missile.FROM_PLAYER);
+            fired++;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package galaxian;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Enemy.movePattern() over a store of enemies that are all in the
+ * same state. Positions are restored before every pass, so diving and
+ * moving-down enemies never leave the branch being measured. Enemies in the
+ * formation are moved by the Formation as a group, so they aren't measured here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovePatternBenchmark {
+    private static final int COLUMNS = 18;
+
+    @Param({"DIVING", "MOVING_DOWN"})
+    public String state;
+
+    @Param({"1000"})
+    public int enemyCount;
+
+    private EntityStore enemies;
+    private final Formation formation = new Formation(GameManager.SCREEN_WIDTH);
+    private double[] startX;
+    private double[] startY;
+    private byte[] startState;
+    private double[] startOriginX;
+    private double[] startPathDistance;
+
+    /**
+     * Fills the store with enemies in the requested state.
+     */
+    @Setup
+    public void setUp() {
+        enemies = new EntityStore(Enemy.WIDTH, Enemy.HEIGHT, enemyCount);
+        for (int k = 0; k < enemyCount; k++) {
+            int row = (k / COLUMNS) % GameManager.FLEET_ROWS;
+            int column = k % COLUMNS;
+            if (state.equals("MOVING_DOWN")) {
+                Enemy.spawnAtTop(enemies, row, column);
+            } else {
+                int i = Enemy.spawn(enemies, row, column);
+                if (state.equals("DIVING")) {
+                    Enemy.dive(enemies, i, formation);
+                }
+            }
+        }
+        startX = enemies.x.clone();
+        startY = enemies.y.clone();
+        startState = enemies.state.clone();
+        startOriginX = enemies.originX.clone();
+        startPathDistance = enemies.pathDistance.clone();
+    }
+
+    /**
+     * Restores the starting positions and moves every enemy once.
+     * @return EntityStore of enemies so the work can't be optimised away
+     */
+    @Benchmark
+    public EntityStore movePattern() {
+        System.arraycopy(startX, 0, enemies.x, 0, enemyCount);
+        System.arraycopy(startY, 0, enemies.y, 0, enemyCount);
+        System.arraycopy(startState, 0, enemies.state, 0, enemyCount);
+        System.arraycopy(startOriginX, 0, enemies.originX, 0, enemyCount);
+        System.arraycopy(startPathDistance, 0, enemies.pathDistance, 0, enemyCount);
+        for (int i = 0; i < enemyCount; i++) {
+            Enemy.movePattern(enemies, i, 385);
+        }
+        return enemies;
+    }
+}
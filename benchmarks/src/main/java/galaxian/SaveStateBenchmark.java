@@ -0,0 +1,92 @@
+package galaxian;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures capturing a game into a save buffer, which the simulation thread
+ * does between two ticks, and loading a saved game from its file. The game
+ * is played for a few seconds first so that enemies are diving and missiles
+ * are in flight.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveStateBenchmark {
+    private static final int TICKS = 5 * GameClock.TICKS_PER_SECOND;
+
+    @Param({"0", "10000", "100000"})
+    public int fleetSize;
+
+    private GameManager gameManager;
+    private ByteBuffer buffer;
+    private Path file;
+
+    /**
+     * Plays a game with the requested fleet for a while and saves it.
+     * @throws IOException if the save can't be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        gameManager = new GameManager(42, GameManager.SCREEN_WIDTH, GameManager.SCREEN_HEIGHT, 4096);
+        if (fleetSize > 0) {
+            gameManager.setFleetSize(fleetSize);
+        }
+        gameManager.setDiveRate(10);
+        gameManager.setLives(Integer.MAX_VALUE);
+        for (int t = 0; t < TICKS; t++) {
+            gameManager.playerShoot();
+            gameManager.tick();
+        }
+        file = Files.createTempFile("galaxian", ".sav");
+        buffer = SaveState.capture(gameManager, null);
+        SaveState.write(buffer, file);
+    }
+
+    /**
+     * Deletes the saved game.
+     * @throws IOException if the file can't be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Copies the game into the buffer of the last capture.
+     * @return ByteBuffer so the work can't be optimised away
+     */
+    @Benchmark
+    public ByteBuffer capture() {
+        buffer = SaveState.capture(gameManager, buffer);
+        return buffer;
+    }
+
+    /**
+     * Maps the saved game, checks it and rebuilds the game from it.
+     * @return GameManager so the work can't be optimised away
+     * @throws IOException if the file can't be read
+     */
+    @Benchmark
+    public GameManager read() throws IOException {
+        return SaveState.read(file);
+    }
+}
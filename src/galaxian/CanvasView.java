@@ -0,0 +1,177 @@
+package galaxian;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Canvas-based renderer: draws the whole playfield into a single Canvas node
+ * every frame, so the scene graph does not grow with the number of sprites.
+ * Enemies are sorted into one batch per color, so the fill color only changes
+ * a handful of times per frame.
+ */
+public class CanvasView implements GameRenderer {
+    private static final Color[] BATCH_COLORS;
+    private static final int[] ROW_BATCH;
+    private static final double[] PLAYER_XS = {0, Player.WIDTH, Player.WIDTH / 2};
+    private static final double[] PLAYER_YS = {Player.HEIGHT, Player.HEIGHT, 0};
+
+    static {
+        List<Color> colors = new ArrayList<>();
+        ROW_BATCH = new int[ENEMY_COLORS.length];
+        for (int row = 0; row < ENEMY_COLORS.length; row++) {
+            int batch = colors.indexOf(ENEMY_COLORS[row]);
+            if (batch < 0) {
+                batch = colors.size();
+                colors.add(ENEMY_COLORS[row]);
+            }
+            ROW_BATCH[row] = batch;
+        }
+        BATCH_COLORS = colors.toArray(new Color[0]);
+    }
+
+    private final double width;
+    private final double height;
+    private final GraphicsContext graphics;
+    private final double[] playerXs = new double[3];
+    private final double[] playerYs = new double[3];
+    private final int[] batchStarts = new int[BATCH_COLORS.length + 1];
+    private final int[] batchNext = new int[BATCH_COLORS.length];
+    private int[] batchOrder = new int[64];
+
+    /**
+     * Creates the canvas and adds it to the root pane.
+     * @param root Pane that holds the graphical elements
+     * @param width Double value of the playfield's width
+     * @param height Double value of the playfield's height
+     */
+    public CanvasView(Pane root, double width, double height) {
+        this.width = width;
+        this.height = height;
+        Canvas canvas = new Canvas(width, height);
+        graphics = canvas.getGraphicsContext2D();
+        root.getChildren().add(canvas);
+    }
+
+    /**
+     * Describes the canvas, which draws every sprite without nodes of its own.
+     * @return String naming the single canvas node
+     */
+    @Override
+    public String describeLayers() {
+        return "canvas 1";
+    }
+
+    /**
+     * Clears the canvas and draws every sprite at its interpolated position.
+     * @param snapshot GameSnapshot of the tick to draw
+     * @param alpha Double value between 0 and 1 telling how far to interpolate
+     *              from each entity's previous position to its current one
+     */
+    @Override
+    public void render(GameSnapshot snapshot, double alpha) {
+        graphics.clearRect(0, 0, width, height);
+        double offsetX = GameRenderer.interpolate(snapshot.getFormationPreviousOffsetX(),
+                snapshot.getFormationOffsetX(), alpha);
+        drawEnemies(snapshot.getEnemies(), offsetX, alpha);
+        drawMissiles(snapshot.getMissiles(), alpha);
+        for (int p = 0; p < snapshot.getPlayerCount(); p++) {
+            drawPlayer(snapshot, p, alpha);
+        }
+    }
+
+    /**
+     * Draws the enemies one color batch at a time. The slots are sorted into
+     * batches with a counting sort, which does not allocate once the order
+     * array has grown to fit the fleet.
+     * @param enemies EntityStore of enemies
+     * @param offsetX Double value of the formation's interpolated offset, which
+     *                the positions of enemies in the formation are relative to
+     * @param alpha Double value telling how far to interpolate between ticks
+     */
+    private void drawEnemies(EntityStore enemies, double offsetX, double alpha) {
+        int count = enemies.getCount();
+        if (batchOrder.length < count) {
+            batchOrder = new int[Math.max(count, batchOrder.length * 2)];
+        }
+
+        Arrays.fill(batchStarts, 0);
+        for (int i = 0; i < count; i++) {
+            batchStarts[batchOf(enemies.row[i]) + 1]++;
+        }
+        for (int batch = 0; batch < BATCH_COLORS.length; batch++) {
+            batchStarts[batch + 1] += batchStarts[batch];
+        }
+        System.arraycopy(batchStarts, 0, batchNext, 0, batchNext.length);
+        for (int i = 0; i < count; i++) {
+            batchOrder[batchNext[batchOf(enemies.row[i])]++] = i;
+        }
+
+        double enemyWidth = enemies.getWidth();
+        double enemyHeight = enemies.getHeight();
+        for (int batch = 0; batch < BATCH_COLORS.length; batch++) {
+            int start = batchStarts[batch];
+            int end = batchStarts[batch + 1];
+            if (start == end) {
+                continue;
+            }
+            graphics.setFill(BATCH_COLORS[batch]);
+            for (int k = start; k < end; k++) {
+                int i = batchOrder[k];
+                double x = GameRenderer.interpolate(enemies.previousX[i], enemies.x[i], alpha);
+                if (Formation.isMember(enemies, i)) {
+                    x += offsetX;
+                }
+                graphics.fillRect(x,
+                        GameRenderer.interpolate(enemies.previousY[i], enemies.y[i], alpha),
+                        enemyWidth, enemyHeight);
+            }
+        }
+    }
+
+    /**
+     * Draws every missile in a single red batch.
+     * @param missiles EntityStore of missiles
+     * @param alpha Double value telling how far to interpolate between ticks
+     */
+    private void drawMissiles(EntityStore missiles, double alpha) {
+        graphics.setFill(Color.RED);
+        double missileWidth = missiles.getWidth();
+        double missileHeight = missiles.getHeight();
+        for (int i = 0; i < missiles.getCount(); i++) {
+            graphics.fillRect(GameRenderer.interpolate(missiles.previousX[i], missiles.x[i], alpha),
+                    GameRenderer.interpolate(missiles.previousY[i], missiles.y[i], alpha),
+                    missileWidth, missileHeight);
+        }
+    }
+
+    /**
+     * Draws a player's triangle.
+     * @param snapshot GameSnapshot holding the player's position
+     * @param p Integer index of the player
+     * @param alpha Double value telling how far to interpolate between ticks
+     */
+    private void drawPlayer(GameSnapshot snapshot, int p, double alpha) {
+        double x = GameRenderer.interpolate(snapshot.getPlayerPreviousX(p), snapshot.getPlayerX(p), alpha);
+        double y = GameRenderer.interpolate(snapshot.getPlayerPreviousY(p), snapshot.getPlayerY(p), alpha);
+        for (int k = 0; k < 3; k++) {
+            playerXs[k] = x + PLAYER_XS[k];
+            playerYs[k] = y + PLAYER_YS[k];
+        }
+        graphics.setFill(GameRenderer.playerColor(snapshot, p));
+        graphics.fillPolygon(playerXs, playerYs, 3);
+    }
+
+    /**
+     * Finds the color batch of an enemy row.
+     * @param row Integer row of the enemy
+     * @return Integer index into BATCH_COLORS
+     */
+    private static int batchOf(int row) {
+        return ROW_BATCH[row % ROW_BATCH.length];
+    }
+}
@@ -0,0 +1,60 @@
+package galaxian;
+
+/**
+ * Swept collision tests between moving rectangles. Testing for an overlap
+ * at the end of a tick misses a fast rectangle that passes right through a
+ * slow one within the tick; testing the whole movement finds it, and tells
+ * when during the tick the two first touch, so the earliest of several
+ * hits can be picked.
+ */
+public final class Collision {
+    public static final double MISS = Double.POSITIVE_INFINITY;
+
+    private Collision() {
+    }
+
+    /**
+     * Finds when a rectangle moving in a straight line over one tick first
+     * touches a rectangle standing still. To test two moving rectangles,
+     * pass the difference of their movements. Touching edges count as a hit,
+     * as they do in EntityStore.intersects.
+     * @param minX Double value of the moving rectangle's left edge at the start of the tick
+     * @param minY Double value of the moving rectangle's top edge at the start of the tick
+     * @param width Double value of the moving rectangle's width
+     * @param height Double value of the moving rectangle's height
+     * @param moveX Double value of how far the rectangle moves right during the tick
+     * @param moveY Double value of how far the rectangle moves down during the tick
+     * @param otherMinX Double value of the still rectangle's left edge
+     * @param otherMinY Double value of the still rectangle's top edge
+     * @param otherWidth Double value of the still rectangle's width
+     * @param otherHeight Double value of the still rectangle's height
+     * @return Double fraction of the tick, from 0 to 1, at which they first touch, or MISS if they don't
+     */
+    public static double timeOfImpact(double minX, double minY, double width, double height,
+                                      double moveX, double moveY,
+                                      double otherMinX, double otherMinY, double otherWidth, double otherHeight) {
+        double entry = 0;
+        double exit = 1;
+        if (moveX == 0) {
+            if (minX > otherMinX + otherWidth || otherMinX > minX + width) {
+                return MISS;
+            }
+        } else {
+            double touch = (otherMinX - minX - width) / moveX;
+            double leave = (otherMinX + otherWidth - minX) / moveX;
+            entry = Math.max(entry, Math.min(touch, leave));
+            exit = Math.min(exit, Math.max(touch, leave));
+        }
+        if (moveY == 0) {
+            if (minY > otherMinY + otherHeight || otherMinY > minY + height) {
+                return MISS;
+            }
+        } else {
+            double touch = (otherMinY - minY - height) / moveY;
+            double leave = (otherMinY + otherHeight - minY) / moveY;
+            entry = Math.max(entry, Math.min(touch, leave));
+            exit = Math.min(exit, Math.max(touch, leave));
+        }
+        return entry <= exit ? entry : MISS;
+    }
+}
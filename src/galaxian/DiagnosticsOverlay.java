@@ -0,0 +1,114 @@
+package galaxian;
+
+import javafx.scene.layout.Pane;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+/**
+ * Optional on-screen diagnostics, toggled with F3. Shows frame-time
+ * percentiles, the time each phase of the game loop takes, the time from a
+ * key event to the end of the frame that first draws it, live entity
+ * counts, the number of nodes in the root pane and in each of the
+ * renderer's layers, and the bytes allocated per frame by the JavaFX and
+ * simulation threads together. The text is refreshed a few times per second rather than every
+ * frame, so the overlay itself barely shows up in the numbers.
+ */
+public class DiagnosticsOverlay {
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    private final FrameProfiler profiler;
+    private final Pane root;
+    private final GameRenderer renderer;
+    private final Text text;
+    private final StringBuilder builder = new StringBuilder();
+    private long lastRefresh = -1;
+
+    /**
+     * Creates the hidden overlay text in the top right corner.
+     * @param profiler FrameProfiler that measures the game loop
+     * @param width Double value of the playfield's width
+     * @param root Pane whose children are counted
+     * @param renderer GameRenderer whose layers are counted
+     */
+    public DiagnosticsOverlay(FrameProfiler profiler, double width, Pane root, GameRenderer renderer) {
+        this.profiler = profiler;
+        this.root = root;
+        this.renderer = renderer;
+        text = new Text();
+        text.setFont(Font.font("Monospaced", 12));
+        text.setLayoutX(width - 330);
+        text.setLayoutY(20);
+        text.setVisible(false);
+    }
+
+    /**
+     * Shows or hides the overlay, and turns the profiler on or off with it.
+     */
+    public void toggle() {
+        boolean visible = !text.isVisible();
+        text.setVisible(visible);
+        profiler.setEnabled(visible);
+        lastRefresh = -1;
+    }
+
+    /**
+     * Refreshes the text if the overlay is shown and enough time has passed.
+     * @param now Long value of the frame's timestamp in nanoseconds
+     * @param snapshot GameSnapshot whose entities are counted
+     */
+    public void update(long now, GameSnapshot snapshot) {
+        if (!text.isVisible() || (lastRefresh >= 0 && now - lastRefresh < REFRESH_NANOS)) {
+            return;
+        }
+        lastRefresh = now;
+
+        builder.setLength(0);
+        appendTimes("frame", profiler.getFrameTimes());
+        appendTimes("update", profiler.getPhaseTimes(FrameProfiler.Phase.UPDATE));
+        appendTimes("dive", profiler.getPhaseTimes(FrameProfiler.Phase.DIVE));
+        appendTimes("shoot", profiler.getPhaseTimes(FrameProfiler.Phase.SHOOT));
+        appendTimes("render", profiler.getPhaseTimes(FrameProfiler.Phase.RENDER));
+        appendTimes("hud", profiler.getPhaseTimes(FrameProfiler.Phase.HUD));
+        appendTimes("input", profiler.getInputLatencies());
+
+        EntityStore enemies = snapshot.getEnemies();
+        int divers = 0;
+        for (int i = 0; i < enemies.getCount(); i++) {
+            if (Enemy.isDiving(enemies, i)) {
+                divers++;
+            }
+        }
+        builder.append(String.format("enemies %d  divers %d  missiles %d%n",
+                enemies.getCount() - divers, divers, snapshot.getMissiles().getCount()));
+        builder.append(String.format("nodes   root %d  %s%n", root.getChildren().size(), renderer.describeLayers()));
+
+        if (profiler.isAllocationSupported()) {
+            RingHistogram allocations = profiler.getAllocations();
+            allocations.snapshot();
+            builder.append(String.format("alloc   p50 %.1f KB  max %.1f KB /frame",
+                    allocations.percentile(50) / 1024.0, allocations.max() / 1024.0));
+        } else {
+            builder.append("alloc   n/a");
+        }
+        text.setText(builder.toString());
+    }
+
+    /**
+     * Adds a line with the p50, p99 and max of a timing in milliseconds.
+     * @param label String naming the timing
+     * @param histogram RingHistogram of times in nanoseconds
+     */
+    private void appendTimes(String label, RingHistogram histogram) {
+        histogram.snapshot();
+        builder.append(String.format("%-7s p50 %6.2f  p99 %6.2f  max %6.2f ms%n", label,
+                histogram.percentile(50) / 1e6, histogram.percentile(99) / 1e6, histogram.max() / 1e6));
+    }
+
+    /**
+     * Gets the overlay's text node.
+     * @return Text node to add to the root pane
+     */
+    public Text getNode() {
+        return text;
+    }
+}
@@ -0,0 +1,93 @@
+package galaxian;
+
+import javafx.geometry.Rectangle2D;
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * The digits 0 to 9 and a minus sign, rendered once into a single image with
+ * one equal-width cell per glyph. Numbers are drawn by pointing image views
+ * at cells of the atlas, so changing a number never lays out text. Must be
+ * created on the JavaFX application thread.
+ */
+public class DigitAtlas {
+    public static final int MINUS = 10;
+    private static final String GLYPHS = "0123456789-";
+
+    private final Image image;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final Rectangle2D[] viewports = new Rectangle2D[GLYPHS.length()];
+
+    /**
+     * Renders the glyphs.
+     * @param font Font to render the glyphs in
+     * @param color Color of the glyphs
+     */
+    public DigitAtlas(Font font, Color color) {
+        double widest = 0;
+        Text measure = new Text();
+        measure.setFont(font);
+        for (int g = 0; g < GLYPHS.length(); g++) {
+            measure.setText(GLYPHS.substring(g, g + 1));
+            widest = Math.max(widest, measure.getLayoutBounds().getWidth());
+        }
+        cellWidth = Math.ceil(widest);
+        cellHeight = Math.ceil(measure.getLayoutBounds().getHeight());
+
+        Canvas canvas = new Canvas(cellWidth * GLYPHS.length(), cellHeight);
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        graphics.setFont(font);
+        graphics.setFill(color);
+        graphics.setTextBaseline(VPos.TOP);
+        graphics.setTextAlign(TextAlignment.CENTER);
+        for (int g = 0; g < GLYPHS.length(); g++) {
+            graphics.fillText(GLYPHS.substring(g, g + 1), (g + 0.5) * cellWidth, 0);
+            viewports[g] = new Rectangle2D(g * cellWidth, 0, cellWidth, cellHeight);
+        }
+
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        image = canvas.snapshot(parameters, null);
+    }
+
+    /**
+     * Gets the rendered glyphs.
+     * @return Image holding every glyph side by side
+     */
+    public Image getImage() {
+        return image;
+    }
+
+    /**
+     * Gets the part of the atlas that holds a glyph.
+     * @param glyph Integer digit from 0 to 9, or MINUS
+     * @return Rectangle2D of the glyph's cell, for ImageView.setViewport
+     */
+    public Rectangle2D getViewport(int glyph) {
+        return viewports[glyph];
+    }
+
+    /**
+     * Gets the width of every glyph's cell.
+     * @return Double value of the cell width
+     */
+    public double getCellWidth() {
+        return cellWidth;
+    }
+
+    /**
+     * Gets the height of every glyph's cell.
+     * @return Double value of the cell height
+     */
+    public double getCellHeight() {
+        return cellHeight;
+    }
+}
@@ -0,0 +1,171 @@
+package galaxian;
+
+/**
+ * A dive trajectory made of cubic Bezier curves and precomputed into an
+ * arc-length table: entry k holds the offset from the start of the dive
+ * after travelling k * STEP pixels along the curve. A diver keeps only the
+ * distance it has travelled and reads its position from the table, so all
+ * divers share the tables and moving one costs a lookup and an
+ * interpolation. Each shape has a mirrored variant that shares its table.
+ */
+public final class DivePath {
+    public static final double STEP = 0.5;
+    private static final int SAMPLES_PER_CURVE = 512;
+
+    // Control points relative to the start of the dive, four per curve; the
+    // first point of each curve repeats the last point of the one before.
+    // A loop up and outwards, then a swoop down and back inwards.
+    private static final double[][] LOOP = {
+            {0, 0}, {0, -40}, {-60, -40}, {-60, 10},
+            {-60, 10}, {-60, 80}, {40, 120}, {40, 200},
+            {40, 200}, {40, 260}, {-20, 300}, {-20, 380}};
+    // A wide arc outwards and down, curling back under the formation.
+    private static final double[][] SWOOP = {
+            {0, 0}, {-80, 40}, {-40, 260}, {60, 340},
+            {60, 340}, {100, 370}, {100, 400}, {80, 420}};
+
+    private static final DivePath[] PATHS;
+    static {
+        double[][] loop = tabulate(LOOP);
+        double[][] swoop = tabulate(SWOOP);
+        PATHS = new DivePath[] {
+                new DivePath(loop[0], loop[1], 1), new DivePath(loop[0], loop[1], -1),
+                new DivePath(swoop[0], swoop[1], 1), new DivePath(swoop[0], swoop[1], -1)};
+    }
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double sign;
+    private final double length;
+
+    /**
+     * Creates a path from a table.
+     * @param xs Array of horizontal offsets at every STEP of arc length
+     * @param ys Array of vertical offsets at every STEP of arc length
+     * @param sign Double value that is 1 for the path as drawn and -1 for its mirror image
+     */
+    private DivePath(double[] xs, double[] ys, double sign) {
+        this.xs = xs;
+        this.ys = ys;
+        this.sign = sign;
+        length = (xs.length - 1) * STEP;
+    }
+
+    /**
+     * Picks the path for an enemy that starts diving. The top two rows loop,
+     * the others swoop, and each dive curls away from the nearer edge of the
+     * screen first.
+     * @param row Integer row of the enemy in the formation
+     * @param curlLeft boolean that is true to curl to the left first
+     * @return Integer id of the path, for get
+     */
+    public static int choose(int row, boolean curlLeft) {
+        return (row < 2 ? 0 : 2) + (curlLeft ? 0 : 1);
+    }
+
+    /**
+     * Gets a path by id.
+     * @param id Integer id returned by choose
+     * @return DivePath with that id
+     */
+    public static DivePath get(int id) {
+        return PATHS[id];
+    }
+
+    /**
+     * Gets the length of the path.
+     * @return Double value of the path's arc length in pixels
+     */
+    public double getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the horizontal offset from the start of the dive.
+     * @param distance Double value of the distance travelled, between 0 and getLength
+     * @return Double value of the horizontal offset
+     */
+    public double getX(double distance) {
+        return sign * lookup(xs, distance);
+    }
+
+    /**
+     * Gets the vertical offset from the start of the dive.
+     * @param distance Double value of the distance travelled, between 0 and getLength
+     * @return Double value of the vertical offset
+     */
+    public double getY(double distance) {
+        return lookup(ys, distance);
+    }
+
+    /**
+     * Interpolates between the two table entries around a distance.
+     * @param table Array of offsets at every STEP of arc length
+     * @param distance Double value of the distance travelled
+     * @return Double value of the offset
+     */
+    private static double lookup(double[] table, double distance) {
+        double position = distance / STEP;
+        int k = (int) position;
+        if (k >= table.length - 1) {
+            return table[table.length - 1];
+        }
+        double fraction = position - k;
+        return table[k] + (table[k + 1] - table[k]) * fraction;
+    }
+
+    /**
+     * Samples a chain of cubic Bezier curves finely, then resamples it at
+     * equal steps of arc length.
+     * @param points Array of control points, four per curve
+     * @return Array holding the table of x offsets and the table of y offsets
+     */
+    private static double[][] tabulate(double[][] points) {
+        int curves = points.length / 4;
+        int samples = curves * SAMPLES_PER_CURVE + 1;
+        double[] sampleX = new double[samples];
+        double[] sampleY = new double[samples];
+        double[] travelled = new double[samples];
+        for (int c = 0; c < curves; c++) {
+            for (int s = c == 0 ? 0 : 1; s <= SAMPLES_PER_CURVE; s++) {
+                double t = (double) s / SAMPLES_PER_CURVE;
+                int k = c * SAMPLES_PER_CURVE + s;
+                sampleX[k] = bezier(points[4 * c][0], points[4 * c + 1][0], points[4 * c + 2][0], points[4 * c + 3][0], t);
+                sampleY[k] = bezier(points[4 * c][1], points[4 * c + 1][1], points[4 * c + 2][1], points[4 * c + 3][1], t);
+                if (k > 0) {
+                    travelled[k] = travelled[k - 1] + Math.hypot(sampleX[k] - sampleX[k - 1], sampleY[k] - sampleY[k - 1]);
+                }
+            }
+        }
+
+        int entries = (int) (travelled[samples - 1] / STEP) + 1;
+        double[] xs = new double[entries];
+        double[] ys = new double[entries];
+        int k = 0;
+        for (int e = 0; e < entries; e++) {
+            double target = e * STEP;
+            while (k < samples - 2 && travelled[k + 1] < target) {
+                k++;
+            }
+            double span = travelled[k + 1] - travelled[k];
+            double fraction = span > 0 ? (target - travelled[k]) / span : 0;
+            xs[e] = sampleX[k] + (sampleX[k + 1] - sampleX[k]) * fraction;
+            ys[e] = sampleY[k] + (sampleY[k + 1] - sampleY[k]) * fraction;
+        }
+        return new double[][] {xs, ys};
+    }
+
+    /**
+     * Evaluates one coordinate of a cubic Bezier curve.
+     * @param p0 Double value of the start point
+     * @param p1 Double value of the first control point
+     * @param p2 Double value of the second control point
+     * @param p3 Double value of the end point
+     * @param t Double value between 0 and 1
+     * @return Double value of the coordinate at t
+     */
+    private static double bezier(double p0, double p1, double p2, double p3, double t) {
+        double u = 1 - t;
+        return u * u * u * p0 + 3 * u * u * t * p1 + 3 * u * t * t * p2 + t * t * t * p3;
+    }
+}
@@ -0,0 +1,186 @@
+package galaxian;
+
+/**
+ * Contains methods for Enemy movement and behavior. Enemies are not objects of
+ * their own: each one is a slot in an EntityStore, and these methods work on
+ * one slot at a time. The enemy's row and column are the position it holds in
+ * the formation. While an enemy is in the formation or moving down into it,
+ * its x position is relative to the Formation, which moves them all at once.
+ */
+public final class Enemy {
+    public static final double WIDTH = 30;
+    public static final double HEIGHT = 30;
+    public static final byte IN_FORMATION = 0;
+    public static final byte DIVING = 1;
+    public static final byte MOVING_DOWN = 2;
+    private static final double SPEED = 12.0 / GameClock.TICKS_PER_SECOND; // 12 pixels per second
+    public static final double FORMATION_SPEED = SPEED / 1.5;
+    private static final double DIVE_SPEED = SPEED / 1.5;
+    // Most a diver's path is shifted towards the player per tick
+    private static final double HOMING = 0.01;
+    private static final double MISSILE_SPEED = 12.0 / GameClock.TICKS_PER_SECOND;
+
+    private Enemy() {
+    }
+
+    /**
+     * Adds an enemy at its starting position in the formation when a fleet spawns.
+     * @param enemies EntityStore holding the enemies
+     * @param row Row that the enemy occupies in the formation
+     * @param column Column that the enemy occupies in the formation
+     * @return Integer slot of the new enemy, or -1 if the store is full
+     */
+    public static int spawn(EntityStore enemies, int row, int column) {
+        return enemies.add(formationX(column), formationY(row), IN_FORMATION, row, column);
+    }
+
+    /**
+     * Adds an enemy that enters from the top above its column and moves down
+     * into its row, following the formation sideways on the way.
+     * @param enemies EntityStore holding the enemies
+     * @param row Row that the enemy will stop in
+     * @param column Column that the enemy belongs to
+     * @return Integer slot of the new enemy, or -1 if the store is full
+     */
+    public static int spawnAtTop(EntityStore enemies, int row, int column) {
+        return enemies.add(formationX(column), 0, MOVING_DOWN, row, column);
+    }
+
+    /**
+     * Gets the horizontal position of a formation column relative to the formation.
+     * @param column Integer value of the column
+     * @return Double value of the left edge of an enemy in that column
+     */
+    public static double formationX(int column) {
+        return 50 + column * (WIDTH + 10);
+    }
+
+    /**
+     * Gets the vertical position of a formation row.
+     * @param row Integer value of the row
+     * @return Double value of the top edge of an enemy in that row
+     */
+    public static double formationY(int row) {
+        return 70 + row * (HEIGHT + 10);
+    }
+
+    /**
+     * Defines the movement pattern for diving enemies and for newly spawned
+     * enemies. Enemies in the formation don't move on their own; the
+     * Formation moves them as a group. A diver follows its DivePath, with
+     * the path's origin nudged a little towards the player every tick, and
+     * falls straight down once the path ends.
+     * @param enemies EntityStore holding the enemies
+     * @param i Integer slot of the enemy to move
+     * @param playerX Double value of the player's x position
+     */
+    public static void movePattern(EntityStore enemies, int i, double playerX) {
+        double x = enemies.x[i];
+        double y = enemies.y[i];
+        double vx;
+        double vy;
+        byte state = enemies.state[i];
+
+        if (state == MOVING_DOWN) {
+            vx = 0;
+            vy = SPEED;
+            if (y + vy >= formationY(enemies.row[i])) {
+                enemies.state[i] = IN_FORMATION;
+            }
+        }
+        else if (state == DIVING) {
+            DivePath path = DivePath.get(enemies.path[i]);
+            double distance = enemies.pathDistance[i] + DIVE_SPEED;
+            if (distance < path.getLength()) {
+                enemies.pathDistance[i] = distance;
+                double originX = enemies.originX[i] + Math.max(-HOMING, Math.min(HOMING, playerX - x));
+                enemies.originX[i] = originX;
+                vx = originX + path.getX(distance) - x;
+                vy = enemies.originY[i] + path.getY(distance) - y;
+            }
+            else {
+                vx = 0;
+                vy = SPEED;
+            }
+        }
+        else {
+            return;
+        }
+
+        enemies.vx[i] = vx;
+        enemies.vy[i] = vy;
+        enemies.x[i] = x + vx;
+        enemies.y[i] = y + vy;
+    }
+
+    /**
+     * Allows enemies to shoot missiles towards the player.
+     * @param enemies EntityStore holding the enemies
+     * @param i Integer slot of the shooting enemy
+     * @param formation Formation that the enemy's position may be relative to
+     * @param pool MissilePool that the missile is taken from
+     * @param playerX Double value of the player's x position
+     * @param playerY Double value of the player's y position
+     * @param fieldHeight Double value of the playfield's height
+     * @return Integer slot of the missile, or -1 if the enemy is too low or the pool is empty
+     */
+    public static int shootTowardsPlayer(EntityStore enemies, int i, Formation formation, MissilePool pool,
+                                         double playerX, double playerY, double fieldHeight) {
+        double x = formation.getScreenX(enemies, i);
+        double y = enemies.y[i];
+        double distanceFromBottom = fieldHeight - y - HEIGHT;
+        if (distanceFromBottom <= 200) {
+            return -1;
+        }
+
+        double dx = playerX - x;
+        double dy = playerY - y;
+
+        double missileStartX = x + WIDTH / 2;
+        double missileStartY = y + HEIGHT;
+
+        double magnitude = Math.sqrt(dx * dx + dy * dy);
+        if (magnitude > 0) {
+            dx /= magnitude;
+            dy /= magnitude;
+        }
+
+        return pool.acquire(missileStartX, missileStartY, dx, dy, MISSILE_SPEED, Missile.FROM_ENEMY);
+    }
+
+    /**
+     * Signals that an enemy has been chosen for diving, detaches it from the
+     * formation and starts it on a dive path that curls away from the nearer
+     * edge of the playfield.
+     * @param enemies EntityStore holding the enemies
+     * @param i Integer slot of the enemy
+     * @param formation Formation that the enemy leaves
+     */
+    public static void dive(EntityStore enemies, int i, Formation formation) {
+        formation.detach(enemies, i);
+        enemies.state[i] = DIVING;
+        enemies.originX[i] = enemies.x[i];
+        enemies.originY[i] = enemies.y[i];
+        enemies.pathDistance[i] = 0;
+        boolean curlLeft = enemies.x[i] + WIDTH / 2 < formation.getFieldWidth() / 2;
+        enemies.path[i] = (byte) DivePath.choose(enemies.row[i], curlLeft);
+
+        FlightEvents.Dive event = new FlightEvents.Dive();
+        if (event.isEnabled()) {
+            event.row = enemies.row[i];
+            event.column = enemies.column[i];
+            event.path = enemies.path[i];
+            event.commit();
+        }
+    }
+
+    /**
+     * Checks if the enemy has left the formation to dive at the player.
+     * @param enemies EntityStore holding the enemies
+     * @param i Integer slot of the enemy
+     * @return boolean indicating whether the enemy is diving
+     */
+    public static boolean isDiving(EntityStore enemies, int i) {
+        return enemies.state[i] == DIVING;
+    }
+}
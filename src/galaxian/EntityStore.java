@@ -0,0 +1,437 @@
+package galaxian;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays storage for all entities of one kind. An entity is a slot
+ * index into parallel primitive arrays, and live entities are always packed
+ * into slots 0 to count - 1, so update loops walk contiguous memory instead
+ * of chasing one object per entity. Removing an entity moves the last entity
+ * into its slot.
+ * <p>
+ * Because slots move, anything that has to refer to an entity for longer than
+ * a tick holds a handle instead. A handle packs the entity's id with a
+ * generation counter that is bumped when the entity is removed, so a handle to
+ * a removed entity never resolves to whichever entity reuses its id.
+ * Destroying an entity during a tick only marks it and queues its handle;
+ * the queue is applied at the end of the tick with one O(1) swap-remove each.
+ * <p>
+ * The arrays are read and written directly by the code that updates
+ * entities. They are replaced when the store grows, so they must not be
+ * cached in a local variable across a call to add.
+ */
+public class EntityStore {
+    public static final byte DEAD = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final double width;
+    private final double height;
+    private final int maxCapacity;
+
+    double[] x;
+    double[] y;
+    double[] vx;
+    double[] vy;
+    double[] previousX;
+    double[] previousY;
+    byte[] state;
+    int[] row;
+    int[] column;
+    // Where a diving enemy started its dive, how far along its path it is, and which path
+    double[] originX;
+    double[] originY;
+    double[] pathDistance;
+    byte[] path;
+    int count;
+
+    private int[] ids;
+    private int[] slotsById;
+    private int[] generations;
+    private int[] freeIds;
+    private int freeIdCount;
+    private int nextId;
+    private long[] pendingDestroys;
+    private int pendingDestroyCount;
+
+    /**
+     * Creates an empty store.
+     * @param width Double value of the width shared by every entity in the store
+     * @param height Double value of the height shared by every entity in the store
+     * @param maxCapacity Integer value of the most entities the store will hold
+     */
+    public EntityStore(double width, double height, int maxCapacity) {
+        this.width = width;
+        this.height = height;
+        this.maxCapacity = maxCapacity;
+        allocate(Math.min(INITIAL_CAPACITY, maxCapacity));
+    }
+
+    /**
+     * Adds an entity at rest in the first free slot.
+     * @param posX Double value of the entity's left edge
+     * @param posY Double value of the entity's top edge
+     * @param entityState Byte value of the entity's kind-specific state
+     * @param entityRow Integer row of the entity, or 0 if it has none
+     * @param entityColumn Integer column of the entity, or 0 if it has none
+     * @return Integer slot of the new entity, or -1 if the store is full
+     */
+    public int add(double posX, double posY, byte entityState, int entityRow, int entityColumn) {
+        if (count == x.length) {
+            if (count == maxCapacity) {
+                return -1;
+            }
+            allocate((int) Math.min((long) count * 2, maxCapacity));
+        }
+        int i = count++;
+        int id = freeIdCount > 0 ? freeIds[--freeIdCount] : nextId++;
+        ids[i] = id;
+        slotsById[id] = i;
+        x[i] = posX;
+        y[i] = posY;
+        vx[i] = 0;
+        vy[i] = 0;
+        previousX[i] = posX;
+        previousY[i] = posY;
+        state[i] = entityState;
+        row[i] = entityRow;
+        column[i] = entityColumn;
+        originX[i] = posX;
+        originY[i] = posY;
+        pathDistance[i] = 0;
+        path[i] = 0;
+        return i;
+    }
+
+    /**
+     * Gets a handle that keeps referring to an entity while it moves between slots.
+     * @param i Integer slot of the entity
+     * @return Long handle made of the entity's generation and id
+     */
+    public long getHandle(int i) {
+        int id = ids[i];
+        return ((long) generations[id] << 32) | id;
+    }
+
+    /**
+     * Finds the slot an entity currently occupies.
+     * @param handle Long handle returned by getHandle
+     * @return Integer slot of the entity, or -1 if it has been removed
+     */
+    public int slotOf(long handle) {
+        int id = (int) handle;
+        if (id < 0 || id >= nextId || generations[id] != (int) (handle >>> 32)) {
+            return -1;
+        }
+        return slotsById[id];
+    }
+
+    /**
+     * Marks an entity for removal and queues its handle. It keeps its slot
+     * until applyDestroys is called, so slot indices stay valid for the rest
+     * of the tick. Destroying an entity twice queues it only once.
+     * @param i Integer slot of the entity
+     */
+    public void destroy(int i) {
+        if (state[i] == DEAD) {
+            return;
+        }
+        state[i] = DEAD;
+        pendingDestroys[pendingDestroyCount++] = getHandle(i);
+    }
+
+    /**
+     * Checks whether an entity has been marked for removal.
+     * @param i Integer slot of the entity
+     * @return boolean that is true once destroy has been called for the slot
+     */
+    public boolean isDead(int i) {
+        return state[i] == DEAD;
+    }
+
+    /**
+     * Removes every entity destroyed since the last call. Each removal looks
+     * up the entity's current slot through its handle, since earlier removals
+     * may have moved it.
+     */
+    public void applyDestroys() {
+        for (int k = 0; k < pendingDestroyCount; k++) {
+            int i = slotOf(pendingDestroys[k]);
+            if (i >= 0) {
+                remove(i);
+            }
+        }
+        pendingDestroyCount = 0;
+    }
+
+    /**
+     * Gets the number of entities waiting to be removed.
+     * @return Integer length of the destroy queue
+     */
+    public int getPendingDestroyCount() {
+        return pendingDestroyCount;
+    }
+
+    /**
+     * Removes an entity right away by moving the last entity into its slot.
+     * Its handle stops resolving.
+     * @param i Integer slot of the entity
+     */
+    public void remove(int i) {
+        int id = ids[i];
+        generations[id]++;
+        slotsById[id] = -1;
+        freeIds[freeIdCount++] = id;
+
+        int last = --count;
+        if (i != last) {
+            ids[i] = ids[last];
+            slotsById[ids[i]] = i;
+            x[i] = x[last];
+            y[i] = y[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            previousX[i] = previousX[last];
+            previousY[i] = previousY[last];
+            state[i] = state[last];
+            row[i] = row[last];
+            column[i] = column[last];
+            originX[i] = originX[last];
+            originY[i] = originY[last];
+            pathDistance[i] = pathDistance[last];
+            path[i] = path[last];
+        }
+    }
+
+    /**
+     * Removes every entity, including the ones waiting in the destroy queue.
+     */
+    public void clear() {
+        while (count > 0) {
+            remove(count - 1);
+        }
+        pendingDestroyCount = 0;
+    }
+
+    /**
+     * Replaces the store's contents with a copy of another store's positions,
+     * states, rows and columns. Ids and handles are not copied, so the copy
+     * is only good for reading, as the snapshots handed to the renderers are.
+     * @param source EntityStore to copy, with the same maximum capacity as this one
+     */
+    public void copyFrom(EntityStore source) {
+        int n = source.count;
+        if (x.length < n) {
+            allocate(Math.min(Math.max(n, x.length * 2), maxCapacity));
+        }
+        System.arraycopy(source.x, 0, x, 0, n);
+        System.arraycopy(source.y, 0, y, 0, n);
+        System.arraycopy(source.previousX, 0, previousX, 0, n);
+        System.arraycopy(source.previousY, 0, previousY, 0, n);
+        System.arraycopy(source.state, 0, state, 0, n);
+        System.arraycopy(source.row, 0, row, 0, n);
+        System.arraycopy(source.column, 0, column, 0, n);
+        count = n;
+    }
+
+    /**
+     * Gets the number of bytes save writes.
+     * @return Integer size of the store's saved form
+     */
+    public int getSaveSize() {
+        int size = 4 * Integer.BYTES + count * (9 * Double.BYTES + 3 * Integer.BYTES + 2)
+                + (nextId + freeIdCount) * Integer.BYTES;
+        return (size + 7) & ~7;
+    }
+
+    /**
+     * Writes every entity with its id, and the ids' generations and free
+     * list, so handles taken before a save still resolve after a load. The
+     * doubles come first, then the ints, then the bytes, each array in one
+     * bulk copy, and the end is padded to a multiple of eight bytes so the
+     * next array of doubles stays aligned. Call it between ticks, when no
+     * destroys are pending.
+     * @param out ByteBuffer with getSaveSize bytes left
+     */
+    public void save(ByteBuffer out) {
+        int start = out.position();
+        out.putInt(count);
+        out.putInt(nextId);
+        out.putInt(freeIdCount);
+        out.putInt(0);
+        for (double[] field : new double[][] {x, y, vx, vy, previousX, previousY, originX, originY, pathDistance}) {
+            out.asDoubleBuffer().put(field, 0, count);
+            out.position(out.position() + count * Double.BYTES);
+        }
+        putInts(out, ids, count);
+        putInts(out, row, count);
+        putInts(out, column, count);
+        putInts(out, generations, nextId);
+        putInts(out, freeIds, freeIdCount);
+        out.put(state, 0, count);
+        out.put(path, 0, count);
+        while ((out.position() - start) % 8 != 0) {
+            out.put((byte) 0);
+        }
+    }
+
+    /**
+     * Replaces the store's contents with entities written by save.
+     * @param in ByteBuffer positioned at the saved store
+     * @throws IllegalStateException if the saved store is bigger than this store can hold
+     */
+    public void load(ByteBuffer in) {
+        int start = in.position();
+        int n = in.getInt();
+        int idCount = in.getInt();
+        int freeCount = in.getInt();
+        in.getInt();
+        if (n < 0 || idCount < n || idCount > maxCapacity || freeCount != idCount - n) {
+            throw new IllegalStateException("Saved store of " + n + " entities and " + idCount
+                    + " ids does not fit a store of " + maxCapacity);
+        }
+        if (x.length < idCount) {
+            allocate(Math.min(Math.max(idCount, x.length * 2), maxCapacity));
+        }
+        for (double[] field : new double[][] {x, y, vx, vy, previousX, previousY, originX, originY, pathDistance}) {
+            in.asDoubleBuffer().get(field, 0, n);
+            in.position(in.position() + n * Double.BYTES);
+        }
+        getInts(in, ids, n);
+        getInts(in, row, n);
+        getInts(in, column, n);
+        getInts(in, generations, idCount);
+        getInts(in, freeIds, freeCount);
+        in.get(state, 0, n);
+        in.get(path, 0, n);
+        in.position(start + ((in.position() - start + 7) & ~7));
+
+        count = n;
+        nextId = idCount;
+        freeIdCount = freeCount;
+        Arrays.fill(slotsById, 0, idCount, -1);
+        for (int i = 0; i < n; i++) {
+            slotsById[ids[i]] = i;
+        }
+        pendingDestroyCount = 0;
+    }
+
+    /**
+     * Writes the start of an int array in one bulk copy.
+     * @param out ByteBuffer to write to
+     * @param values Array of ints
+     * @param length Integer number of ints to write
+     */
+    private static void putInts(ByteBuffer out, int[] values, int length) {
+        out.asIntBuffer().put(values, 0, length);
+        out.position(out.position() + length * Integer.BYTES);
+    }
+
+    /**
+     * Reads the start of an int array in one bulk copy.
+     * @param in ByteBuffer to read from
+     * @param values Array of ints to fill
+     * @param length Integer number of ints to read
+     */
+    private static void getInts(ByteBuffer in, int[] values, int length) {
+        in.asIntBuffer().get(values, 0, length);
+        in.position(in.position() + length * Integer.BYTES);
+    }
+
+    /**
+     * Remembers every entity's current position as its previous position.
+     */
+    public void savePositions() {
+        System.arraycopy(x, 0, previousX, 0, count);
+        System.arraycopy(y, 0, previousY, 0, count);
+    }
+
+    /**
+     * Checks whether an entity overlaps a rectangle. Touching edges count as an overlap.
+     * @param i Integer slot of the entity
+     * @param minX Double value of the rectangle's left edge
+     * @param minY Double value of the rectangle's top edge
+     * @param maxX Double value of the rectangle's right edge
+     * @param maxY Double value of the rectangle's bottom edge
+     * @return boolean indicating whether the entity and the rectangle overlap
+     */
+    public boolean intersects(int i, double minX, double minY, double maxX, double maxY) {
+        return x[i] <= maxX && minX <= x[i] + width
+                && y[i] <= maxY && minY <= y[i] + height;
+    }
+
+    /**
+     * Checks whether an entity overlaps a sprite.
+     * @param i Integer slot of the entity
+     * @param sprite Sprite to test against
+     * @return boolean indicating whether a collision has occurred or not
+     */
+    public boolean intersects(int i, Sprite sprite) {
+        return intersects(i, sprite.getMinX(), sprite.getMinY(), sprite.getMaxX(), sprite.getMaxY());
+    }
+
+    /**
+     * Gets the number of live entities.
+     * @return Integer number of occupied slots
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the number of slots currently allocated.
+     * @return Integer length of the arrays
+     */
+    public int getCapacity() {
+        return x.length;
+    }
+
+    /**
+     * Gets the most entities the store will hold.
+     * @return Integer maximum capacity
+     */
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * Gets the width of every entity in the store.
+     * @return Double value of the width
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of every entity in the store.
+     * @return Double value of the height
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Resizes every array, keeping the live entities.
+     * @param capacity Integer value of the new array length
+     */
+    private void allocate(int capacity) {
+        x = x == null ? new double[capacity] : Arrays.copyOf(x, capacity);
+        y = y == null ? new double[capacity] : Arrays.copyOf(y, capacity);
+        vx = vx == null ? new double[capacity] : Arrays.copyOf(vx, capacity);
+        vy = vy == null ? new double[capacity] : Arrays.copyOf(vy, capacity);
+        previousX = previousX == null ? new double[capacity] : Arrays.copyOf(previousX, capacity);
+        previousY = previousY == null ? new double[capacity] : Arrays.copyOf(previousY, capacity);
+        state = state == null ? new byte[capacity] : Arrays.copyOf(state, capacity);
+        row = row == null ? new int[capacity] : Arrays.copyOf(row, capacity);
+        column = column == null ? new int[capacity] : Arrays.copyOf(column, capacity);
+        originX = originX == null ? new double[capacity] : Arrays.copyOf(originX, capacity);
+        originY = originY == null ? new double[capacity] : Arrays.copyOf(originY, capacity);
+        pathDistance = pathDistance == null ? new double[capacity] : Arrays.copyOf(pathDistance, capacity);
+        path = path == null ? new byte[capacity] : Arrays.copyOf(path, capacity);
+        ids = ids == null ? new int[capacity] : Arrays.copyOf(ids, capacity);
+        slotsById = slotsById == null ? new int[capacity] : Arrays.copyOf(slotsById, capacity);
+        generations = generations == null ? new int[capacity] : Arrays.copyOf(generations, capacity);
+        freeIds = freeIds == null ? new int[capacity] : Arrays.copyOf(freeIds, capacity);
+        pendingDestroys = pendingDestroys == null ? new long[capacity] : Arrays.copyOf(pendingDestroys, capacity);
+    }
+}
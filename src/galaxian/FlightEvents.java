@@ -0,0 +1,183 @@
+package galaxian;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events emitted by the game, so that a recording of a
+ * real session shows ticks, frames, spawns, dives and collisions on the same
+ * timeline as the JVM's own garbage collection and compilation events.
+ * <p>
+ * Every event is disabled by default and turned on by the galaxian.jfc
+ * settings file in resources. While an event is disabled, the code that
+ * emits it only checks isEnabled on an object the JIT never allocates, so
+ * the cost is close to nothing when nobody is recording. None of the events
+ * record a stack trace.
+ */
+public final class FlightEvents {
+
+    private FlightEvents() {
+    }
+
+    /**
+     * One simulation tick, stepped by GameManager.step, with the time spent in
+     * each phase. The event's duration is the whole tick.
+     */
+    @Name("galaxian.Tick")
+    @Label("Tick")
+    @Category({"Galaxian", "Simulation"})
+    @Description("One simulation tick and the time spent in each of its phases")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class Tick extends Event {
+        @Label("Tick")
+        long tick;
+
+        @Label("Update")
+        @Description("Time spent in GameManager.update, and moving the player")
+        @Timespan(Timespan.NANOSECONDS)
+        long update;
+
+        @Label("Dive")
+        @Description("Time spent in GameManager.maybeTriggerDive")
+        @Timespan(Timespan.NANOSECONDS)
+        long dive;
+
+        @Label("Shoot")
+        @Description("Time spent in GameManager.enemyShootMissile")
+        @Timespan(Timespan.NANOSECONDS)
+        long shoot;
+
+        @Label("Enemies")
+        int enemies;
+
+        @Label("Missiles")
+        int missiles;
+    }
+
+    /**
+     * Drawing one snapshot on the JavaFX thread. The event's duration is the
+     * renderer's render call.
+     */
+    @Name("galaxian.Render")
+    @Label("Render")
+    @Category({"Galaxian", "Rendering"})
+    @Description("Drawing one snapshot of the game on the JavaFX thread")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class Render extends Event {
+        @Label("Tick")
+        @Description("Tick of the snapshot that was drawn")
+        long tick;
+
+        @Label("Enemies")
+        int enemies;
+
+        @Label("Missiles")
+        int missiles;
+    }
+
+    /**
+     * Nodes added to and removed from the scene graph by the node-based
+     * renderer in one frame, for one layer.
+     */
+    @Name("galaxian.SceneGraphBatch")
+    @Label("Scene Graph Batch")
+    @Category({"Galaxian", "Rendering"})
+    @Description("Nodes added to and removed from one layer of the scene graph in a frame")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class SceneGraphBatch extends Event {
+        @Label("Layer")
+        String layer;
+
+        @Label("Added")
+        int added;
+
+        @Label("Removed")
+        int removed;
+
+        @Label("Children")
+        @Description("Number of nodes in the layer afterwards")
+        int children;
+    }
+
+    /**
+     * A new fleet being spawned, at the start of the game or when the last
+     * one has been destroyed.
+     */
+    @Name("galaxian.FleetSpawn")
+    @Label("Fleet Spawn")
+    @Category({"Galaxian", "Simulation"})
+    @Description("A new fleet of enemies being spawned")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class FleetSpawn extends Event {
+        @Label("Tick")
+        long tick;
+
+        @Label("Fleets Destroyed")
+        int fleetsDestroyed;
+
+        @Label("Spawned")
+        @Description("Number of enemies in the new fleet")
+        int spawned;
+    }
+
+    /**
+     * An enemy leaving the formation to dive at the player.
+     */
+    @Name("galaxian.Dive")
+    @Label("Dive")
+    @Category({"Galaxian", "Simulation"})
+    @Description("An enemy leaving the formation to dive")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class Dive extends Event {
+        @Label("Row")
+        int row;
+
+        @Label("Column")
+        int column;
+
+        @Label("Path")
+        @Description("Index of the DivePath the enemy follows")
+        int path;
+    }
+
+    /**
+     * The collision work of one tick: how many narrowphase tests ran and
+     * what they hit. Only emitted for ticks that tested anything.
+     */
+    @Name("galaxian.Collisions")
+    @Label("Collisions")
+    @Category({"Galaxian", "Simulation"})
+    @Description("Collision tests and hits in one tick")
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class Collisions extends Event {
+        @Label("Tick")
+        long tick;
+
+        @Label("Tests")
+        @Description("Number of swept tests between a missile or a diver and something it may hit")
+        int tests;
+
+        @Label("Enemies Hit")
+        int enemiesHit;
+
+        @Label("Player Hit")
+        @Description("Number of enemy missiles and divers that hit the player")
+        int playerHit;
+
+        @Label("Respawns")
+        @Description("Number of enemies sent down to replace ones that were hit")
+        int respawns;
+    }
+}
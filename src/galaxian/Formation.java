@@ -0,0 +1,238 @@
+package galaxian;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The enemy formation as one rigid group. Enemies in the formation, and the
+ * ones moving down to rejoin it, store their position relative to the group
+ * in the entity store, and the whole group is moved with a single horizontal
+ * offset each tick. Enemies that dive are detached: their position is
+ * converted to screen coordinates and from then on they move on their own.
+ * <p>
+ * Because enemies in the formation never move relative to each other, each
+ * one sits at the position of its column, and the group's extent follows
+ * from the lowest and highest column that has a member. The formation counts
+ * its members per column as they join and leave, so finding the extent never
+ * walks the enemies; the ones holding their place are looked up for
+ * collisions in the FormationIndex, in the formation's coordinates.
+ */
+public class Formation {
+    static final int SAVE_SIZE = 3 * Long.BYTES;
+    private final double fieldWidth;
+    private double offsetX;
+    private double previousOffsetX;
+    private int direction = 1;
+    private int[] columnCounts = new int[16];
+    private int memberCount;
+    private int minColumn;
+    private int maxColumn;
+
+    /**
+     * Creates a formation that starts at the left of the playfield and moves right.
+     * @param fieldWidth Double value of the playfield's width
+     */
+    public Formation(double fieldWidth) {
+        this.fieldWidth = fieldWidth;
+    }
+
+    /**
+     * Checks whether an enemy moves with the formation.
+     * @param enemies EntityStore holding the enemies
+     * @param i Integer slot of the enemy
+     * @return boolean that is true for enemies in the formation and enemies moving down into it
+     */
+    public static boolean isMember(EntityStore enemies, int i) {
+        byte state = enemies.state[i];
+        return state == Enemy.IN_FORMATION || state == Enemy.MOVING_DOWN;
+    }
+
+    /**
+     * Moves the whole formation sideways by one tick, turning it around when
+     * its outermost enemy reaches the edge of the playfield.
+     */
+    public void move() {
+        offsetX += direction * Enemy.FORMATION_SPEED;
+        if (memberCount == 0) {
+            return;
+        }
+        if (Enemy.formationX(maxColumn) + offsetX > fieldWidth - Enemy.WIDTH) {
+            direction = -1;
+        } else if (Enemy.formationX(minColumn) + offsetX < 0) {
+            direction = 1;
+        }
+    }
+
+    /**
+     * Remembers the formation's current offset as its previous offset.
+     */
+    public void savePosition() {
+        previousOffsetX = offsetX;
+    }
+
+    /**
+     * Puts the formation back at its starting offset for a new fleet, with
+     * no members.
+     */
+    public void reset() {
+        offsetX = 0;
+        previousOffsetX = 0;
+        direction = 1;
+        Arrays.fill(columnCounts, 0);
+        memberCount = 0;
+    }
+
+    /**
+     * Writes the formation's offsets and direction. The members are counted
+     * again from the enemies with recount.
+     * @param out ByteBuffer with SAVE_SIZE bytes left
+     */
+    public void save(ByteBuffer out) {
+        out.putDouble(offsetX);
+        out.putDouble(previousOffsetX);
+        out.putInt(direction);
+        out.putInt(0);
+    }
+
+    /**
+     * Replaces the formation's offsets and direction with ones written by save.
+     * @param in ByteBuffer to read from
+     */
+    public void load(ByteBuffer in) {
+        offsetX = in.getDouble();
+        previousOffsetX = in.getDouble();
+        direction = in.getInt();
+        in.getInt();
+    }
+
+    /**
+     * Counts the members again from scratch, after the enemies have been
+     * replaced all at once, as when a game is loaded.
+     * @param enemies EntityStore holding the enemies
+     */
+    public void recount(EntityStore enemies) {
+        Arrays.fill(columnCounts, 0);
+        memberCount = 0;
+        for (int i = 0; i < enemies.count; i++) {
+            if (isMember(enemies, i)) {
+                join(enemies.column[i]);
+            }
+        }
+    }
+
+    /**
+     * Counts an enemy that has joined the formation, either in its place or
+     * moving down into it.
+     * @param column Integer column of the enemy
+     */
+    public void join(int column) {
+        if (column >= columnCounts.length) {
+            columnCounts = Arrays.copyOf(columnCounts, Math.max(column + 1, columnCounts.length * 2));
+        }
+        columnCounts[column]++;
+        if (memberCount++ == 0) {
+            minColumn = column;
+            maxColumn = column;
+        } else if (column < minColumn) {
+            minColumn = column;
+        } else if (column > maxColumn) {
+            maxColumn = column;
+        }
+    }
+
+    /**
+     * Stops counting an enemy that dives or is destroyed. When the last
+     * member of an outer column leaves, the extent shrinks to the next
+     * column that still has one.
+     * @param column Integer column of the enemy
+     */
+    public void leave(int column) {
+        memberCount--;
+        if (--columnCounts[column] > 0 || memberCount == 0) {
+            return;
+        }
+        while (columnCounts[minColumn] == 0) {
+            minColumn++;
+        }
+        while (columnCounts[maxColumn] == 0) {
+            maxColumn--;
+        }
+    }
+
+    /**
+     * Detaches an enemy from the formation by converting its current and
+     * previous positions into screen coordinates. Call leave for it as well
+     * if it was counted.
+     * @param enemies EntityStore holding the enemies
+     * @param i Integer slot of the enemy
+     */
+    public void detach(EntityStore enemies, int i) {
+        enemies.x[i] += offsetX;
+        enemies.previousX[i] += previousOffsetX;
+    }
+
+    /**
+     * Converts a horizontal screen position into the formation's coordinates.
+     * @param screenX Double value of the position on screen
+     * @return Double value of the position relative to the formation
+     */
+    public double toGroupX(double screenX) {
+        return screenX - offsetX;
+    }
+
+    /**
+     * Converts a horizontal screen position at the start of the tick into the
+     * formation's coordinates. Something moving from there to a position
+     * converted with toGroupX moves relative to the formation, so tests in
+     * the formation's coordinates can treat the formation as standing still.
+     * @param screenX Double value of the position on screen at the start of the tick
+     * @return Double value of the position relative to the formation at the start of the tick
+     */
+    public double toPreviousGroupX(double screenX) {
+        return screenX - previousOffsetX;
+    }
+
+    /**
+     * Gets the horizontal screen position of any enemy.
+     * @param enemies EntityStore holding the enemies
+     * @param i Integer slot of the enemy
+     * @return Double value of the enemy's left edge on screen
+     */
+    public double getScreenX(EntityStore enemies, int i) {
+        return isMember(enemies, i) ? enemies.x[i] + offsetX : enemies.x[i];
+    }
+
+    /**
+     * Gets the horizontal screen position of any enemy at the start of the tick.
+     * @param enemies EntityStore holding the enemies
+     * @param i Integer slot of the enemy
+     * @return Double value of the enemy's previous left edge on screen
+     */
+    public double getPreviousScreenX(EntityStore enemies, int i) {
+        return isMember(enemies, i) ? enemies.previousX[i] + previousOffsetX : enemies.previousX[i];
+    }
+
+    /**
+     * Gets the width of the playfield the formation moves across.
+     * @return Double value of the playfield's width
+     */
+    public double getFieldWidth() {
+        return fieldWidth;
+    }
+
+    /**
+     * Gets the formation's current horizontal offset.
+     * @return Double value added to the position of every enemy in the formation
+     */
+    public double getOffsetX() {
+        return offsetX;
+    }
+
+    /**
+     * Gets the formation's horizontal offset at the start of the current tick.
+     * @return Double value of the previous offset
+     */
+    public double getPreviousOffsetX() {
+        return previousOffsetX;
+    }
+}
@@ -0,0 +1,332 @@
+package galaxian;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Index of the enemies that hold their place in the formation, kept up to
+ * date as enemies join, dive and die rather than rebuilt from the entity
+ * store. It keeps an occupancy bitset per row, a count of the enemies in the
+ * formation, and for every (row, column) cell the handles of the enemies in
+ * it, linked through arrays indexed by entity id. Stress fleets can put more
+ * than one enemy in a cell, so a cell counts its enemies.
+ * <p>
+ * Enemies are found by handle, so the index stays valid while the store
+ * moves enemies between slots. Since every enemy in a cell sits at the
+ * cell's place in the formation, the cells also serve as the broadphase for
+ * collisions with the formation, and nothing has to be rebuilt when enemies
+ * join, leave or change slots.
+ */
+public class FormationIndex {
+    private static final long NONE = -1;
+    private static final double COLUMN_PITCH = Enemy.formationX(1) - Enemy.formationX(0);
+    private static final double ROW_PITCH = Enemy.formationY(1) - Enemy.formationY(0);
+
+    private final EntityStore enemies;
+    private int rows;
+    private int columns;
+    private int words;
+    private long[] occupancy;
+    private int[] cellCounts;
+    private long[] cellHeads;
+    private long[] nextInCell = new long[64];
+    private long[] previousInCell = new long[64];
+    private int count;
+    private int[] candidates = new int[16];
+    private int[] results = new int[16];
+
+    /**
+     * Creates an empty index sized for the normal fleet.
+     * @param enemies EntityStore holding the enemies
+     */
+    public FormationIndex(EntityStore enemies) {
+        this.enemies = enemies;
+        allocate(GameManager.FLEET_ROWS, 64);
+    }
+
+    /**
+     * Adds an enemy that has taken its place in the formation.
+     * @param i Integer slot of the enemy
+     */
+    public void add(int i) {
+        int row = enemies.row[i];
+        int column = enemies.column[i];
+        if (row >= rows || column >= columns) {
+            allocate(Math.max(rows, row + 1), Math.max(columns, column + 1));
+        }
+        long handle = enemies.getHandle(i);
+        int id = (int) handle;
+        if (id >= nextInCell.length) {
+            int length = Math.max(id + 1, nextInCell.length * 2);
+            nextInCell = Arrays.copyOf(nextInCell, length);
+            previousInCell = Arrays.copyOf(previousInCell, length);
+        }
+
+        int cell = row * columns + column;
+        long head = cellHeads[cell];
+        nextInCell[id] = head;
+        previousInCell[id] = NONE;
+        if (head != NONE) {
+            previousInCell[(int) head] = handle;
+        }
+        cellHeads[cell] = handle;
+        if (cellCounts[cell]++ == 0) {
+            occupancy[row * words + (column >>> 6)] |= 1L << column;
+        }
+        count++;
+    }
+
+    /**
+     * Removes an enemy that is leaving the formation. Call it while the enemy
+     * still has its slot, row and column, before it is destroyed or dives.
+     * @param i Integer slot of the enemy
+     */
+    public void remove(int i) {
+        int row = enemies.row[i];
+        int column = enemies.column[i];
+        int id = (int) enemies.getHandle(i);
+        int cell = row * columns + column;
+
+        long next = nextInCell[id];
+        long previous = previousInCell[id];
+        if (previous != NONE) {
+            nextInCell[(int) previous] = next;
+        } else {
+            cellHeads[cell] = next;
+        }
+        if (next != NONE) {
+            previousInCell[(int) next] = previous;
+        }
+        if (--cellCounts[cell] == 0) {
+            occupancy[row * words + (column >>> 6)] &= ~(1L << column);
+        }
+        count--;
+    }
+
+    /**
+     * Empties the index.
+     */
+    public void clear() {
+        Arrays.fill(occupancy, 0);
+        Arrays.fill(cellCounts, 0);
+        Arrays.fill(cellHeads, NONE);
+        count = 0;
+    }
+
+    /**
+     * Gets the number of bytes save writes.
+     * @return Integer size of the index's saved form
+     */
+    public int getSaveSize() {
+        return Long.BYTES + count * Long.BYTES;
+    }
+
+    /**
+     * Writes the handles of the enemies in the index, each cell's enemies
+     * in the order they were added, so that adding them again in that order
+     * rebuilds every cell as it was. Which enemy of a stacked cell dives
+     * depends on that order.
+     * @param out ByteBuffer with getSaveSize bytes left
+     */
+    public void save(ByteBuffer out) {
+        out.putInt(count);
+        out.putInt(0);
+        long[] cell = new long[16];
+        for (int c = 0; c < cellHeads.length; c++) {
+            int n = 0;
+            for (long handle = cellHeads[c]; handle != NONE; handle = nextInCell[(int) handle]) {
+                if (n == cell.length) {
+                    cell = Arrays.copyOf(cell, n * 2);
+                }
+                cell[n++] = handle;
+            }
+            while (n > 0) {
+                out.putLong(cell[--n]);
+            }
+        }
+    }
+
+    /**
+     * Replaces the index's contents with enemies written by save. Load the
+     * enemies' store first.
+     * @param in ByteBuffer positioned at the saved index
+     * @throws IllegalStateException if a saved enemy is not in the store
+     */
+    public void load(ByteBuffer in) {
+        clear();
+        int n = in.getInt();
+        in.getInt();
+        for (int k = 0; k < n; k++) {
+            long handle = in.getLong();
+            int i = enemies.slotOf(handle);
+            if (i < 0) {
+                throw new IllegalStateException("Saved formation holds enemy " + (int) handle + ", which is gone");
+            }
+            add(i);
+        }
+    }
+
+    /**
+     * Gets the number of enemies holding their place in the formation.
+     * @return Integer number of enemies in the index
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Checks whether a cell of the formation is occupied.
+     * @param row Integer row of the cell
+     * @param column Integer column of the cell
+     * @return boolean that is true if an enemy holds that place
+     */
+    public boolean isOccupied(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns
+                && (occupancy[row * words + (column >>> 6)] & (1L << column)) != 0;
+    }
+
+    /**
+     * Finds an enemy holding a place in the formation.
+     * @param row Integer row of the cell
+     * @param column Integer column of the cell
+     * @return Integer slot of an enemy in that cell, or -1 if it is empty
+     */
+    public int slotAt(int row, int column) {
+        if (!isOccupied(row, column)) {
+            return -1;
+        }
+        return enemies.slotOf(cellHeads[row * columns + column]);
+    }
+
+    /**
+     * Finds the enemies in the formation that may overlap a rectangle given
+     * in the formation's coordinates, found with Formation.toGroupX and
+     * toPreviousGroupX. An enemy that has just moved down into its place
+     * may sit slightly below its row, so each row is taken to reach down to
+     * the next one.
+     * @param minX Double value of the rectangle's left edge
+     * @param minY Double value of the rectangle's top edge
+     * @param maxX Double value of the rectangle's right edge
+     * @param maxY Double value of the rectangle's bottom edge
+     * @return Integer number of candidates, read with getResult
+     */
+    public int query(double minX, double minY, double maxX, double maxY) {
+        int firstColumn = (int) Math.max(0, Math.ceil((minX - Enemy.WIDTH - Enemy.formationX(0)) / COLUMN_PITCH));
+        int lastColumn = (int) Math.min(columns - 1, Math.floor((maxX - Enemy.formationX(0)) / COLUMN_PITCH));
+        int firstRow = (int) Math.max(0, Math.ceil((minY - ROW_PITCH - Enemy.formationY(0)) / ROW_PITCH));
+        int lastRow = (int) Math.min(rows - 1, Math.floor((maxY - Enemy.formationY(0)) / ROW_PITCH));
+        int found = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                if (!isOccupied(row, column)) {
+                    continue;
+                }
+                for (long handle = cellHeads[row * columns + column]; handle != NONE;
+                        handle = nextInCell[(int) handle]) {
+                    if (found == results.length) {
+                        results = Arrays.copyOf(results, found * 2);
+                    }
+                    results[found++] = enemies.slotOf(handle);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets one of the candidates found by the last query.
+     * @param index Integer index below the count returned by query
+     * @return Integer slot of an enemy in the formation
+     */
+    public int getResult(int index) {
+        return results[index];
+    }
+
+    /**
+     * Collects the enemies that may dive: the leftmost and the rightmost
+     * enemy of each row, found from the row's occupancy bits.
+     * @return Integer number of candidates, read with getCandidate
+     */
+    public int findDivingCandidates() {
+        if (candidates.length < rows * 2) {
+            candidates = new int[rows * 2];
+        }
+        int found = 0;
+        for (int row = 0; row < rows; row++) {
+            int left = firstColumn(row);
+            if (left < 0) {
+                continue;
+            }
+            int right = lastColumn(row);
+            candidates[found++] = slotAt(row, left);
+            if (right != left) {
+                candidates[found++] = slotAt(row, right);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets one of the candidates found by the last call to findDivingCandidates.
+     * @param index Integer index below the count it returned
+     * @return Integer slot of an enemy that may dive
+     */
+    public int getCandidate(int index) {
+        return candidates[index];
+    }
+
+    /**
+     * Finds the lowest occupied column of a row.
+     * @param row Integer row
+     * @return Integer column, or -1 if the row is empty
+     */
+    private int firstColumn(int row) {
+        for (int w = 0; w < words; w++) {
+            long bits = occupancy[row * words + w];
+            if (bits != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the highest occupied column of a row.
+     * @param row Integer row
+     * @return Integer column, or -1 if the row is empty
+     */
+    private int lastColumn(int row) {
+        for (int w = words - 1; w >= 0; w--) {
+            long bits = occupancy[row * words + w];
+            if (bits != 0) {
+                return (w << 6) + 63 - Long.numberOfLeadingZeros(bits);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Grows the per-cell arrays, keeping the enemies already indexed.
+     * @param newRows Integer number of rows to make room for
+     * @param newColumns Integer number of columns to make room for
+     */
+    private void allocate(int newRows, int newColumns) {
+        int newWords = (newColumns + 63) >>> 6;
+        newColumns = newWords << 6;
+        long[] newOccupancy = new long[newRows * newWords];
+        int[] newCounts = new int[newRows * newColumns];
+        long[] newHeads = new long[newRows * newColumns];
+        Arrays.fill(newHeads, NONE);
+        for (int row = 0; row < rows; row++) {
+            System.arraycopy(occupancy, row * words, newOccupancy, row * newWords, words);
+            System.arraycopy(cellCounts, row * columns, newCounts, row * newColumns, columns);
+            System.arraycopy(cellHeads, row * columns, newHeads, row * newColumns, columns);
+        }
+        rows = newRows;
+        columns = newColumns;
+        words = newWords;
+        occupancy = newOccupancy;
+        cellCounts = newCounts;
+        cellHeads = newHeads;
+    }
+}
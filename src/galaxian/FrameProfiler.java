@@ -0,0 +1,219 @@
+package galaxian;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Measures where the time of each frame goes. The game loop calls lap after
+ * each phase, which adds the time since the previous lap to that phase; at the
+ * end of the frame every phase's total is recorded in its own ring histogram,
+ * along with the time between frames and the bytes allocated by the frame:
+ * those allocated on the JavaFX thread, plus those the simulation thread
+ * allocated for the ticks the frame draws, added with addAllocations.
+ * It also keeps the time from key events to the frames that first draw them.
+ * While the profiler is disabled, every call returns straight away.
+ */
+public class FrameProfiler {
+
+    /**
+     * The phases of a frame in Main.startGameLoop(). UPDATE, DIVE and SHOOT
+     * run on the simulation thread and are added to the frame that draws their ticks.
+     */
+    public enum Phase {
+        UPDATE, DIVE, SHOOT, RENDER, HUD
+    }
+
+    private static final int HISTORY = 512;
+    private static final Phase[] PHASES = Phase.values();
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+
+    private final RingHistogram frameTimes = new RingHistogram(HISTORY);
+    private final RingHistogram allocations = new RingHistogram(HISTORY);
+    private final RingHistogram inputLatencies = new RingHistogram(HISTORY);
+    private final RingHistogram[] phaseTimes = new RingHistogram[PHASES.length];
+    private final long[] phaseTotals = new long[PHASES.length];
+    private boolean enabled;
+    private long lastFrameTime = -1;
+    private long lapStart;
+    private long frameAllocationStart;
+    private long addedAllocations;
+
+    /**
+     * Creates a disabled profiler with empty histograms.
+     */
+    public FrameProfiler() {
+        for (int p = 0; p < PHASES.length; p++) {
+            phaseTimes[p] = new RingHistogram(HISTORY);
+        }
+    }
+
+    /**
+     * Looks up the JVM's per-thread allocation counters and turns them on.
+     * @return ThreadMXBean that counts allocations, or null if the JVM can't
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+            return sunBean;
+        }
+        return null;
+    }
+
+    /**
+     * Turns measuring on or off. Turning it on starts with empty histograms.
+     * @param enabled boolean that is true to measure frames
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && !this.enabled) {
+            frameTimes.clear();
+            allocations.clear();
+            inputLatencies.clear();
+            for (RingHistogram histogram : phaseTimes) {
+                histogram.clear();
+            }
+            lastFrameTime = -1;
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Checks whether the profiler is measuring frames.
+     * @return boolean that is true while enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a frame and records the time since the previous one.
+     * @param now Long value of the frame's timestamp in nanoseconds
+     */
+    public void beginFrame(long now) {
+        if (!enabled) {
+            return;
+        }
+        if (lastFrameTime >= 0) {
+            frameTimes.record(now - lastFrameTime);
+        }
+        lastFrameTime = now;
+        frameAllocationStart = currentThreadAllocatedBytes();
+        addedAllocations = 0;
+        lapStart = System.nanoTime();
+    }
+
+    /**
+     * Adds the time since the previous lap to a phase. A phase that runs
+     * several times in one frame, like a tick phase, adds up over the frame.
+     * @param phase Phase that just finished
+     */
+    public void lap(Phase phase) {
+        if (!enabled) {
+            return;
+        }
+        long time = System.nanoTime();
+        phaseTotals[phase.ordinal()] += time - lapStart;
+        lapStart = time;
+    }
+
+    /**
+     * Adds time measured elsewhere to a phase of the current frame.
+     * @param phase Phase that the time belongs to
+     * @param nanos Long value of the time in nanoseconds
+     */
+    public void add(Phase phase, long nanos) {
+        if (!enabled) {
+            return;
+        }
+        phaseTotals[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * Adds bytes allocated on another thread to the current frame.
+     * @param bytes Long count of bytes
+     */
+    public void addAllocations(long bytes) {
+        if (!enabled) {
+            return;
+        }
+        addedAllocations += bytes;
+    }
+
+    /**
+     * Records how long an input took to reach the screen.
+     * @param nanos Long value of the time from the key event to the end of
+     *              the frame that first drew its effect
+     */
+    public void recordInputLatency(long nanos) {
+        if (!enabled) {
+            return;
+        }
+        inputLatencies.record(nanos);
+    }
+
+    /**
+     * Ends a frame and records each phase's total and the frame's allocations.
+     */
+    public void endFrame() {
+        if (!enabled) {
+            return;
+        }
+        for (int p = 0; p < PHASES.length; p++) {
+            phaseTimes[p].record(phaseTotals[p]);
+            phaseTotals[p] = 0;
+        }
+        if (ALLOCATION_BEAN != null) {
+            allocations.record(currentThreadAllocatedBytes() - frameAllocationStart + addedAllocations);
+        }
+    }
+
+    /**
+     * Gets the histogram of times between frames.
+     * @return RingHistogram of frame times in nanoseconds
+     */
+    public RingHistogram getFrameTimes() {
+        return frameTimes;
+    }
+
+    /**
+     * Gets the histogram of time spent in one phase per frame.
+     * @param phase Phase to look up
+     * @return RingHistogram of phase times in nanoseconds
+     */
+    public RingHistogram getPhaseTimes(Phase phase) {
+        return phaseTimes[phase.ordinal()];
+    }
+
+    /**
+     * Gets the histogram of input latencies.
+     * @return RingHistogram of times from key event to frame in nanoseconds
+     */
+    public RingHistogram getInputLatencies() {
+        return inputLatencies;
+    }
+
+    /**
+     * Gets the histogram of bytes allocated per frame, on the JavaFX thread
+     * and the simulation thread together.
+     * @return RingHistogram of allocations, empty if the JVM can't measure them
+     */
+    public RingHistogram getAllocations() {
+        return allocations;
+    }
+
+    /**
+     * Checks whether the JVM reports per-thread allocations.
+     * @return boolean that is true if getAllocations is filled in
+     */
+    public boolean isAllocationSupported() {
+        return ALLOCATION_BEAN != null;
+    }
+
+    /**
+     * Gets the number of bytes the current thread has allocated so far.
+     * @return Long count of bytes, or 0 if the JVM can't measure it
+     */
+    static long currentThreadAllocatedBytes() {
+        return ALLOCATION_BEAN == null ? 0 : ALLOCATION_BEAN.getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,50 @@
+package galaxian;
+
+/**
+ * Fixed-step simulation clock. Turns timestamps into a whole number of
+ * simulation ticks, so the game runs at the same speed no matter how often
+ * it is polled. The simulation thread sleeps for the time left until the
+ * next tick between polls.
+ */
+public class GameClock {
+    public static final int TICKS_PER_SECOND = 120;
+    public static final long NANOS_PER_TICK = 1_000_000_000L / TICKS_PER_SECOND;
+    private static final int MAX_TICKS_PER_FRAME = 8;
+
+    private long lastTime;
+    private long accumulator;
+    private boolean started;
+
+    /**
+     * Adds the time since the last call to the accumulator and works out how
+     * many ticks are due. After a long hitch at most MAX_TICKS_PER_FRAME ticks
+     * are run, and the rest of the backlog is dropped so the game slows down
+     * instead of freezing while it catches up.
+     * @param now Long value of the current time in nanoseconds
+     * @return Integer number of ticks to run now
+     */
+    public int advance(long now) {
+        if (!started) {
+            started = true;
+            lastTime = now;
+            return 0;
+        }
+        accumulator += now - lastTime;
+        lastTime = now;
+
+        int ticks = (int) Math.min(accumulator / NANOS_PER_TICK, MAX_TICKS_PER_FRAME);
+        accumulator -= ticks * NANOS_PER_TICK;
+        if (accumulator >= NANOS_PER_TICK) {
+            accumulator %= NANOS_PER_TICK;
+        }
+        return ticks;
+    }
+
+    /**
+     * Gets how long it is until the next tick is due, as of the last call to advance.
+     * @return Long value of the time left in nanoseconds
+     */
+    public long getNanosUntilNextTick() {
+        return NANOS_PER_TICK - accumulator;
+    }
+}
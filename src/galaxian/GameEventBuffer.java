@@ -0,0 +1,147 @@
+package galaxian;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collects game events as rows of parallel primitive arrays, so recording an
+ * event is a few array writes and no allocation once the arrays have grown
+ * to fit the busiest frame. The buffer is emptied when its events are
+ * delivered.
+ */
+public class GameEventBuffer {
+    private static final byte ENEMY_KILLED = 0;
+    private static final byte PLAYER_HIT = 1;
+    private static final byte FLEET_CLEARED = 2;
+    private static final byte GAME_OVER = 3;
+
+    private byte[] types;
+    private int[] firsts;
+    private int[] seconds;
+    private int[] thirds;
+    private double[] xs;
+    private double[] ys;
+    private int count;
+
+    /**
+     * Creates an empty buffer.
+     * @param capacity Integer number of events to make room for up front
+     */
+    public GameEventBuffer(int capacity) {
+        types = new byte[capacity];
+        firsts = new int[capacity];
+        seconds = new int[capacity];
+        thirds = new int[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+    }
+
+    /**
+     * Records that the player shot down an enemy.
+     * @param x Double value of the enemy's left edge on screen
+     * @param y Double value of the enemy's top edge
+     * @param row Integer row of the enemy
+     * @param points Integer number of points scored
+     * @param score Integer score after the points were added
+     */
+    public void enemyKilled(double x, double y, int row, int points, int score) {
+        int k = append(ENEMY_KILLED);
+        xs[k] = x;
+        ys[k] = y;
+        firsts[k] = row;
+        seconds[k] = points;
+        thirds[k] = score;
+    }
+
+    /**
+     * Records that the player was hit.
+     * @param byDiver boolean that is true if a diving enemy crashed into the player
+     * @param lives Integer number of lives left
+     */
+    public void playerHit(boolean byDiver, int lives) {
+        int k = append(PLAYER_HIT);
+        firsts[k] = byDiver ? 1 : 0;
+        seconds[k] = lives;
+    }
+
+    /**
+     * Records that a fleet was cleared.
+     * @param fleetsDestroyed Integer number of fleets destroyed so far
+     */
+    public void fleetCleared(int fleetsDestroyed) {
+        int k = append(FLEET_CLEARED);
+        firsts[k] = fleetsDestroyed;
+    }
+
+    /**
+     * Records that the game is over.
+     * @param score Integer final score
+     */
+    public void gameOver(int score) {
+        int k = append(GAME_OVER);
+        firsts[k] = score;
+    }
+
+    /**
+     * Hands every recorded event to every listener, in order, and empties the buffer.
+     * @param listeners List of listeners to deliver to
+     */
+    public void deliver(List<GameEventListener> listeners) {
+        for (int k = 0; k < count; k++) {
+            for (int l = 0; l < listeners.size(); l++) {
+                GameEventListener listener = listeners.get(l);
+                switch (types[k]) {
+                    case ENEMY_KILLED -> listener.enemyKilled(xs[k], ys[k], firsts[k], seconds[k], thirds[k]);
+                    case PLAYER_HIT -> listener.playerHit(firsts[k] != 0, seconds[k]);
+                    case FLEET_CLEARED -> listener.fleetCleared(firsts[k]);
+                    case GAME_OVER -> listener.gameOver(firsts[k]);
+                    default -> throw new IllegalStateException("Unknown event type " + types[k]);
+                }
+            }
+        }
+        count = 0;
+    }
+
+    /**
+     * Appends every recorded event to another buffer, in order, and empties this one.
+     * @param target GameEventBuffer that takes the events
+     */
+    public void moveTo(GameEventBuffer target) {
+        for (int k = 0; k < count; k++) {
+            int t = target.append(types[k]);
+            target.firsts[t] = firsts[k];
+            target.seconds[t] = seconds[k];
+            target.thirds[t] = thirds[k];
+            target.xs[t] = xs[k];
+            target.ys[t] = ys[k];
+        }
+        count = 0;
+    }
+
+    /**
+     * Gets the number of events waiting to be delivered.
+     * @return Integer number of events
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Starts a new event row, growing the arrays if they are full.
+     * @param type Byte type of the event
+     * @return Integer index of the new row
+     */
+    private int append(byte type) {
+        if (count == types.length) {
+            int capacity = Math.max(16, count * 2);
+            types = Arrays.copyOf(types, capacity);
+            firsts = Arrays.copyOf(firsts, capacity);
+            seconds = Arrays.copyOf(seconds, capacity);
+            thirds = Arrays.copyOf(thirds, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+        }
+        types[count] = type;
+        return count++;
+    }
+}
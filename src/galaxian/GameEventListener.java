@@ -0,0 +1,43 @@
+package galaxian;
+
+/**
+ * Receives the game's events. Events are collected while the game ticks and
+ * delivered together once per frame, in the order they happened, so
+ * listeners never run inside the collision loop. Every method does nothing
+ * by default; implement the ones of interest.
+ */
+public interface GameEventListener {
+
+    /**
+     * Called for every enemy shot down by the player.
+     * @param x Double value of the enemy's left edge on screen
+     * @param y Double value of the enemy's top edge
+     * @param row Integer row of the enemy in the formation
+     * @param points Integer number of points the enemy was worth
+     * @param score Integer score after the points were added
+     */
+    public default void enemyKilled(double x, double y, int row, int points, int score) {
+    }
+
+    /**
+     * Called when the player is hit by a missile or by a diving enemy.
+     * @param byDiver boolean that is true if a diving enemy crashed into the player
+     * @param lives Integer number of lives left after the hit
+     */
+    public default void playerHit(boolean byDiver, int lives) {
+    }
+
+    /**
+     * Called when the last enemy of a fleet is gone and a new fleet spawns.
+     * @param fleetsDestroyed Integer number of fleets destroyed so far
+     */
+    public default void fleetCleared(int fleetsDestroyed) {
+    }
+
+    /**
+     * Called once, when the player runs out of lives.
+     * @param score Integer final score
+     */
+    public default void gameOver(int score) {
+    }
+}
@@ -0,0 +1,1116 @@
+package galaxian;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Contains the logic for all game mechanics, including the interaction between
+ * the player and the enemies. The game manager has no JavaFX dependency, so the
+ * game can be stepped headlessly; in the GUI it is stepped by a SimulationThread.
+ * Enemies and missiles are kept in struct-of-arrays entity stores, and the
+ * enemy formation moves as one group. Every
+ * random decision comes from generators split off one seed, so a game can be
+ * replayed exactly from its seed and its inputs. Kills, hits, cleared fleets
+ * and the end of the game are reported to GameEventListeners, batched and
+ * delivered once per frame by dispatchEvents, or moved to another thread
+ * with drainEvents and delivered there with deliverEvents. The whole state
+ * of a game can be written to a buffer with save and read back with load,
+ * which carries on exactly where the saved game stopped.
+ * <p>
+ * A game has one player unless addSecondPlayer is called before its first
+ * tick. The two players share the playfield and the fleet but keep their
+ * own score and lives; enemies go after the nearest player still in play,
+ * and the game is over once both have run out of lives.
+ */
+public class GameManager {
+    // Size of the fields save writes before the game's parts.
+    private static final int HEADER_SAVE_SIZE = 9 * Long.BYTES;
+    // Default size of the playfield; each game keeps its own size.
+    public static final double SCREEN_WIDTH = 800;
+    public static final double SCREEN_HEIGHT = 600;
+    public static final int FLEET_ROWS = 6;
+    static final int MAX_ENEMIES = 1 << 20;
+    public static final int MAX_PLAYERS = 2;
+    // Size of the second player's part of the save, written after everything else.
+    private static final int SECOND_PLAYER_SAVE_SIZE = 2 * Integer.BYTES + Player.SAVE_SIZE;
+    private final Player player;
+    private Player[] players;
+    private final EntityStore enemies = new EntityStore(Enemy.WIDTH, Enemy.HEIGHT, MAX_ENEMIES);
+    private final MissilePool missilePool;
+    private final Formation formation;
+    // Holds only the enemies that move on their own; the formation index covers the rest.
+    private final SpatialHash enemyGrid;
+    private final FormationIndex formationIndex = new FormationIndex(enemies);
+    // Rates are given per second and converted to per-tick values.
+    public static final double DEFAULT_DIVE_RATE = 0.06;
+    public static final double DEFAULT_FIRE_RATE = 0.018;
+    private double diveProbability = DEFAULT_DIVE_RATE / GameClock.TICKS_PER_SECOND;
+    private double fireProbability = DEFAULT_FIRE_RATE / GameClock.TICKS_PER_SECOND;
+    private static final double PLAYER_SPEED = 15.0 / GameClock.TICKS_PER_SECOND;
+    private static final double RESPAWN_PROBABILITY = 0.1;
+    private final long seed;
+    private final double width;
+    private final double height;
+    // One stream per decision, so a change to how often one of them is drawn
+    // doesn't shift the numbers the others see.
+    private final GameRandom diveRandom;
+    private final GameRandom fireRandom;
+    private final GameRandom respawnRandom;
+    private long tickCount;
+    private int fleetSize;
+    private final int[] scores = new int[MAX_PLAYERS];
+    private final int[] lives = new int[MAX_PLAYERS];
+    private int fleetsDestroyed;
+    private boolean gameOver;
+    private final GameEventBuffer events = new GameEventBuffer(64);
+    private final List<GameEventListener> listeners = new ArrayList<>();
+    // Enemies hit first by the missile being tested, and when during the tick
+    private int[] hits = new int[8];
+    private int hitCount;
+    private double firstHitTime;
+    // Collision work of the current tick, reported as a FlightEvents.Collisions event
+    private int collisionTests;
+    private int enemiesHit;
+    private int playerHits;
+    private int respawns;
+
+    /**
+     * Initializes Game Manager fields with a seed taken from the clock.
+     */
+    public GameManager() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Initializes Game Manager fields
+     * @param seed Long value that all of the game's random decisions are derived from
+     */
+    public GameManager(long seed) {
+        this(seed, SCREEN_WIDTH, SCREEN_HEIGHT);
+    }
+
+    /**
+     * Initializes Game Manager fields for a playfield of any size.
+     * @param seed Long value that all of the game's random decisions are derived from
+     * @param width Double value of the playfield's width
+     * @param height Double value of the playfield's height
+     */
+    public GameManager(long seed, double width, double height) {
+        this(seed, width, height, MissilePool.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initializes Game Manager fields for a playfield of any size and a
+     * missile pool of any capacity.
+     * @param seed Long value that all of the game's random decisions are derived from
+     * @param width Double value of the playfield's width
+     * @param height Double value of the playfield's height
+     * @param missileCapacity Integer value of the most missiles in flight at once
+     */
+    public GameManager(long seed, double width, double height, int missileCapacity) {
+        this(seed, width, height, missileCapacity, true);
+    }
+
+    /**
+     * Initializes Game Manager fields, with or without a first fleet. Load
+     * leaves the fleet out, since the saved enemies replace it anyway and
+     * its FleetSpawn event would report a fleet that never played.
+     * @param seed Long value that all of the game's random decisions are derived from
+     * @param width Double value of the playfield's width
+     * @param height Double value of the playfield's height
+     * @param missileCapacity Integer value of the most missiles in flight at once
+     * @param spawnFleet boolean that is true to create the first fleet
+     */
+    private GameManager(long seed, double width, double height, int missileCapacity, boolean spawnFleet) {
+        this.seed = seed;
+        missilePool = new MissilePool(missileCapacity);
+        this.width = width;
+        this.height = height;
+        enemyGrid = new SpatialHash(width, height, Enemy.WIDTH + 10);
+        formation = new Formation(width);
+        GameRandom random = new GameRandom(seed);
+        diveRandom = random.split();
+        fireRandom = random.split();
+        respawnRandom = random.split();
+        player = new Player(width, height);
+        players = new Player[] {player};
+        Arrays.fill(lives, 3);
+        fleetsDestroyed = 0;
+        gameOver = false;
+
+        if (spawnFleet) {
+            createEnemyFleet();
+        }
+    }
+
+    /**
+     * Creates a full fleet of enemies in their initial positions, and
+     * reports it as a FleetSpawn flight event.
+     */
+    public void createEnemyFleet() {
+        int before = enemies.count;
+        if (fleetSize > 0) {
+            createLargeFleet(fleetSize);
+        } else {
+            createNormalFleet();
+        }
+        FlightEvents.FleetSpawn event = new FlightEvents.FleetSpawn();
+        if (event.isEnabled()) {
+            event.tick = tickCount;
+            event.fleetsDestroyed = fleetsDestroyed;
+            event.spawned = enemies.count - before;
+            event.commit();
+        }
+    }
+
+    /**
+     * Creates the normal Galaxian fleet of six rows.
+     */
+    private void createNormalFleet() {
+        for(int row = 0; row < FLEET_ROWS; row++) {
+            int numEnemies;
+            int startCol;
+            switch (row) {
+                case 0 -> {
+                    spawnEnemy(row, 3);
+                    spawnEnemy(row, 6);
+                    continue;
+                }
+                case 1 -> {
+                    numEnemies = 6;
+                    startCol = 2;
+                }
+                case 2 -> {
+                    numEnemies = 8;
+                    startCol = 1;
+                }
+                case 3, 4, 5 -> {
+                    numEnemies = 10;
+                    startCol = 0;
+                }
+                default -> {
+                    numEnemies = 0;
+                    startCol = 0;
+                }
+            }
+
+            for (int col = 0; col < numEnemies; col++) {
+                spawnEnemy(row, startCol + col);
+            }
+        }
+    }
+
+    /**
+     * Creates a fleet of any size for stress testing. Enemies fill every
+     * column that fits on screen, row by row, and rows that would reach the
+     * lower part of the screen wrap back to the top, so large fleets stack
+     * enemies on top of each other instead of running off the playfield.
+     * @param size Integer number of enemies to spawn
+     */
+    private void createLargeFleet(int size) {
+        int columns = Math.max(1, (int) ((width - Enemy.formationX(0) - Enemy.WIDTH) / (Enemy.WIDTH + 10)) + 1);
+        int rows = Math.max(1, (int) ((height - 200 - Enemy.formationY(0) - Enemy.HEIGHT) / (Enemy.HEIGHT + 10)) + 1);
+        for (int k = 0; k < size; k++) {
+            if (spawnEnemy((k / columns) % rows, k % columns) < 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Adds an enemy to its place in the formation.
+     * @param row Row that the enemy occupies in the formation
+     * @param column Column that the enemy occupies in the formation
+     * @return Integer slot of the new enemy, or -1 if the store is full
+     */
+    public int spawnEnemy(int row, int column) {
+        int i = Enemy.spawn(enemies, row, column);
+        if (i >= 0) {
+            formationIndex.add(i);
+            formation.join(column);
+        }
+        return i;
+    }
+
+    /**
+     * Removes every enemy and puts the formation back at its starting offset.
+     */
+    public void clearEnemies() {
+        enemies.clear();
+        formationIndex.clear();
+        formation.reset();
+    }
+
+    /**
+     * Sets how many enemies each fleet has and replaces the current fleet.
+     * @param size Integer number of enemies per fleet, or 0 for the normal Galaxian fleet
+     */
+    public void setFleetSize(int size) {
+        fleetSize = size;
+        clearEnemies();
+        createEnemyFleet();
+    }
+
+    /**
+     * Sets how often an enemy from the formation dives.
+     * @param perSecond Double value of the chance per second that a dive starts
+     */
+    public void setDiveRate(double perSecond) {
+        diveProbability = perSecond / GameClock.TICKS_PER_SECOND;
+    }
+
+    /**
+     * Sets how often diving enemies shoot.
+     * @param perSecond Double value of the chance per second that each diving enemy shoots
+     */
+    public void setFireRate(double perSecond) {
+        fireProbability = perSecond / GameClock.TICKS_PER_SECOND;
+    }
+
+    /**
+     * Sets the number of lives every player has left.
+     * @param lives Integer number of lives
+     */
+    public void setLives(int lives) {
+        Arrays.fill(this.lives, lives);
+    }
+
+    /**
+     * Adds a second player, who shares the playfield with the first. The
+     * two start a sixth of the playfield's width either side of the middle.
+     * Call it before the first tick.
+     * @throws IllegalStateException if the game already has two players
+     */
+    public void addSecondPlayer() {
+        if (players.length == MAX_PLAYERS) {
+            throw new IllegalStateException("The game already has " + MAX_PLAYERS + " players");
+        }
+        joinSecondPlayer();
+        player.move(-width / 6, 0);
+        player.savePosition();
+        players[1].move(width / 6, 0);
+        players[1].savePosition();
+    }
+
+    /**
+     * Creates the second player at the starting position.
+     */
+    private void joinSecondPlayer() {
+        players = new Player[] {player, new Player(width, height, Missile.FROM_SECOND_PLAYER)};
+    }
+
+    /**
+     * Gets the number of players in the game.
+     * @return Integer value of 1 or 2
+     */
+    public int getPlayerCount() {
+        return players.length;
+    }
+
+    /**
+     * Checks whether a player can still be hit, move and shoot. In a game of
+     * one the player stays in play in the tick that takes its last life, so
+     * a game of one plays exactly as it did before there could be two.
+     * @param p Integer index of the player
+     * @return boolean that is true while the player has lives left
+     */
+    private boolean isInPlay(int p) {
+        return players.length == 1 || lives[p] > 0;
+    }
+
+    /**
+     * Gets the horizontal position of the player.
+     * @return double value indicating the player's x position
+     */
+    public double getPlayerXPosition() {
+        return player.getXPosition();
+    }
+
+    /**
+     * Gets the vertical position of the player.
+     * @return double value indicating the player's y position
+     */
+    public double getPlayerYPosition() {
+        return player.getYPosition();
+    }
+
+    /**
+     * Advances the game by one step without moving the player. Without a
+     * GUI every tick is its own frame, so the tick's events are delivered
+     * at the end.
+     */
+    public void tick() {
+        tick(0);
+    }
+
+    /**
+     * Advances the game by one step, moving the player in the given
+     * direction, and delivers the tick's events.
+     * @param direction Integer direction to move the player in, -1, 0 or 1
+     */
+    public void tick(int direction) {
+        tick(direction, 0);
+    }
+
+    /**
+     * Advances the game by one step, moving each player in their own
+     * direction, and delivers the tick's events.
+     * @param direction Integer direction to move the first player in, -1, 0 or 1
+     * @param secondDirection Integer direction to move the second player in,
+     *                        ignored if there is no second player
+     */
+    public void tick(int direction, int secondDirection) {
+        step(direction, secondDirection, null);
+        dispatchEvents();
+    }
+
+    /**
+     * Advances the game by one step without delivering its events, moving
+     * only the first player.
+     * @param direction Integer direction to move the player in, -1, 0 or 1
+     * @param phaseNanos Array indexed by FrameProfiler.Phase that each phase's
+     *                   time in nanoseconds is added to, or null
+     */
+    public void step(int direction, long[] phaseNanos) {
+        step(direction, 0, phaseNanos);
+    }
+
+    /**
+     * Advances the game by one step: updates the game logic, lets enemies
+     * dive and shoot, then moves the player. The tick's events are collected
+     * but not delivered. Each phase is timed only when someone wants the
+     * times: when phaseNanos is given, or while the Tick flight event is
+     * enabled, in which case it is reported in the event.
+     * @param direction Integer direction to move the first player in, -1, 0 or 1
+     * @param secondDirection Integer direction to move the second player in,
+     *                        ignored if there is no second player
+     * @param phaseNanos Array indexed by FrameProfiler.Phase that each phase's
+     *                   time in nanoseconds is added to, or null; moving the
+     *                   players counts as UPDATE
+     */
+    public void step(int direction, int secondDirection, long[] phaseNanos) {
+        FlightEvents.Tick event = new FlightEvents.Tick();
+        if (phaseNanos == null && !event.isEnabled()) {
+            update();
+            maybeTriggerDive();
+            enemyShootMissile();
+            movePlayers(direction, secondDirection);
+            return;
+        }
+        event.begin();
+        long start = System.nanoTime();
+        update();
+        long updated = System.nanoTime();
+        maybeTriggerDive();
+        long dived = System.nanoTime();
+        enemyShootMissile();
+        long shot = System.nanoTime();
+        movePlayers(direction, secondDirection);
+        long end = System.nanoTime();
+
+        long updateNanos = updated - start + end - shot;
+        if (phaseNanos != null) {
+            phaseNanos[FrameProfiler.Phase.UPDATE.ordinal()] += updateNanos;
+            phaseNanos[FrameProfiler.Phase.DIVE.ordinal()] += dived - updated;
+            phaseNanos[FrameProfiler.Phase.SHOOT.ordinal()] += shot - dived;
+        }
+        if (event.shouldCommit()) {
+            event.tick = tickCount;
+            event.update = updateNanos;
+            event.dive = dived - updated;
+            event.shoot = shot - dived;
+            event.enemies = enemies.count;
+            event.missiles = missilePool.getStore().count;
+            event.commit();
+        }
+    }
+
+    /**
+     * Updates the game logic to reflect collisions, diving enemies, newly spawned
+     * enemies, and missiles shot by the player and by the enemies. Removes
+     * game objects when necessary. Collisions are tested over each tick's
+     * whole movement, so they are found however far things move in a tick.
+     */
+    public void update() {
+        tickCount++;
+        savePositions();
+        collisionTests = 0;
+        enemiesHit = 0;
+        playerHits = 0;
+        respawns = 0;
+
+        double playerX = player.getXPosition();
+        formation.move();
+        enemyGrid.clear();
+        for (int i = 0; i < enemies.count; i++) {
+            byte state = enemies.state[i];
+            if (state == Enemy.IN_FORMATION) {
+                continue;
+            }
+            if (players.length > 1) {
+                playerX = findTarget(formation.getScreenX(enemies, i)).getXPosition();
+            }
+            Enemy.movePattern(enemies, i, playerX);
+            if (enemies.state[i] == Enemy.IN_FORMATION) {
+                formationIndex.add(i);
+                continue;
+            }
+            double x = formation.getScreenX(enemies, i);
+            double startX = formation.getPreviousScreenX(enemies, i);
+            double startY = enemies.previousY[i];
+            enemyGrid.insert(i, Math.min(startX, x), Math.min(startY, enemies.y[i]),
+                    Math.max(startX, x) + Enemy.WIDTH, Math.max(startY, enemies.y[i]) + Enemy.HEIGHT);
+        }
+
+        EntityStore missiles = missilePool.getStore();
+        for (int m = 0; m < missiles.count; m++) {
+            Missile.move(missiles, m);
+            if (Missile.isFromPlayer(missiles, m)) {
+                findFirstHits(missiles, m);
+                // Read before the first hit releases the missile and marks it dead
+                int shooter = Missile.getPlayer(missiles, m);
+                for (int k = 0; k < hitCount; k++) {
+                    hitEnemy(m, hits[k], shooter);
+                }
+            }
+            else {
+                int hit = findPlayerHit(missiles.previousX[m], missiles.previousY[m], Missile.WIDTH,
+                        Missile.HEIGHT, missiles.x[m] - missiles.previousX[m], missiles.y[m] - missiles.previousY[m]);
+                if (hit >= 0) {
+                    missilePool.release(m, true);
+                    loseLife(hit, false);
+                }
+            }
+            if (!missiles.isDead(m) && Missile.isOffScreen(missiles, m, width, height)) {
+                missilePool.release(m, false);
+            }
+        }
+
+        for (int i = 0; i < enemies.count; i++) {
+            if (!Enemy.isDiving(enemies, i)) {
+                continue;
+            }
+            double startX = enemies.previousX[i];
+            double startY = enemies.previousY[i];
+            int hit = findPlayerHit(startX, startY, Enemy.WIDTH, Enemy.HEIGHT,
+                    enemies.x[i] - startX, enemies.y[i] - startY);
+            if (hit >= 0) {
+                enemies.destroy(i);
+                loseLife(hit, true);
+            }
+            else if (enemies.y[i] > height) {
+                enemies.destroy(i);
+            }
+        }
+
+        enemies.applyDestroys();
+        missilePool.compact();
+        checkAndSpawnNewFleet();
+
+        FlightEvents.Collisions event = new FlightEvents.Collisions();
+        if (collisionTests > 0 && event.isEnabled()) {
+            event.tick = tickCount;
+            event.tests = collisionTests;
+            event.enemiesHit = enemiesHit;
+            event.playerHit = playerHits;
+            event.respawns = respawns;
+            event.commit();
+        }
+    }
+
+    /**
+     * Finds the first player in play that a moving rectangle hits during
+     * this tick.
+     * @param startX Double value of the rectangle's left edge at the start of the tick
+     * @param startY Double value of the rectangle's top edge at the start of the tick
+     * @param width Double value of the rectangle's width
+     * @param height Double value of the rectangle's height
+     * @param moveX Double value of how far it moves right during the tick
+     * @param moveY Double value of how far it moves down during the tick
+     * @return Integer index of the player hit, or -1 if it hits none
+     */
+    private int findPlayerHit(double startX, double startY, double width, double height,
+                              double moveX, double moveY) {
+        for (int p = 0; p < players.length; p++) {
+            if (!isInPlay(p)) {
+                continue;
+            }
+            collisionTests++;
+            if (Collision.timeOfImpact(startX, startY, width, height, moveX, moveY, players[p].getMinX(),
+                    players[p].getMinY(), Player.WIDTH, Player.HEIGHT) != Collision.MISS) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Picks the player an enemy goes after: the nearest one still in play.
+     * @param x Double value of the enemy's horizontal position
+     * @return Player to aim at; the first player if none is in play
+     */
+    private Player findTarget(double x) {
+        Player target = player;
+        double nearest = Double.MAX_VALUE;
+        for (int p = 0; p < players.length; p++) {
+            double distance = Math.abs(players[p].getXPosition() - x);
+            if (isInPlay(p) && distance < nearest) {
+                nearest = distance;
+                target = players[p];
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Finds the enemies a player missile hits first during this tick. The
+     * missile's whole movement is tested against each enemy's movement, so
+     * a fast missile can't pass through an enemy between two ticks, and only
+     * the enemies it reaches earliest are hit; enemies stacked on the same
+     * spot are all hit at once. Enemies in the formation are tested in the
+     * formation's coordinates, where the formation stands still.
+     * @param missiles EntityStore holding the missiles
+     * @param m Integer slot of the missile, already moved
+     */
+    private void findFirstHits(EntityStore missiles, int m) {
+        hitCount = 0;
+        firstHitTime = 1;
+        double startX = missiles.previousX[m];
+        double startY = missiles.previousY[m];
+        double moveX = missiles.x[m] - startX;
+        double moveY = missiles.y[m] - startY;
+        double minY = Math.min(startY, missiles.y[m]);
+        double maxY = Math.max(startY, missiles.y[m]) + Missile.HEIGHT;
+
+        double groupStartX = formation.toPreviousGroupX(startX);
+        double groupEndX = formation.toGroupX(missiles.x[m]);
+        int candidates = formationIndex.query(Math.min(groupStartX, groupEndX), minY,
+                Math.max(groupStartX, groupEndX) + Missile.WIDTH, maxY);
+        for (int c = 0; c < candidates; c++) {
+            int enemy = formationIndex.getResult(c);
+            if (!enemies.isDead(enemy)) {
+                collisionTests++;
+                double enemyX = enemies.previousX[enemy];
+                double enemyY = enemies.previousY[enemy];
+                addHit(enemy, Collision.timeOfImpact(groupStartX, startY, Missile.WIDTH, Missile.HEIGHT,
+                        groupEndX - groupStartX - (enemies.x[enemy] - enemyX), moveY - (enemies.y[enemy] - enemyY),
+                        enemyX, enemyY, Enemy.WIDTH, Enemy.HEIGHT));
+            }
+        }
+
+        candidates = enemyGrid.query(Math.min(startX, missiles.x[m]), minY,
+                Math.max(startX, missiles.x[m]) + Missile.WIDTH, maxY);
+        for (int c = 0; c < candidates; c++) {
+            int enemy = enemyGrid.getResult(c);
+            if (!enemies.isDead(enemy)) {
+                collisionTests++;
+                double enemyX = formation.getPreviousScreenX(enemies, enemy);
+                double enemyY = enemies.previousY[enemy];
+                addHit(enemy, Collision.timeOfImpact(startX, startY, Missile.WIDTH, Missile.HEIGHT,
+                        moveX - (formation.getScreenX(enemies, enemy) - enemyX), moveY - (enemies.y[enemy] - enemyY),
+                        enemyX, enemyY, Enemy.WIDTH, Enemy.HEIGHT));
+            }
+        }
+    }
+
+    /**
+     * Keeps an enemy if the missile reaches it no later than the earliest hit found so far.
+     * @param enemy Integer slot of the enemy
+     * @param time Double fraction of the tick at which the missile reaches it, or Collision.MISS
+     */
+    private void addHit(int enemy, double time) {
+        if (time > firstHitTime) {
+            return;
+        }
+        if (time < firstHitTime) {
+            firstHitTime = time;
+            hitCount = 0;
+        }
+        if (hitCount == hits.length) {
+            hits = Arrays.copyOf(hits, hitCount * 2);
+        }
+        hits[hitCount++] = enemy;
+    }
+
+    /**
+     * Scores a hit by a player missile for the player who shot it, and
+     * sometimes sends a replacement down into the destroyed enemy's place.
+     * @param missile Integer slot of the missile
+     * @param enemy Integer slot of the enemy that was hit
+     * @param shooter Integer index of the player who shot the missile
+     */
+    private void hitEnemy(int missile, int enemy, int shooter) {
+        int points = 10;
+        // Divers used to be scored for both their row and the dive
+        if (Enemy.isDiving(enemies, enemy)) {
+            points += 20;
+        }
+        scores[shooter] += points;
+        enemiesHit++;
+        if (!listeners.isEmpty()) {
+            events.enemyKilled(formation.getScreenX(enemies, enemy), enemies.y[enemy], enemies.row[enemy],
+                    points, scores[shooter]);
+        }
+        missilePool.release(missile, true);
+        if (enemies.state[enemy] == Enemy.IN_FORMATION) {
+            formationIndex.remove(enemy);
+        }
+        if (Formation.isMember(enemies, enemy)) {
+            formation.leave(enemies.column[enemy]);
+        }
+        enemies.destroy(enemy);
+        if (respawnRandom.nextDouble() < RESPAWN_PROBABILITY) {
+            createNewEnemyAtTop(enemy);
+            respawns++;
+        }
+    }
+
+    /**
+     * Takes a life from a player, and ends the game when no player has any left.
+     * @param p Integer index of the player that was hit
+     * @param byDiver boolean that is true if a diving enemy crashed into the player
+     */
+    private void loseLife(int p, boolean byDiver) {
+        lives[p]--;
+        playerHits++;
+        if (!listeners.isEmpty()) {
+            events.playerHit(byDiver, lives[p]);
+        }
+        if (!gameOver && !isAnyoneInPlay()) {
+            gameOver = true;
+            if (!listeners.isEmpty()) {
+                events.gameOver(getScore());
+            }
+        }
+    }
+
+    /**
+     * Checks whether any player has lives left.
+     * @return boolean that is false once every player has run out
+     */
+    private boolean isAnyoneInPlay() {
+        for (int p = 0; p < players.length; p++) {
+            if (lives[p] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remembers where every sprite is at the start of a tick, so the view can
+     * interpolate between the previous and the current tick.
+     */
+    private void savePositions() {
+        for (Player p : players) {
+            p.savePosition();
+        }
+        formation.savePosition();
+        enemies.savePositions();
+        missilePool.getStore().savePositions();
+    }
+
+    /**
+     * Moves the player sideways by one tick's worth of movement.
+     * @param direction Integer that is -1 to move left, 1 to move right, and 0 to stand still
+     */
+    public void movePlayer(int direction) {
+        player.move(direction * PLAYER_SPEED, 0);
+    }
+
+    /**
+     * Moves every player still in play sideways by one tick's worth of movement.
+     * @param direction Integer direction of the first player, -1, 0 or 1
+     * @param secondDirection Integer direction of the second player, if there is one
+     */
+    private void movePlayers(int direction, int secondDirection) {
+        if (isInPlay(0)) {
+            movePlayer(direction);
+        }
+        if (players.length > 1 && isInPlay(1)) {
+            players[1].move(secondDirection * PLAYER_SPEED, 0);
+        }
+    }
+
+    /**
+     * Chooses when diving enemies shoot towards the nearest player. Uses a
+     * random number generator and a threshold to make the decision.
+     */
+    public void enemyShootMissile() {
+        double playerX = player.getXPosition();
+        double playerY = player.getYPosition();
+        for (int i = 0; i < enemies.count; i++) {
+            if (Enemy.isDiving(enemies, i) && fireRandom.nextDouble() < fireProbability) {
+                if (players.length > 1) {
+                    Player target = findTarget(enemies.x[i]);
+                    playerX = target.getXPosition();
+                    playerY = target.getYPosition();
+                }
+                Enemy.shootTowardsPlayer(enemies, i, formation, missilePool, playerX, playerY, height);
+            }
+        }
+    }
+
+    /**
+     * Chooses when an enemy leaves the formation and dives towards the player.
+     */
+    public void maybeTriggerDive() {
+        if (diveRandom.nextDouble() < diveProbability) {
+            int candidates = formationIndex.findDivingCandidates();
+            if (candidates > 0) {
+                int diver = formationIndex.getCandidate(diveRandom.nextInt(candidates));
+                formationIndex.remove(diver);
+                formation.leave(enemies.column[diver]);
+                Enemy.dive(enemies, diver, formation);
+            }
+        }
+    }
+
+    /**
+     * Fires a missile from the player's position straight upwards. Nothing is
+     * fired while every missile in the pool is in flight.
+     */
+    public void playerShoot() {
+        player.shoot(missilePool);
+    }
+
+    /**
+     * Fires a missile from the player's position unless the player has fired
+     * within the last Player.FIRE_COOLDOWN_TICKS ticks.
+     * @return boolean that is true if the cooldown allowed the shot
+     */
+    public boolean playerShootIfReady() {
+        return playerShootIfReady(0);
+    }
+
+    /**
+     * Fires a missile from a player's position unless that player has fired
+     * within the last Player.FIRE_COOLDOWN_TICKS ticks or is out of lives.
+     * @param p Integer index of the player, below getPlayerCount
+     * @return boolean that is true if the player fired
+     */
+    public boolean playerShootIfReady(int p) {
+        if (!isInPlay(p) || !players[p].tryFire(tickCount)) {
+            return false;
+        }
+        players[p].shoot(missilePool);
+        return true;
+    }
+
+    /**
+     * Gets the number of bytes save writes.
+     * @return Integer size of the game's saved form
+     */
+    public int getSaveSize() {
+        return HEADER_SAVE_SIZE + 3 * GameRandom.SAVE_SIZE + Player.SAVE_SIZE + Formation.SAVE_SIZE
+                + missilePool.getSaveSize() + enemies.getSaveSize() + formationIndex.getSaveSize()
+                + (players.length - 1) * SECOND_PLAYER_SAVE_SIZE;
+    }
+
+    /**
+     * Writes the whole state of the game: the settings it was created with,
+     * its counters and rates, the state of its random number generators, and
+     * its parts. Listeners and undelivered events are not saved. Call it
+     * between ticks. The second player's score, lives and position come
+     * last, so a game of one saves exactly as it did before there could be
+     * two, and load tells the two apart by whether anything follows.
+     * @param out ByteBuffer with getSaveSize bytes left
+     */
+    public void save(ByteBuffer out) {
+        out.putLong(seed);
+        out.putDouble(width);
+        out.putDouble(height);
+        out.putInt(missilePool.getCapacity());
+        out.putInt(fleetSize);
+        out.putLong(tickCount);
+        out.putInt(scores[0]);
+        out.putInt(lives[0]);
+        out.putInt(fleetsDestroyed);
+        out.putInt(gameOver ? 1 : 0);
+        out.putDouble(diveProbability);
+        out.putDouble(fireProbability);
+        diveRandom.save(out);
+        fireRandom.save(out);
+        respawnRandom.save(out);
+        player.save(out);
+        formation.save(out);
+        missilePool.save(out);
+        enemies.save(out);
+        formationIndex.save(out);
+        if (players.length > 1) {
+            out.putInt(scores[1]);
+            out.putInt(lives[1]);
+            players[1].save(out);
+        }
+    }
+
+    /**
+     * Creates a game from the state written by save. The game goes on
+     * exactly as the saved game would have.
+     * @param in ByteBuffer positioned at the saved game
+     * @return GameManager in the saved state
+     * @throws IllegalStateException if the saved parts don't fit together
+     */
+    public static GameManager load(ByteBuffer in) {
+        long seed = in.getLong();
+        double width = in.getDouble();
+        double height = in.getDouble();
+        GameManager game = new GameManager(seed, width, height, in.getInt(), false);
+        game.fleetSize = in.getInt();
+        game.tickCount = in.getLong();
+        game.scores[0] = in.getInt();
+        game.lives[0] = in.getInt();
+        game.fleetsDestroyed = in.getInt();
+        game.gameOver = in.getInt() != 0;
+        game.diveProbability = in.getDouble();
+        game.fireProbability = in.getDouble();
+        game.diveRandom.load(in);
+        game.fireRandom.load(in);
+        game.respawnRandom.load(in);
+        game.player.load(in);
+        game.formation.load(in);
+        game.missilePool.load(in);
+        game.enemies.load(in);
+        game.formationIndex.load(in);
+        game.formation.recount(game.enemies);
+        if (in.hasRemaining()) {
+            game.joinSecondPlayer();
+            game.scores[1] = in.getInt();
+            game.lives[1] = in.getInt();
+            game.players[1].load(in);
+        }
+        return game;
+    }
+
+    /**
+     * Gets the score of the game, summed over its players.
+     * @return Integer representing the score
+     */
+    public int getScore() {
+        int total = 0;
+        for (int p = 0; p < players.length; p++) {
+            total += scores[p];
+        }
+        return total;
+    }
+
+    /**
+     * Gets the score of one player.
+     * @param p Integer index of the player, below getPlayerCount
+     * @return Integer representing the player's score
+     */
+    public int getScore(int p) {
+        return scores[p];
+    }
+
+    /**
+     * Gets the number of lives remaining, summed over the players that have
+     * any, and capped at Integer.MAX_VALUE for games with unlimited lives.
+     * @return Integer representing the number of lives remaining.
+     */
+    public int getLives() {
+        if (players.length == 1) {
+            return lives[0];
+        }
+        long total = 0;
+        for (int p = 0; p < players.length; p++) {
+            total += Math.max(0, lives[p]);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, total);
+    }
+
+    /**
+     * Gets the number of lives one player has left.
+     * @param p Integer index of the player, below getPlayerCount
+     * @return Integer representing the player's lives
+     */
+    public int getLives(int p) {
+        return lives[p];
+    }
+
+    /**
+     * Gets the number of fleets destroyed.
+     * @return Integer representing the number of fleets destroyed.
+     */
+    public int getFleetsDestroyed() {
+        return fleetsDestroyed;
+    }
+
+    /**
+     * Subscribes a listener to the game's events.
+     * @param listener GameEventListener to add
+     */
+    public void addListener(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unsubscribes a listener from the game's events.
+     * @param listener GameEventListener to remove
+     */
+    public void removeListener(GameEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Delivers the events collected since the last call to every listener.
+     * Events are only collected while someone is listening.
+     */
+    public void dispatchEvents() {
+        if (events.getCount() > 0) {
+            events.deliver(listeners);
+        }
+    }
+
+    /**
+     * Gets the number of events collected since they were last delivered or drained.
+     * @return Integer number of pending events
+     */
+    public int getPendingEventCount() {
+        return events.getCount();
+    }
+
+    /**
+     * Moves the events collected since the last call into another buffer
+     * instead of delivering them, so that they can be delivered on another thread.
+     * @param target GameEventBuffer that takes the events
+     */
+    public void drainEvents(GameEventBuffer target) {
+        events.moveTo(target);
+    }
+
+    /**
+     * Delivers a batch of events taken with drainEvents to every listener.
+     * The listeners must not change while the game is running on another thread.
+     * @param batch GameEventBuffer of events, emptied afterwards
+     */
+    public void deliverEvents(GameEventBuffer batch) {
+        batch.deliver(listeners);
+    }
+
+    /**
+     * Checks whether every player has run out of lives.
+     * @return boolean indicating whether the game is over
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Gets the seed that the game's random decisions are derived from.
+     * @return Long value of the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the width of the playfield.
+     * @return Double value of the playfield's width
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the playfield.
+     * @return Double value of the playfield's height
+     */
+    public double getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the number of times update has run.
+     * @return Long value of the number of ticks simulated so far
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Gets the current instance of the player.
+     * @return Player object
+     */
+    public Player getPlayer(){
+        return player;
+    }
+
+    /**
+     * Gets one of the players.
+     * @param p Integer index of the player, below getPlayerCount
+     * @return Player object
+     */
+    public Player getPlayer(int p) {
+        return players[p];
+    }
+
+    /**
+     * Gets the store of all missiles in flight.
+     * @return EntityStore of missiles in play
+     */
+    public EntityStore getMissiles() {
+        return missilePool.getStore();
+    }
+
+    /**
+     * Gets the pool that missiles are taken from and returned to.
+     * @return MissilePool with its usage counters
+     */
+    public MissilePool getMissilePool() {
+        return missilePool;
+    }
+
+    /**
+     * Gets the formation that moves the enemies that aren't diving.
+     * @return Formation of the current fleet
+     */
+    public Formation getFormation() {
+        return formation;
+    }
+
+    /**
+     * Gets the index of the enemies holding their place in the formation.
+     * @return FormationIndex kept up to date as enemies join, dive and die
+     */
+    public FormationIndex getFormationIndex() {
+        return formationIndex;
+    }
+
+    /**
+     * Gets the store of all enemies, both in the formation and diving.
+     * @return EntityStore of enemies
+     */
+    public EntityStore getEnemies() {
+        return enemies;
+    }
+
+    /**
+     * Spawns a new enemy above the place an enemy left in the formation.
+     * The new enemy keeps the old enemy's row and column.
+     * @param oldEnemy Integer slot of the enemy that the new enemy is replacing
+     */
+    private void createNewEnemyAtTop(int oldEnemy) {
+        int column = enemies.column[oldEnemy];
+        if (Enemy.spawnAtTop(enemies, enemies.row[oldEnemy], column) >= 0) {
+            formation.join(column);
+        }
+    }
+
+    /**
+     * Spawns a full new fleet of enemies if no enemies
+     * remain on the screen.
+     */
+    public void checkAndSpawnNewFleet() {
+        if (enemies.count == 0) {
+            fleetsDestroyed++;
+            if (!listeners.isEmpty()) {
+                events.fleetCleared(fleetsDestroyed);
+            }
+            formation.reset();
+            createEnemyFleet();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package galaxian;
+
+import javafx.application.Platform;
+import javafx.scene.control.Button;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.StackPane;
+import javafx.geometry.Pos;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+/**
+ * Displays the Game Over screen, with the best scores of every session once
+ * the HighScoreStore has them.
+ */
+public class GameOverScreen extends VBox {
+    private static final int SHOWN_SCORES = 10;
+    private final Text gameOverText;
+    private final Text scoreText;
+    private final Text highScoresText;
+    private final Button exitButton;
+    private HighScore result;
+    //Main main;
+
+    /**
+     * Initializes text fields and an exit button, and adds them to the pane
+     * @param score Integer value that holds the player's score at the end of the game
+     * @param width Double value of the screen's width
+     * @param height Double value of the screen's height
+     */
+    public GameOverScreen(int score, double width, double height) {
+
+        gameOverText = new Text("GAME OVER");
+        gameOverText.setFont(new Font(40));
+
+        scoreText = new Text("Score: " + score);
+        scoreText.setFont(new Font(20));
+
+        highScoresText = new Text();
+        highScoresText.setFont(Font.font("Monospaced", 14));
+
+        exitButton = new Button("Exit");
+        exitButton.setOnAction(e -> {
+            Platform.exit();
+        });
+
+        StackPane.setAlignment(gameOverText, Pos.CENTER);
+        StackPane.setAlignment(scoreText, Pos.CENTER);
+        StackPane.setAlignment(exitButton, Pos.CENTER);
+
+        setAlignment(Pos.CENTER);
+        setSpacing(20);
+        setStyle("-fx-background-color: rgba(0, 0, 0, 0.5);");
+        setPrefWidth(width);
+        setPrefHeight(height);
+        setVisible(false);
+
+        getChildren().addAll(gameOverText, scoreText, highScoresText, exitButton);
+    }
+
+    /**
+     * Shows the game over screen and removes everything else from the pane.
+     * @param root Pane that holds the graphical elements
+     * @param score Integer value that is the player's score at the end of the game
+     * @param result HighScore of the game, marked in the table once it shows up there, or null
+     */
+    public void showGameOverScreen(Pane root, int score, HighScore result) {
+        this.result = result;
+        scoreText.setText("Score: " + score);
+        setVisible(true);
+        root.getChildren().removeIf(node -> node != this);
+    }
+
+    /**
+     * Shows the best scores and how many games have been played. Called
+     * on the JavaFX thread whenever the table changes.
+     * @param table Table of the best scores
+     */
+    public void showHighScores(HighScoreStore.Table table) {
+        int rank = result != null ? table.rankOf(result) : -1;
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < Math.min(table.size(), SHOWN_SCORES); i++) {
+            text.append(String.format("%s%2d. %8d%n", i == rank ? "> " : "  ", i + 1, table.get(i).getScore()));
+        }
+        if (rank >= SHOWN_SCORES) {
+            text.append(String.format("> %2d. %8d%n", rank + 1, result.getScore()));
+        }
+        text.append(String.format("Games played: %d", table.getGamesPlayed()));
+        highScoresText.setText(text.toString());
+    }
+}
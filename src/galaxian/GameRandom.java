@@ -0,0 +1,149 @@
+package galaxian;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Random number generator for the game's decisions. It is the SplitMix64
+ * algorithm that java.util.SplittableRandom uses, and produces exactly the
+ * same numbers for the same seed, but its state is two longs that can be
+ * saved and restored, so a saved game carries on with the numbers it would
+ * have drawn.
+ */
+public class GameRandom {
+    static final int SAVE_SIZE = 2 * Long.BYTES;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long seed;
+    private long gamma;
+
+    /**
+     * Creates a generator.
+     * @param seed Long value to start from
+     */
+    public GameRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Creates a generator with a given state.
+     * @param seed Long value of the current seed
+     * @param gamma Long value added to the seed for every number, which must be odd
+     */
+    private GameRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Creates a new generator whose numbers are independent of this one's.
+     * Draws from this generator.
+     * @return GameRandom split off this one
+     */
+    public GameRandom split() {
+        return new GameRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * Draws a number uniformly from all longs.
+     * @return Long random value
+     */
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * Draws a number uniformly from all ints.
+     * @return Integer random value
+     */
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    /**
+     * Draws a number uniformly between 0 and a bound, rejecting draws that
+     * would favour the lower numbers.
+     * @param bound Integer value above the largest number drawn, which must be positive
+     * @return Integer random value from 0 to bound - 1
+     */
+    public int nextInt(int bound) {
+        int r = nextInt();
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1) {
+            // Try again: u fell into the incomplete last range.
+        }
+        return r;
+    }
+
+    /**
+     * Draws a number uniformly between 0 and 1.
+     * @return Double random value, at least 0 and below 1
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Writes the generator's state.
+     * @param out ByteBuffer with SAVE_SIZE bytes left
+     */
+    public void save(ByteBuffer out) {
+        out.putLong(seed);
+        out.putLong(gamma);
+    }
+
+    /**
+     * Replaces the generator's state with one written by save.
+     * @param in ByteBuffer to read from
+     */
+    public void load(ByteBuffer in) {
+        seed = in.getLong();
+        gamma = in.getLong();
+    }
+
+    /**
+     * Moves the seed on to the next number.
+     * @return Long value of the new seed
+     */
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    /**
+     * Scrambles a seed into a random long.
+     * @param z Long value of the seed
+     * @return Long random value
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Scrambles a seed into a random int.
+     * @param z Long value of the seed
+     * @return Integer random value
+     */
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /**
+     * Turns a seed into a gamma for a split generator: odd, and with enough
+     * bit transitions that the sequence it makes looks random.
+     * @param z Long value of the seed
+     * @return Long value of the gamma
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -0,0 +1,52 @@
+package galaxian;
+
+import javafx.scene.paint.Color;
+
+/**
+ * Interface for the ways the playfield can be drawn. A renderer reads the
+ * latest snapshot of the game once per frame; the UI and the game over screen are
+ * drawn separately as overlay nodes.
+ */
+public interface GameRenderer {
+
+    public static final Color[] ENEMY_COLORS = {Color.YELLOW, Color.RED, Color.PURPLE,
+            Color.TURQUOISE, Color.TURQUOISE, Color.TURQUOISE};
+    // The player this window controls is blue; the other one, in a game of two, is green.
+    public static final Color LOCAL_PLAYER_COLOR = Color.BLUE;
+    public static final Color OTHER_PLAYER_COLOR = Color.LIMEGREEN;
+
+    /**
+     * Draws the players, enemies and missiles.
+     * @param snapshot GameSnapshot of the tick to draw
+     * @param alpha Double value between 0 and 1 telling how far to interpolate
+     *              from each entity's previous position to its current one
+     */
+    public void render(GameSnapshot snapshot, double alpha);
+
+    /**
+     * Describes the nodes the renderer draws with, for the diagnostics overlay.
+     * @return String naming each of the renderer's layers and how many nodes it holds
+     */
+    public String describeLayers();
+
+    /**
+     * Blends an entity's previous and current coordinate.
+     * @param previous Double value of the coordinate at the start of the tick
+     * @param current Double value of the coordinate at the end of the tick
+     * @param alpha Double value between 0 and 1
+     * @return Double value of the coordinate to draw
+     */
+    public static double interpolate(double previous, double current, double alpha) {
+        return previous + (current - previous) * alpha;
+    }
+
+    /**
+     * Picks the color to draw a player in.
+     * @param snapshot GameSnapshot being drawn
+     * @param p Integer index of the player
+     * @return Color of the player's ship
+     */
+    public static Color playerColor(GameSnapshot snapshot, int p) {
+        return p == snapshot.getLocalPlayer() ? LOCAL_PLAYER_COLOR : OTHER_PLAYER_COLOR;
+    }
+}
@@ -0,0 +1,283 @@
+package galaxian;
+
+import java.util.Arrays;
+
+/**
+ * A copy of everything the renderers need to draw one tick: the enemies and
+ * missiles, the players and the formation's offset, each with its previous
+ * position for interpolation. The simulation thread fills a snapshot while the
+ * JavaFX thread draws another one, so neither waits for the other. Snapshots
+ * are reused; copying into one does not allocate once its stores have grown
+ * to fit the game. A snapshot can also be filled from a NetState received
+ * from a NetServer, so the same renderers draw a networked game.
+ */
+public class GameSnapshot {
+    private final EntityStore enemies;
+    private final EntityStore missiles;
+    private final long[] phaseNanos = new long[FrameProfiler.Phase.values().length];
+    private final double[] playerX = new double[GameManager.MAX_PLAYERS];
+    private final double[] playerY = new double[GameManager.MAX_PLAYERS];
+    private final double[] playerPreviousX = new double[GameManager.MAX_PLAYERS];
+    private final double[] playerPreviousY = new double[GameManager.MAX_PLAYERS];
+    private int playerCount;
+    private int localPlayer;
+    private double formationOffsetX;
+    private double formationPreviousOffsetX;
+    private int score;
+    private int lives;
+    private int fleetsDestroyed;
+    private long inputTime;
+    private long allocatedBytes;
+    private long tickCount;
+    private long publishTime;
+    private boolean finished;
+
+    /**
+     * Creates a snapshot whose stores match the game's.
+     * @param gameManager Instance of game manager that the snapshot will copy
+     */
+    public GameSnapshot(GameManager gameManager) {
+        EntityStore gameEnemies = gameManager.getEnemies();
+        EntityStore gameMissiles = gameManager.getMissiles();
+        enemies = new EntityStore(gameEnemies.getWidth(), gameEnemies.getHeight(), gameEnemies.getMaxCapacity());
+        missiles = new EntityStore(gameMissiles.getWidth(), gameMissiles.getHeight(), gameMissiles.getMaxCapacity());
+    }
+
+    /**
+     * Creates an empty snapshot for states received over the network.
+     * @param maxEntities Integer value of the most enemies, and the most missiles, it will hold
+     */
+    public GameSnapshot(int maxEntities) {
+        enemies = new EntityStore(Enemy.WIDTH, Enemy.HEIGHT, maxEntities);
+        missiles = new EntityStore(Missile.WIDTH, Missile.HEIGHT, maxEntities);
+    }
+
+    /**
+     * Copies the game's current state into the snapshot.
+     * @param gameManager Instance of game manager to copy
+     * @param totalPhaseNanos Array of the time spent in each tick phase since the game started
+     * @param firstInputTime Long value of when the first input applied since the
+     *                       last snapshot happened, or 0 if there was none
+     * @param totalAllocatedBytes Long count of the bytes the simulation thread has allocated so far
+     * @param gameFinished boolean that is true if the simulation has stopped for good
+     */
+    public void capture(GameManager gameManager, long[] totalPhaseNanos, long firstInputTime,
+            long totalAllocatedBytes, boolean gameFinished) {
+        enemies.copyFrom(gameManager.getEnemies());
+        missiles.copyFrom(gameManager.getMissiles());
+        playerCount = gameManager.getPlayerCount();
+        for (int p = 0; p < playerCount; p++) {
+            Player player = gameManager.getPlayer(p);
+            playerX[p] = player.getMinX();
+            playerY[p] = player.getMinY();
+            playerPreviousX[p] = player.getPreviousX();
+            playerPreviousY[p] = player.getPreviousY();
+        }
+        localPlayer = 0;
+        Formation formation = gameManager.getFormation();
+        formationOffsetX = formation.getOffsetX();
+        formationPreviousOffsetX = formation.getPreviousOffsetX();
+        score = gameManager.getScore();
+        lives = gameManager.getLives();
+        fleetsDestroyed = gameManager.getFleetsDestroyed();
+        System.arraycopy(totalPhaseNanos, 0, phaseNanos, 0, phaseNanos.length);
+        inputTime = firstInputTime;
+        allocatedBytes = totalAllocatedBytes;
+        tickCount = gameManager.getTickCount();
+        finished = gameFinished;
+        publishTime = System.nanoTime();
+    }
+
+    /**
+     * Copies a state received from a NetServer into the snapshot. The state
+     * carries no previous position for the players or the formation, so
+     * those are drawn where they are; enemies and missiles are interpolated
+     * from their velocities. The score and lives are the local player's.
+     * @param state NetState to copy
+     * @param player Integer index of the player this client controls
+     */
+    public void capture(NetState state, int player) {
+        state.copyTo(enemies, missiles);
+        playerCount = state.getPlayerCount();
+        for (int p = 0; p < playerCount; p++) {
+            playerX[p] = state.getPlayerX(p);
+            playerY[p] = state.getPlayerY(p);
+            playerPreviousX[p] = playerX[p];
+            playerPreviousY[p] = playerY[p];
+        }
+        localPlayer = player;
+        formationOffsetX = state.getFormationOffsetX();
+        formationPreviousOffsetX = formationOffsetX;
+        score = state.getScore(player);
+        lives = state.getLives(player);
+        fleetsDestroyed = state.getFleetsDestroyed();
+        Arrays.fill(phaseNanos, 0);
+        inputTime = 0;
+        allocatedBytes = 0;
+        tickCount = state.getSequence();
+        finished = state.isGameOver();
+        publishTime = System.nanoTime();
+    }
+
+    /**
+     * Works out how far to interpolate between the snapshot's previous and
+     * current positions. The snapshot was taken right after its tick, so the
+     * next tick is due one tick length after that.
+     * @param now Long value of the current time in nanoseconds
+     * @return Double value between 0 and 1
+     */
+    public double getAlpha(long now) {
+        double alpha = (double) (now - publishTime) / GameClock.NANOS_PER_TICK;
+        return Math.max(0, Math.min(1, alpha));
+    }
+
+    /**
+     * Gets the copied enemies.
+     * @return EntityStore of enemies, read-only
+     */
+    public EntityStore getEnemies() {
+        return enemies;
+    }
+
+    /**
+     * Gets the copied missiles.
+     * @return EntityStore of missiles, read-only
+     */
+    public EntityStore getMissiles() {
+        return missiles;
+    }
+
+    /**
+     * Gets the number of players to draw.
+     * @return Integer value of 1 or 2
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Gets the player whose score and lives the snapshot holds.
+     * @return Integer index of the player, 0 unless the snapshot came from a
+     *         client playing the second player
+     */
+    public int getLocalPlayer() {
+        return localPlayer;
+    }
+
+    /**
+     * Gets a player's left edge.
+     * @param p Integer index of the player, below getPlayerCount
+     * @return Double value of the player's x coordinate
+     */
+    public double getPlayerX(int p) {
+        return playerX[p];
+    }
+
+    /**
+     * Gets a player's top edge.
+     * @param p Integer index of the player, below getPlayerCount
+     * @return Double value of the player's y coordinate
+     */
+    public double getPlayerY(int p) {
+        return playerY[p];
+    }
+
+    /**
+     * Gets a player's left edge at the start of the tick.
+     * @param p Integer index of the player, below getPlayerCount
+     * @return Double value of the player's previous x coordinate
+     */
+    public double getPlayerPreviousX(int p) {
+        return playerPreviousX[p];
+    }
+
+    /**
+     * Gets a player's top edge at the start of the tick.
+     * @param p Integer index of the player, below getPlayerCount
+     * @return Double value of the player's previous y coordinate
+     */
+    public double getPlayerPreviousY(int p) {
+        return playerPreviousY[p];
+    }
+
+    /**
+     * Gets the formation's horizontal offset.
+     * @return Double value of the offset
+     */
+    public double getFormationOffsetX() {
+        return formationOffsetX;
+    }
+
+    /**
+     * Gets the formation's horizontal offset at the start of the tick.
+     * @return Double value of the previous offset
+     */
+    public double getFormationPreviousOffsetX() {
+        return formationPreviousOffsetX;
+    }
+
+    /**
+     * Gets the score.
+     * @return Integer score when the snapshot was taken
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the lives left.
+     * @return Integer number of lives when the snapshot was taken
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Gets the number of fleets destroyed.
+     * @return Integer number of fleets when the snapshot was taken
+     */
+    public int getFleetsDestroyed() {
+        return fleetsDestroyed;
+    }
+
+    /**
+     * Gets the total time the simulation has spent in a tick phase.
+     * @param phase Phase of the tick, one of UPDATE, DIVE and SHOOT
+     * @return Long value of the time in nanoseconds since the game started
+     */
+    public long getPhaseNanos(FrameProfiler.Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Gets when the first input that these ticks applied happened.
+     * @return Long value of the input's System.nanoTime timestamp, or 0 if they applied none
+     */
+    public long getInputTime() {
+        return inputTime;
+    }
+
+    /**
+     * Gets how much the simulation thread had allocated when the snapshot was taken.
+     * @return Long count of bytes since the thread started, or 0 if unknown
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Gets the number of ticks the game had run when the snapshot was taken.
+     * @return Long value of the tick count
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Checks whether this is the last snapshot of the game.
+     * @return boolean that is true once the simulation has stopped
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+}
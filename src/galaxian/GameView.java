@@ -0,0 +1,218 @@
+package galaxian;
+
+import javafx.collections.ObservableList;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Rectangle;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Node-based renderer: a thin JavaFX view of the game that uses one scene
+ * graph node per sprite. Mirrors each entity store with a list of
+ * rectangles, where rectangle i draws whatever entity is in slot i, and syncs
+ * their positions from the latest snapshot once per frame. Rectangles that are
+ * not needed this frame are hidden and reused later. When far more rectangles
+ * are hidden than shown, the surplus is removed from its layer in a single
+ * batched call. The nodes each frame adds and removes are reported as
+ * SceneGraphBatch flight events.
+ * <p>
+ * Enemy rectangles live in a group that is translated by the formation's
+ * offset, so the formation moves with one property write per frame and the
+ * rectangles of enemies in it keep the same position. Only the rectangles
+ * of diving enemies are moved individually. Missile rectangles live in a
+ * group of their own, so the layers keep their order below the HUD and the
+ * overlays that are added to the root pane after the view.
+ */
+public class GameView implements GameRenderer {
+    private static final Color[] MISSILE_COLORS = {Color.RED};
+    private static final int MIN_SPARE_SHAPES = 64;
+    private final Polygon[] playerShapes = new Polygon[GameManager.MAX_PLAYERS];
+    private final Group enemyLayer = new Group();
+    private final Group missileLayer = new Group();
+    private final List<Rectangle> enemyShapes = new ArrayList<>();
+    private final List<Rectangle> missileShapes = new ArrayList<>();
+    private int visibleEnemyShapes;
+    private int visibleMissileShapes;
+    private final Set<Node> enemyShapesToRemove = new HashSet<>();
+    private final Set<Node> missileShapesToRemove = new HashSet<>();
+
+    /**
+     * Creates the players' shapes and the layers for enemies and missiles,
+     * and adds them to the root pane. The second player's shape stays
+     * hidden unless the game has two players.
+     * @param root Pane that holds the graphical elements
+     */
+    public GameView(Pane root) {
+        root.getChildren().add(enemyLayer);
+        for (int p = 0; p < playerShapes.length; p++) {
+            playerShapes[p] = createPlayerTriangle();
+            playerShapes[p].setVisible(false);
+            root.getChildren().add(playerShapes[p]);
+        }
+        root.getChildren().add(missileLayer);
+    }
+
+    /**
+     * Counts the shapes in the enemy and missile layers, including shapes
+     * hidden until they are removed.
+     * @return String with the number of nodes in each layer
+     */
+    @Override
+    public String describeLayers() {
+        return "enemies " + enemyLayer.getChildren().size() + "  missiles " + missileLayer.getChildren().size();
+    }
+
+    /**
+     * Creates the graphical representation of the Player.
+     * @return A triangle that represents the player.
+     */
+    private Polygon createPlayerTriangle() {
+        Polygon triangle = new Polygon();
+        triangle.getPoints().addAll(0.0, Player.HEIGHT,
+                Player.WIDTH, Player.HEIGHT,
+                Player.WIDTH / 2, 0.0);
+        triangle.setFill(LOCAL_PLAYER_COLOR);
+
+        return triangle;
+    }
+
+    /**
+     * Syncs the GUI with a snapshot of the game.
+     * @param snapshot GameSnapshot of the tick to draw
+     * @param alpha Double value between 0 and 1 telling how far to interpolate
+     *              from each entity's previous position to its current one
+     */
+    @Override
+    public void render(GameSnapshot snapshot, double alpha) {
+        for (int p = 0; p < playerShapes.length; p++) {
+            Polygon shape = playerShapes[p];
+            shape.setVisible(p < snapshot.getPlayerCount());
+            if (!shape.isVisible()) {
+                continue;
+            }
+            Color color = GameRenderer.playerColor(snapshot, p);
+            if (shape.getFill() != color) {
+                shape.setFill(color);
+            }
+            shape.setLayoutX(GameRenderer.interpolate(snapshot.getPlayerPreviousX(p), snapshot.getPlayerX(p), alpha));
+            shape.setLayoutY(GameRenderer.interpolate(snapshot.getPlayerPreviousY(p), snapshot.getPlayerY(p), alpha));
+        }
+
+        double offsetX = GameRenderer.interpolate(snapshot.getFormationPreviousOffsetX(),
+                snapshot.getFormationOffsetX(), alpha);
+        enemyLayer.setTranslateX(offsetX);
+
+        int enemyShapeCount = enemyShapes.size();
+        visibleEnemyShapes = sync(snapshot.getEnemies(), enemyShapes, visibleEnemyShapes,
+                ENEMY_COLORS, enemyLayer.getChildren(), offsetX, true, alpha);
+        int enemyShapesAdded = enemyShapes.size() - enemyShapeCount;
+        int missileShapeCount = missileShapes.size();
+        visibleMissileShapes = sync(snapshot.getMissiles(), missileShapes, visibleMissileShapes,
+                MISSILE_COLORS, missileLayer.getChildren(), 0, false, alpha);
+        int missileShapesAdded = missileShapes.size() - missileShapeCount;
+
+        trim(enemyShapes, visibleEnemyShapes, enemyShapesToRemove);
+        trim(missileShapes, visibleMissileShapes, missileShapesToRemove);
+        removeQueued("enemies", enemyLayer.getChildren(), enemyShapesToRemove, enemyShapesAdded);
+        removeQueued("missiles", missileLayer.getChildren(), missileShapesToRemove, missileShapesAdded);
+    }
+
+    /**
+     * Removes the queued rectangles from their parent in one call, and
+     * reports the parent's changes this frame as a SceneGraphBatch flight event.
+     * @param layer String naming the parent in the event
+     * @param children List of nodes that the rectangles belong to
+     * @param queued Set of rectangles to remove, emptied afterwards
+     * @param added Integer number of rectangles added to the parent this frame
+     */
+    private void removeQueued(String layer, ObservableList<Node> children, Set<Node> queued, int added) {
+        int removed = queued.size();
+        if (removed > 0) {
+            children.removeAll(queued);
+            queued.clear();
+        }
+        if (added > 0 || removed > 0) {
+            FlightEvents.SceneGraphBatch event = new FlightEvents.SceneGraphBatch();
+            if (event.isEnabled()) {
+                event.layer = layer;
+                event.added = added;
+                event.removed = removed;
+                event.children = children.size();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Queues the hidden rectangles of a store for removal when there are more
+     * of them than shown ones, keeping some spares for the next spawns. The
+     * queued rectangles are removed from their parent together, because
+     * removing nodes one by one scans the children list each time.
+     * @param shapes List of rectangles mirroring a store
+     * @param visible Integer number of rectangles shown this frame
+     * @param queue Set that the surplus rectangles are added to
+     */
+    private void trim(List<Rectangle> shapes, int visible, Set<Node> queue) {
+        int keep = visible + Math.max(visible, MIN_SPARE_SHAPES);
+        if (shapes.size() > keep) {
+            List<Rectangle> surplus = shapes.subList(keep, shapes.size());
+            queue.addAll(surplus);
+            surplus.clear();
+        }
+    }
+
+    /**
+     * Moves rectangle i to the position of the entity in slot i, creating
+     * rectangles when the store has grown and hiding the ones left over
+     * when it has shrunk. Positions of entities that aren't in the formation
+     * are shifted by the parent's translation, so they land where the store
+     * says on screen.
+     * @param store EntityStore to draw
+     * @param shapes List of rectangles mirroring the store
+     * @param visible Integer number of rectangles shown last frame
+     * @param colors Array of colors, picked by the entity's row
+     * @param parent List of nodes that new rectangles are added to
+     * @param parentOffsetX Double value of the parent's horizontal translation
+     * @param grouped boolean that is true if the store holds enemies, whose
+     *                formation members are already positioned relative to the group
+     * @param alpha Double value telling how far to interpolate between ticks
+     * @return Integer number of rectangles shown this frame
+     */
+    private int sync(EntityStore store, List<Rectangle> shapes, int visible, Color[] colors,
+                     ObservableList<Node> parent, double parentOffsetX, boolean grouped, double alpha) {
+        int count = store.getCount();
+        for (int i = 0; i < count; i++) {
+            Color color = colors[store.row[i] % colors.length];
+            Rectangle shape;
+            if (i < shapes.size()) {
+                shape = shapes.get(i);
+                if (i >= visible) {
+                    shape.setVisible(true);
+                }
+                if (shape.getFill() != color) {
+                    shape.setFill(color);
+                }
+            } else {
+                shape = new Rectangle(store.getWidth(), store.getHeight(), color);
+                shapes.add(shape);
+                parent.add(shape);
+            }
+            double x = GameRenderer.interpolate(store.previousX[i], store.x[i], alpha);
+            if (!grouped || !Formation.isMember(store, i)) {
+                x -= parentOffsetX;
+            }
+            shape.setLayoutX(x);
+            shape.setLayoutY(GameRenderer.interpolate(store.previousY[i], store.y[i], alpha));
+        }
+        for (int i = count; i < visible; i++) {
+            shapes.get(i).setVisible(false);
+        }
+        return count;
+    }
+}
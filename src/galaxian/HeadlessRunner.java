@@ -0,0 +1,33 @@
+package galaxian;
+
+/**
+ * Runs the game simulation without JavaFX. Steps a GameManager for a number
+ * of ticks, or until the game is over, and reports how fast the ticks ran.
+ */
+public class HeadlessRunner {
+
+    /**
+     * Runs a headless game.
+     * @param args Optional number of ticks to simulate, defaults to one million
+     */
+    public static void main(String[] args) {
+        long maxTicks = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        GameManager gameManager = new GameManager();
+
+        long start = System.nanoTime();
+        long ticks = 0;
+        while (ticks < maxTicks && !gameManager.isGameOver()) {
+            gameManager.tick();
+            ticks++;
+        }
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        System.out.printf("Ticks: %d in %.1f ms (%.0f ticks/ms)%n",
+                ticks, elapsedMillis, ticks / Math.max(elapsedMillis, 1e-6));
+        System.out.printf("Score: %d, Lives: %d, Fleets Destroyed: %d%n",
+                gameManager.getScore(), gameManager.getLives(), gameManager.getFleetsDestroyed());
+        MissilePool pool = gameManager.getMissilePool();
+        System.out.printf("Missiles: %d pooled, %d high-water, %d hits, %d misses, %d dropped%n",
+                pool.getSize(), pool.getHighWaterMark(), pool.getHits(), pool.getMisses(), pool.getDropped());
+    }
+}
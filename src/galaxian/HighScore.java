@@ -0,0 +1,146 @@
+package galaxian;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * The result of one finished game, as kept by the HighScoreStore: when it
+ * ended, its score, how many fleets were destroyed, how long it lasted and
+ * the seed it was played with.
+ */
+public final class HighScore implements Comparable<HighScore> {
+    // Size of a record in the log and the index, including its checksum
+    static final int RECORD_SIZE = 5 * Long.BYTES;
+
+    private final long time;
+    private final int score;
+    private final int fleetsDestroyed;
+    private final long ticks;
+    private final long seed;
+
+    /**
+     * Creates a result.
+     * @param time Long value of when the game ended, in milliseconds since the epoch
+     * @param score Integer value of the final score
+     * @param fleetsDestroyed Integer number of fleets destroyed
+     * @param ticks Long number of ticks the game lasted
+     * @param seed Long value of the game's seed
+     */
+    public HighScore(long time, int score, int fleetsDestroyed, long ticks, long seed) {
+        this.time = time;
+        this.score = score;
+        this.fleetsDestroyed = fleetsDestroyed;
+        this.ticks = ticks;
+        this.seed = seed;
+    }
+
+    /**
+     * Records how a game ended.
+     * @param gameManager Instance of game manager whose game is over
+     * @return HighScore of the game, timed now
+     */
+    public static HighScore of(GameManager gameManager) {
+        return new HighScore(System.currentTimeMillis(), gameManager.getScore(),
+                gameManager.getFleetsDestroyed(), gameManager.getTickCount(), gameManager.getSeed());
+    }
+
+    /**
+     * Writes the result as a record of RECORD_SIZE bytes. The checksum at
+     * the end tells a complete record from one cut short by a crash.
+     * @param out ByteBuffer with RECORD_SIZE bytes left
+     */
+    void write(ByteBuffer out) {
+        int start = out.position();
+        out.putLong(time);
+        out.putLong(ticks);
+        out.putLong(seed);
+        out.putInt(score);
+        out.putInt(fleetsDestroyed);
+        out.putInt(checksum(out, start));
+        out.putInt(0);
+    }
+
+    /**
+     * Reads a record written by write.
+     * @param in ByteBuffer positioned at the record
+     * @return HighScore read, or null if the record's checksum does not match
+     */
+    static HighScore read(ByteBuffer in) {
+        int start = in.position();
+        long time = in.getLong();
+        long ticks = in.getLong();
+        long seed = in.getLong();
+        int score = in.getInt();
+        int fleets = in.getInt();
+        int expected = in.getInt();
+        in.getInt();
+        if (checksum(in, start) != expected) {
+            return null;
+        }
+        return new HighScore(time, score, fleets, ticks, seed);
+    }
+
+    /**
+     * Checksums the fields of a record.
+     * @param buffer ByteBuffer holding the record
+     * @param start Integer position of the record
+     * @return Integer checksum
+     */
+    private static int checksum(ByteBuffer buffer, int start) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(start).limit(start + 4 * Long.BYTES));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Orders results best first: by score, and for equal scores the one
+     * reached first ranks higher.
+     * @param other HighScore to compare with
+     * @return Integer that is negative if this result ranks higher
+     */
+    @Override
+    public int compareTo(HighScore other) {
+        int byScore = Integer.compare(other.score, score);
+        return byScore != 0 ? byScore : Long.compare(time, other.time);
+    }
+
+    /**
+     * Gets when the game ended.
+     * @return Long value in milliseconds since the epoch
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the final score.
+     * @return Integer value of the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the number of fleets destroyed.
+     * @return Integer number of fleets
+     */
+    public int getFleetsDestroyed() {
+        return fleetsDestroyed;
+    }
+
+    /**
+     * Gets how long the game lasted.
+     * @return Long number of ticks
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Gets the game's seed.
+     * @return Long value of the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,499 @@
+package galaxian;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * The high-score table, kept across sessions. Every finished game is
+ * appended to a log of fixed-size records that is never rewritten, so the
+ * log holds the whole history and a crash can cost at most the record being
+ * written. Next to the log, an index holds the best TOP_SIZE results in
+ * order, the totals of all games and how much of the log it covers. Loading
+ * the table reads the index and only the records appended since it was
+ * written, so it takes the same time after a hundred games as after a
+ * hundred thousand. If the index is missing or damaged, it is rebuilt from
+ * the log.
+ * <p>
+ * All of the file work happens on a writer thread of its own. The table is
+ * loaded there as soon as the store starts, and add only queues a result,
+ * so neither startup nor the end of a game waits for the disk. The writer
+ * appends whatever results have queued up in one write, syncs the log once
+ * for the batch, rewrites the index and then publishes the new table to the
+ * listener.
+ */
+public class HighScoreStore {
+    public static final int TOP_SIZE = 100;
+    private static final int LOG_MAGIC = 0x474C584C; // "GLXL"
+    private static final int INDEX_MAGIC = 0x474C5849; // "GLXI"
+    private static final int VERSION = 1;
+    private static final int LOG_HEADER_SIZE = Long.BYTES;
+    private static final int INDEX_HEADER_SIZE = 6 * Long.BYTES;
+    private static final int BATCH_SIZE = 1024;
+    // Queued by close to tell the writer to finish
+    private static final HighScore CLOSE = new HighScore(0, 0, 0, 0, 0);
+
+    private final Path logPath;
+    private final Path indexPath;
+    private final BlockingQueue<HighScore> pending = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile Consumer<Table> listener;
+    private volatile Table table = new Table(new HighScore[0], 0, 0, 0);
+    private volatile boolean closed;
+
+    // Owned by the writer thread
+    private final ByteBuffer records = ByteBuffer.allocateDirect(BATCH_SIZE * HighScore.RECORD_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer index = ByteBuffer.allocate(INDEX_HEADER_SIZE + TOP_SIZE * HighScore.RECORD_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private final HighScore[] top = new HighScore[TOP_SIZE];
+    private FileChannel log;
+    private long logLength;
+    private int topCount;
+    private long gamesPlayed;
+    private long totalScore;
+    private long totalTicks;
+
+    /**
+     * Creates the store without starting it.
+     * @param path Path of the log; the index is kept next to it with ".idx" added to its name
+     */
+    public HighScoreStore(Path path) {
+        logPath = path;
+        indexPath = path.resolveSibling(path.getFileName() + ".idx");
+        writer = new Thread(this::run, "score-writer");
+        writer.setDaemon(true);
+    }
+
+    /**
+     * Starts the writer thread, which loads the table in the background.
+     */
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * Queues a finished game to be added to the table. Returns at once; the
+     * listener is given the new table once the result has been written.
+     * Called from any thread.
+     * @param result HighScore of the game
+     */
+    public void add(HighScore result) {
+        if (!closed) {
+            pending.offer(result);
+        }
+    }
+
+    /**
+     * Writes the results still queued and waits for the writer thread to
+     * finish, for up to ten seconds.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.offer(CLOSE);
+        if (writer.isAlive()) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Sets the listener that is given the table whenever it changes. It is
+     * called on the writer thread.
+     * @param listener Consumer of the new table, or null
+     */
+    public void setListener(Consumer<Table> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the latest table. It is empty until the writer thread has loaded it.
+     * @return Table of the best results and the totals of all games
+     */
+    public Table getTable() {
+        return table;
+    }
+
+    /**
+     * The writer thread: loads the table, then writes queued results in
+     * batches until the store is closed.
+     */
+    private void run() {
+        try {
+            load();
+        } catch (IOException e) {
+            System.err.println("Could not read the high scores: " + e.getMessage());
+            closeLog();
+        }
+        publish();
+
+        List<HighScore> batch = new ArrayList<>(BATCH_SIZE);
+        boolean closing = false;
+        while (!closing) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            pending.drainTo(batch, BATCH_SIZE - 1);
+            closing = batch.remove(CLOSE);
+            if (!batch.isEmpty()) {
+                write(batch);
+                publish();
+                batch.clear();
+            }
+        }
+        closeLog();
+    }
+
+    /**
+     * Opens the log and loads the table from the index and the records
+     * appended after it. A record cut short or damaged by a crash ends the
+     * log and is cut off.
+     * @throws IOException if the log can't be opened or isn't a high-score log
+     */
+    private void load() throws IOException {
+        Path directory = logPath.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = log.size();
+        ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (size < LOG_HEADER_SIZE) {
+            header.putInt(LOG_MAGIC).putInt(VERSION).flip();
+            log.truncate(0);
+            writeFully(header, 0);
+            log.force(false);
+            size = LOG_HEADER_SIZE;
+        } else {
+            readFully(header, 0);
+            header.flip();
+            if (header.getInt() != LOG_MAGIC || header.getInt() != VERSION) {
+                throw new IOException(logPath + " is not a high-score log");
+            }
+        }
+
+        long covered = readIndex(size);
+        logLength = replay(covered, size);
+        if (logLength < size) {
+            System.err.println("Dropped " + (size - logLength) + " damaged bytes from the end of " + logPath);
+            log.truncate(logLength);
+            log.force(false);
+        }
+        if (logLength != covered) {
+            writeIndex();
+        }
+    }
+
+    /**
+     * Loads the best results and the totals from the index, if it is there,
+     * intact and matches the log.
+     * @param logSize Long length of the log in bytes
+     * @return Long length of the log the index covers, or the length of the log's header if it covers none
+     */
+    private long readIndex(long logSize) {
+        ByteBuffer in;
+        try {
+            in = ByteBuffer.wrap(Files.readAllBytes(indexPath)).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (NoSuchFileException e) {
+            return LOG_HEADER_SIZE;
+        } catch (IOException e) {
+            System.err.println("Could not read " + indexPath + ", rebuilding it: " + e.getMessage());
+            return LOG_HEADER_SIZE;
+        }
+        if (in.remaining() < INDEX_HEADER_SIZE || in.getInt() != INDEX_MAGIC || in.getInt() != VERSION) {
+            System.err.println(indexPath + " is not a high-score index, rebuilding it");
+            return LOG_HEADER_SIZE;
+        }
+        long covered = in.getLong();
+        long games = in.getLong();
+        long score = in.getLong();
+        long ticks = in.getLong();
+        int count = in.getInt();
+        int expected = in.getInt();
+        CRC32C checksum = new CRC32C();
+        checksum.update(in.duplicate());
+        if ((int) checksum.getValue() != expected || count < 0 || count > TOP_SIZE
+                || in.remaining() != count * HighScore.RECORD_SIZE
+                || covered < LOG_HEADER_SIZE || covered > logSize
+                || (covered - LOG_HEADER_SIZE) % HighScore.RECORD_SIZE != 0) {
+            System.err.println(indexPath + " is damaged or does not match " + logPath + ", rebuilding it");
+            return LOG_HEADER_SIZE;
+        }
+        for (int i = 0; i < count; i++) {
+            top[i] = HighScore.read(in);
+        }
+        topCount = count;
+        gamesPlayed = games;
+        totalScore = score;
+        totalTicks = ticks;
+        return covered;
+    }
+
+    /**
+     * Adds the records of part of the log to the table, stopping at the
+     * first one that is incomplete or damaged.
+     * @param from Long position of the first record
+     * @param to Long length of the log
+     * @return Long position after the last good record
+     * @throws IOException if the log can't be read
+     */
+    private long replay(long from, long to) throws IOException {
+        long position = from;
+        while (to - position >= HighScore.RECORD_SIZE) {
+            records.clear();
+            long whole = (to - position) / HighScore.RECORD_SIZE * HighScore.RECORD_SIZE;
+            records.limit((int) Math.min(records.capacity(), whole));
+            readFully(records, position);
+            records.flip();
+            while (records.hasRemaining()) {
+                HighScore result = HighScore.read(records);
+                if (result == null) {
+                    return position;
+                }
+                count(result);
+                position += HighScore.RECORD_SIZE;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Appends a batch of results to the log with a single write, syncs it
+     * and adds them to the table. If the log can't be written, they are
+     * still shown in this session's table.
+     * @param batch List of results, at most BATCH_SIZE of them
+     */
+    private void write(List<HighScore> batch) {
+        for (HighScore result : batch) {
+            count(result);
+        }
+        if (log == null) {
+            return;
+        }
+        records.clear();
+        for (HighScore result : batch) {
+            result.write(records);
+        }
+        records.flip();
+        try {
+            writeFully(records, logLength);
+            log.force(false);
+            logLength += (long) batch.size() * HighScore.RECORD_SIZE;
+            writeIndex();
+        } catch (IOException e) {
+            System.err.println("Could not save the high scores: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds a result to the totals, and to the best results if it is good enough.
+     * @param result HighScore of a finished game
+     */
+    private void count(HighScore result) {
+        gamesPlayed++;
+        totalScore += result.getScore();
+        totalTicks += result.getTicks();
+        if (topCount == TOP_SIZE && result.compareTo(top[TOP_SIZE - 1]) >= 0) {
+            return;
+        }
+        int at = Arrays.binarySearch(top, 0, topCount, result);
+        if (at < 0) {
+            at = -at - 1;
+        }
+        System.arraycopy(top, at, top, at + 1, Math.min(topCount, TOP_SIZE - 1) - at);
+        top[at] = result;
+        topCount = Math.min(topCount + 1, TOP_SIZE);
+    }
+
+    /**
+     * Replaces the index with one covering the whole log. It isn't synced:
+     * an index lost in a crash is only a longer load the next time, since
+     * the records it covered are read again from the log, and a damaged one
+     * fails its checksum and is rebuilt.
+     * @throws IOException if the index can't be written
+     */
+    private void writeIndex() throws IOException {
+        index.clear();
+        index.putInt(INDEX_MAGIC);
+        index.putInt(VERSION);
+        index.putLong(logLength);
+        index.putLong(gamesPlayed);
+        index.putLong(totalScore);
+        index.putLong(totalTicks);
+        index.putInt(topCount);
+        index.putInt(0);
+        for (int i = 0; i < topCount; i++) {
+            top[i].write(index);
+        }
+        index.flip();
+        CRC32C checksum = new CRC32C();
+        checksum.update(index.duplicate().position(INDEX_HEADER_SIZE));
+        index.putInt(INDEX_HEADER_SIZE - Integer.BYTES, (int) checksum.getValue());
+
+        Path temporary = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (index.hasRemaining()) {
+                channel.write(index);
+            }
+        }
+        Files.move(temporary, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Publishes the current table and hands it to the listener.
+     */
+    private void publish() {
+        table = new Table(Arrays.copyOf(top, topCount), gamesPlayed, totalScore, totalTicks);
+        Consumer<Table> current = listener;
+        if (current != null) {
+            current.accept(table);
+        }
+    }
+
+    /**
+     * Writes all of a buffer to the log.
+     * @param buffer ByteBuffer to write
+     * @param position Long position in the log to write it at
+     * @throws IOException if the log can't be written
+     */
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += log.write(buffer, position);
+        }
+    }
+
+    /**
+     * Fills a buffer from the log.
+     * @param buffer ByteBuffer to fill up to its limit
+     * @param position Long position in the log to read from
+     * @throws IOException if the log can't be read or ends too soon
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = log.read(buffer, position);
+            if (read < 0) {
+                throw new IOException(logPath + " ended while being read");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Closes the log, if it is open. Results added afterwards are only kept in memory.
+     */
+    private void closeLog() {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.err.println("Could not close " + logPath + ": " + e.getMessage());
+        }
+        log = null;
+    }
+
+    /**
+     * The best results, best first, and the totals of every game played,
+     * as published by the writer thread. A table never changes once published.
+     */
+    public static final class Table {
+        private final HighScore[] top;
+        private final long gamesPlayed;
+        private final long totalScore;
+        private final long totalTicks;
+
+        /**
+         * Creates a table.
+         * @param top Array of the best results, best first, which the table takes over
+         * @param gamesPlayed Long number of games played
+         * @param totalScore Long sum of the scores of every game
+         * @param totalTicks Long sum of the lengths of every game, in ticks
+         */
+        private Table(HighScore[] top, long gamesPlayed, long totalScore, long totalTicks) {
+            this.top = top;
+            this.gamesPlayed = gamesPlayed;
+            this.totalScore = totalScore;
+            this.totalTicks = totalTicks;
+        }
+
+        /**
+         * Gets the number of results in the table.
+         * @return Integer number of results, at most TOP_SIZE
+         */
+        public int size() {
+            return top.length;
+        }
+
+        /**
+         * Gets a result by its place in the table.
+         * @param rank Integer place, 0 for the best
+         * @return HighScore at that place
+         */
+        public HighScore get(int rank) {
+            return top[rank];
+        }
+
+        /**
+         * Finds the place of a result passed to add.
+         * @param result HighScore to look for
+         * @return Integer place, 0 for the best, or -1 if it isn't in the table
+         */
+        public int rankOf(HighScore result) {
+            for (int i = 0; i < top.length; i++) {
+                if (top[i] == result) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Gets the number of games played.
+         * @return Long number of games
+         */
+        public long getGamesPlayed() {
+            return gamesPlayed;
+        }
+
+        /**
+         * Gets the sum of the scores of every game.
+         * @return Long total score
+         */
+        public long getTotalScore() {
+            return totalScore;
+        }
+
+        /**
+         * Gets the sum of the lengths of every game.
+         * @return Long total number of ticks
+         */
+        public long getTotalTicks() {
+            return totalTicks;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package galaxian;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-producer, single-consumer ring buffer of timestamped key events.
+ * The JavaFX thread offers an event whenever a key goes down or up, and the
+ * simulation thread polls them all at the start of each tick. Each side only
+ * writes its own counter, and publishes it with an ordered store after
+ * writing or reading the slot, so neither side locks and nothing is
+ * allocated per event. An event offered while the buffer is full is dropped.
+ */
+public class InputQueue {
+    // Added to the key in an event when the key went down rather than up.
+    private static final int PRESSED = 0x40;
+
+    private final byte[] events;
+    private final long[] times;
+    private final int mask;
+    // Next slot to read; only written by the consumer.
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write; only written by the producer.
+    private final AtomicLong tail = new AtomicLong();
+    private byte polledEvent;
+    private long polledTime;
+
+    /**
+     * Creates an empty queue.
+     * @param capacity Integer number of events the queue holds, a power of two
+     */
+    public InputQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        events = new byte[capacity];
+        times = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds a key event. Only called by the producer.
+     * @param key Integer key that went down or up, below 0x40
+     * @param pressed boolean that is true if the key went down
+     * @param time Long value of when it happened, from System.nanoTime
+     * @return boolean that is false if the queue was full and the event was dropped
+     */
+    public boolean offer(int key, boolean pressed, long time) {
+        long t = tail.get();
+        if (t - head.get() == events.length) {
+            return false;
+        }
+        int k = (int) t & mask;
+        events[k] = (byte) (pressed ? key | PRESSED : key);
+        times[k] = time;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Takes the oldest event, which is then described by getKey, isPressed
+     * and getTime. Only called by the consumer.
+     * @return boolean that is false if the queue was empty
+     */
+    public boolean poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return false;
+        }
+        int k = (int) h & mask;
+        polledEvent = events[k];
+        polledTime = times[k];
+        head.lazySet(h + 1);
+        return true;
+    }
+
+    /**
+     * Gets the key of the last polled event.
+     * @return Integer key
+     */
+    public int getKey() {
+        return polledEvent & ~PRESSED;
+    }
+
+    /**
+     * Checks whether the key of the last polled event went down.
+     * @return boolean that is true for a press and false for a release
+     */
+    public boolean isPressed() {
+        return (polledEvent & PRESSED) != 0;
+    }
+
+    /**
+     * Gets when the last polled event happened.
+     * @return Long value of the event's System.nanoTime timestamp
+     */
+    public long getTime() {
+        return polledTime;
+    }
+}
@@ -0,0 +1,192 @@
+package galaxian;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A recorded session: the game's seed and every input event, each tagged with
+ * the tick it was applied before. Together they are enough to replay the game
+ * exactly. Events are stored as a one-byte code after the number of ticks
+ * since the previous event, written as a variable-length integer, so a
+ * session usually takes two bytes per key press.
+ */
+public class InputRecording {
+    public static final byte PRESS_LEFT = 0;
+    public static final byte RELEASE_LEFT = 1;
+    public static final byte PRESS_RIGHT = 2;
+    public static final byte RELEASE_RIGHT = 3;
+    public static final byte FIRE = 4;
+    private static final int MAGIC = 0x474C5852; // "GLXR"
+    private static final int VERSION = 1;
+
+    private final long seed;
+    private long[] ticks = new long[256];
+    private byte[] events = new byte[256];
+    private int count;
+    private long length;
+
+    /**
+     * Creates an empty recording.
+     * @param seed Long value of the seed of the recorded game
+     */
+    public InputRecording(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Adds an event to the end of the recording.
+     * @param tick Long value of the number of ticks simulated before the event
+     * @param event Byte code of the event, one of the constants in this class
+     */
+    public void record(long tick, byte event) {
+        if (count == ticks.length) {
+            ticks = Arrays.copyOf(ticks, count * 2);
+            events = Arrays.copyOf(events, count * 2);
+        }
+        ticks[count] = tick;
+        events[count] = event;
+        count++;
+        length = Math.max(length, tick);
+    }
+
+    /**
+     * Marks how many ticks the recorded session ran for.
+     * @param tick Long value of the number of ticks simulated in total
+     */
+    public void finish(long tick) {
+        length = Math.max(length, tick);
+    }
+
+    /**
+     * Writes the recording to a file.
+     * @param path Path of the file to write
+     * @throws IOException if the file can't be written
+     */
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+            writeVarLong(out, length);
+            writeVarLong(out, count);
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                writeVarLong(out, ticks[i] - previous);
+                out.writeByte(events[i]);
+                previous = ticks[i];
+            }
+        }
+    }
+
+    /**
+     * Reads a recording from a file.
+     * @param path Path of the file to read
+     * @return InputRecording with the file's seed and events
+     * @throws IOException if the file can't be read or isn't a recording
+     */
+    public static InputRecording read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not an input recording");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported recording version " + version);
+            }
+            InputRecording recording = new InputRecording(in.readLong());
+            long length = readVarLong(in);
+            long count = readVarLong(in);
+            long tick = 0;
+            for (long i = 0; i < count; i++) {
+                tick += readVarLong(in);
+                recording.record(tick, in.readByte());
+            }
+            recording.finish(length);
+            return recording;
+        }
+    }
+
+    /**
+     * Writes a non-negative long in seven-bit groups, low bits first.
+     * @param out DataOutputStream to write to
+     * @param value Long value to write
+     * @throws IOException if writing fails
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads a long written by writeVarLong.
+     * @param in DataInputStream to read from
+     * @return Long value that was read
+     * @throws IOException if reading fails or the value is malformed
+     */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    /**
+     * Gets the seed of the recorded game.
+     * @return Long value of the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of recorded events.
+     * @return Integer number of events
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the tick an event was applied before.
+     * @param i Integer index of the event
+     * @return Long value of the number of ticks simulated before the event
+     */
+    public long getTick(int i) {
+        return ticks[i];
+    }
+
+    /**
+     * Gets the code of an event.
+     * @param i Integer index of the event
+     * @return Byte code of the event
+     */
+    public byte getEvent(int i) {
+        return events[i];
+    }
+
+    /**
+     * Gets how many ticks the recorded session ran for.
+     * @return Long value of the number of ticks
+     */
+    public long getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,374 @@
+package galaxian;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.Pane;
+import javafx.stage.Stage;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class launches the application, and contains the start function and the animation timer.
+ * The playfield is drawn with one node per sprite by default; pass
+ * {@code --renderer=canvas} to draw it into a single canvas instead.
+ * F3 toggles the diagnostics overlay. {@code --seed=<n>} fixes the game's
+ * seed, and {@code --record=<file>} saves the session's inputs when the game
+ * ends so that ReplayRunner can replay it. {@code --stress=<file>} or
+ * {@code --fleet=<n>} plays a stress run instead (see StressConfig) and
+ * prints its statistics when it is done. F5 saves the game to the file given
+ * with {@code --save=<file>}, galaxian.sav by default, and
+ * {@code --load=<file>} resumes a saved game. Finished games are added to
+ * the high-score table in the file given with {@code --scores=<file>},
+ * galaxian.scores by default. The game runs on a SimulationThread;
+ * this class only feeds it input and draws its snapshots.
+ * {@code --connect=<host:port>} plays a game run by a NetServer instead,
+ * through a NetClient.
+ */
+public class Main extends Application {
+    private static final FrameProfiler.Phase[] TICK_PHASES = {
+            FrameProfiler.Phase.UPDATE, FrameProfiler.Phase.DIVE, FrameProfiler.Phase.SHOOT};
+    private GameManager gameManager;
+    private SimulationThread simulation;
+    private NetClient client;
+    private GameRenderer renderer;
+    private GameOverScreen gameOverScreen;
+    private AnimationTimer gameLoop;
+    private final FrameProfiler profiler = new FrameProfiler();
+    private final long[] seenPhaseNanos = new long[FrameProfiler.Phase.values().length];
+    private long seenInputTime;
+    private long seenAllocatedBytes;
+    private DiagnosticsOverlay diagnostics;
+    private InputRecording recording;
+    private Path recordingPath;
+    private Path savePath;
+    private HighScoreStore highScores;
+    private StressDriver stress;
+    private long stressStart;
+    private long lastFrame = -1;
+    private UI ui;
+    private final Set<KeyCode> activeKeys = new HashSet<>();
+    private Pane root;
+
+    /**
+     * Launches the application
+     * @param args Application arguments
+     */
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    /**
+     * Creates the Pane that holds the graphical elements, and sets abd shows the stage.
+     * This functions also contains the keyboard listeners which control the
+     * player's movement.
+     * @param primaryStage the primary stage for this application, onto which
+     * the application scene can be set.
+     */
+    @Override
+    public void start(Stage primaryStage) throws IOException {
+        root = new Pane();
+        Map<String, String> named = getParameters().getNamed();
+        String connect = named.get("connect");
+        if (connect != null) {
+            startClient(primaryStage, connect, named);
+            return;
+        }
+        String seed = named.get("seed");
+        String load = named.get("load");
+        if (load != null) {
+            if (seed != null || StressConfig.isRequested(named)) {
+                System.err.println("A saved game brings its own seed and fleet, so --seed and the stress"
+                        + " settings are ignored with --load");
+            }
+            gameManager = SaveState.read(Path.of(load));
+        } else if (StressConfig.isRequested(named)) {
+            stress = new StressDriver(StressConfig.from(named));
+            gameManager = stress.getGameManager();
+        } else {
+            gameManager = seed != null ? new GameManager(Long.parseLong(seed)) : new GameManager();
+        }
+        String record = getParameters().getNamed().get("record");
+        if (record != null && load != null) {
+            System.err.println("A recording replays from the start of a game, so --record is ignored with --load");
+        } else if (record != null && stress != null) {
+            System.err.println("A recording holds only the keyboard, not the stress driver's moves, shots and"
+                    + " fleet, so --record is ignored in a stress run");
+        } else if (record != null) {
+            recordingPath = Path.of(record);
+            recording = new InputRecording(gameManager.getSeed());
+        }
+        savePath = Path.of(named.getOrDefault("save", "galaxian.sav"));
+        Scene scene = new Scene(root, gameManager.getWidth(), gameManager.getHeight());
+        gameOverScreen = new GameOverScreen(0, gameManager.getWidth(), gameManager.getHeight());
+        root.getChildren().add(gameOverScreen);
+        highScores = new HighScoreStore(Path.of(named.getOrDefault("scores", "galaxian.scores")));
+        highScores.setListener(table -> Platform.runLater(() -> gameOverScreen.showHighScores(table)));
+        highScores.start();
+        renderer = createRenderer(getParameters().getNamed().get("renderer"), gameManager.getWidth(),
+                gameManager.getHeight());
+        ui = new UI();
+        ui.refresh(gameManager);
+        gameManager.addListener(ui);
+        gameManager.addListener(new GameEventListener() {
+            @Override
+            public void gameOver(int score) {
+                gameLoop.stop();
+                simulation.stop();
+                HighScore result = stress == null ? HighScore.of(gameManager) : null;
+                gameOverScreen.showGameOverScreen(root, score, result);
+                if (result != null) {
+                    highScores.add(result);
+                }
+                saveRecording();
+            }
+        });
+        diagnostics = new DiagnosticsOverlay(profiler, gameManager.getWidth(), root, renderer);
+        simulation = new SimulationThread(gameManager, stress, recording);
+
+        scene.setOnKeyPressed(e -> {
+            KeyCode key = e.getCode();
+            if (activeKeys.add(key)) {
+                int simulationKey = toSimulationKey(key);
+                if (simulationKey != 0) {
+                    simulation.setKeyHeld(simulationKey, true);
+                }
+            }
+
+            if (key == KeyCode.F3) {
+                diagnostics.toggle();
+            } else if (key == KeyCode.F5) {
+                simulation.save(savePath);
+            }
+        });
+
+        scene.setOnKeyReleased(e -> {
+            KeyCode key = e.getCode();
+            if (activeKeys.remove(key)) {
+                int simulationKey = toSimulationKey(key);
+                if (simulationKey != 0) {
+                    simulation.setKeyHeld(simulationKey, false);
+                }
+            }
+        });
+
+
+        root.getChildren().addAll(ui.getUINodes());
+        root.getChildren().add(diagnostics.getNode());
+
+        primaryStage.setTitle("Galaxian");
+        primaryStage.setScene(scene);
+        primaryStage.show();
+
+        startGameLoop();
+    }
+
+    /**
+     * Plays a game run by a NetServer. There is no simulation here: the
+     * keys go to the server through the client, and each frame draws the
+     * newest state received with the usual renderer and HUD. In a game of
+     * two, this window's ship is drawn blue and the other player's green,
+     * and the HUD shows this player's score and lives. Saving,
+     * recording and the high scores belong to the server's game, so they
+     * are not offered.
+     * @param primaryStage Stage to show the game on
+     * @param server String of the server's address, as host:port
+     * @param named Map of the named arguments; loss, latency and jitter are passed to the NetShim
+     * @throws IOException if the socket can't be opened
+     */
+    private void startClient(Stage primaryStage, String server, Map<String, String> named) throws IOException {
+        int colon = server.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("--connect takes host:port, not " + server);
+        }
+        InetSocketAddress address = new InetSocketAddress(server.substring(0, colon),
+                Integer.parseInt(server.substring(colon + 1)));
+        client = new NetClient(address, NetShim.fromArguments(named, System.nanoTime()), false);
+
+        Scene scene = new Scene(root, GameManager.SCREEN_WIDTH, GameManager.SCREEN_HEIGHT);
+        gameOverScreen = new GameOverScreen(0, GameManager.SCREEN_WIDTH, GameManager.SCREEN_HEIGHT);
+        root.getChildren().add(gameOverScreen);
+        renderer = createRenderer(named.get("renderer"), GameManager.SCREEN_WIDTH, GameManager.SCREEN_HEIGHT);
+        ui = new UI();
+        root.getChildren().addAll(ui.getUINodes());
+
+        scene.setOnKeyPressed(e -> {
+            int clientKey = toSimulationKey(e.getCode());
+            if (activeKeys.add(e.getCode()) && clientKey != 0) {
+                client.setKeyHeld(clientKey, true);
+            }
+        });
+        scene.setOnKeyReleased(e -> {
+            int clientKey = toSimulationKey(e.getCode());
+            if (activeKeys.remove(e.getCode()) && clientKey != 0) {
+                client.setKeyHeld(clientKey, false);
+            }
+        });
+
+        primaryStage.setTitle("Galaxian - " + server);
+        primaryStage.setScene(scene);
+        primaryStage.show();
+
+        gameLoop = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                GameSnapshot snapshot = client.getSnapshot();
+                renderer.render(snapshot, snapshot.getAlpha(System.nanoTime()));
+                ui.updateScore(snapshot.getScore());
+                ui.updateLives(snapshot.getLives());
+                ui.updateFleetsDestroyed(snapshot.getFleetsDestroyed());
+                if (snapshot.isFinished()) {
+                    gameLoop.stop();
+                    client.stop();
+                    gameOverScreen.showGameOverScreen(root, snapshot.getScore(), null);
+                }
+            }
+        };
+        client.start();
+        gameLoop.start();
+    }
+
+    /**
+     * Starts the game loop. Contains an animation timer, and implements the
+     * Animation timer's handle function. The simulation thread runs the
+     * fixed ticks; each frame draws the latest snapshot it published,
+     * interpolated by how long ago that was, and then delivers the events of
+     * the ticks run since the last frame. The game over event stops the loop.
+     */
+    public void startGameLoop() {
+        gameLoop = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                profiler.beginFrame(now);
+                if (stress != null) {
+                    if (lastFrame < 0) {
+                        stressStart = now;
+                    } else {
+                        stress.recordFrame(now - lastFrame);
+                    }
+                    lastFrame = now;
+                }
+
+                GameSnapshot snapshot = simulation.getSnapshot();
+                addTickPhases(snapshot);
+                FlightEvents.Render event = new FlightEvents.Render();
+                event.begin();
+                renderer.render(snapshot, snapshot.getAlpha(System.nanoTime()));
+                if (event.shouldCommit()) {
+                    event.tick = snapshot.getTickCount();
+                    event.enemies = snapshot.getEnemies().getCount();
+                    event.missiles = snapshot.getMissiles().getCount();
+                    event.commit();
+                }
+                profiler.lap(FrameProfiler.Phase.RENDER);
+                if (snapshot.getInputTime() != seenInputTime) {
+                    seenInputTime = snapshot.getInputTime();
+                    if (seenInputTime != 0) {
+                        profiler.recordInputLatency(System.nanoTime() - seenInputTime);
+                    }
+                }
+
+                simulation.dispatchEvents();
+                profiler.lap(FrameProfiler.Phase.HUD);
+                profiler.endFrame();
+
+                diagnostics.update(now, snapshot);
+
+                if (stress != null && snapshot.isFinished()) {
+                    stop();
+                    simulation.stop();
+                    stress.printReport(now - stressStart);
+                    Platform.exit();
+                }
+            }
+        };
+        simulation.start();
+        gameLoop.start();
+    }
+
+    /**
+     * Maps a key to the simulation's key codes. Only changes of a key are
+     * passed on, so the keyboard's auto-repeat never reaches the game.
+     * @param key KeyCode of the key that went down or up
+     * @return Integer key for SimulationThread.setKeyHeld, or 0 if the game doesn't use it
+     */
+    private static int toSimulationKey(KeyCode key) {
+        return switch (key) {
+            case LEFT -> SimulationThread.LEFT;
+            case RIGHT -> SimulationThread.RIGHT;
+            case SPACE -> SimulationThread.FIRE;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Adds the time the simulation spent in each tick phase since the last
+     * frame, and the bytes it allocated, to the frame's profile.
+     * @param snapshot GameSnapshot holding the simulation's running totals
+     */
+    private void addTickPhases(GameSnapshot snapshot) {
+        for (FrameProfiler.Phase phase : TICK_PHASES) {
+            long total = snapshot.getPhaseNanos(phase);
+            profiler.add(phase, total - seenPhaseNanos[phase.ordinal()]);
+            seenPhaseNanos[phase.ordinal()] = total;
+        }
+        profiler.addAllocations(snapshot.getAllocatedBytes() - seenAllocatedBytes);
+        seenAllocatedBytes = snapshot.getAllocatedBytes();
+    }
+
+    /**
+     * Stops the simulation and saves the recording when the window is closed
+     * before the game is over, disconnects from the server when playing over
+     * the network, and waits for the high scores to be written.
+     */
+    @Override
+    public void stop() {
+        if (simulation != null) {
+            simulation.stop();
+        }
+        if (client != null) {
+            client.stop();
+        }
+        saveRecording();
+        if (highScores != null) {
+            highScores.close();
+        }
+    }
+
+    /**
+     * Writes the recording to its file, once. The simulation thread must have
+     * stopped, since it adds to the recording while it runs.
+     */
+    private void saveRecording() {
+        if (recording == null) {
+            return;
+        }
+        recording.finish(gameManager.getTickCount());
+        try {
+            recording.write(recordingPath);
+        } catch (IOException e) {
+            System.err.println("Could not save the recording: " + e.getMessage());
+        }
+        recording = null;
+    }
+
+    /**
+     * Creates the renderer chosen on the command line.
+     * @param name String that is "canvas" for the canvas renderer; anything else selects the node renderer
+     * @param width Double value of the playfield's width
+     * @param height Double value of the playfield's height
+     * @return GameRenderer that draws the playfield
+     */
+    private GameRenderer createRenderer(String name, double width, double height) {
+        if ("canvas".equals(name)) {
+            return new CanvasView(root, width, height);
+        }
+        return new GameView(root);
+    }
+}
@@ -0,0 +1,62 @@
+package galaxian;
+
+/**
+ * Contains functions for the logic and behavior of missiles. Missiles are not
+ * objects of their own: each one is a slot in the EntityStore owned by a
+ * MissilePool, with its velocity in vx and vy and its shooter in its state.
+ */
+public final class Missile {
+    public static final double WIDTH = 5;
+    public static final double HEIGHT = 15;
+    public static final byte FROM_PLAYER = 0;
+    public static final byte FROM_ENEMY = 1;
+    public static final byte FROM_SECOND_PLAYER = 2;
+
+    private Missile() {
+    }
+
+    /**
+     * Moves a missile by one tick along its direction of travel.
+     * @param missiles EntityStore holding the missiles
+     * @param i Integer slot of the missile
+     */
+    public static void move(EntityStore missiles, int i) {
+        missiles.x[i] += missiles.vx[i];
+        missiles.y[i] += missiles.vy[i];
+    }
+
+    /**
+     * Checks whether the missile was shot by a player.
+     * @param missiles EntityStore holding the missiles
+     * @param i Integer slot of the missile
+     * @return boolean that is true for the players' missiles and false for the enemies'
+     */
+    public static boolean isFromPlayer(EntityStore missiles, int i) {
+        return missiles.state[i] != FROM_ENEMY;
+    }
+
+    /**
+     * Finds which player shot a player missile.
+     * @param missiles EntityStore holding the missiles
+     * @param i Integer slot of a missile shot by a player
+     * @return Integer index of the player, 0 or 1
+     */
+    public static int getPlayer(EntityStore missiles, int i) {
+        return missiles.state[i] == FROM_SECOND_PLAYER ? 1 : 0;
+    }
+
+    /**
+     * Checks whether the missile has left the playfield.
+     * @param missiles EntityStore holding the missiles
+     * @param i Integer slot of the missile
+     * @param fieldWidth Double value of the playfield's width
+     * @param fieldHeight Double value of the playfield's height
+     * @return boolean that is true once no part of the missile is on screen
+     */
+    public static boolean isOffScreen(EntityStore missiles, int i, double fieldWidth, double fieldHeight) {
+        double x = missiles.x[i];
+        double y = missiles.y[i];
+        return y + HEIGHT < 0 || y > fieldHeight
+                || x + WIDTH < 0 || x > fieldWidth;
+    }
+}
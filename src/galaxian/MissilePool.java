@@ -0,0 +1,175 @@
+package galaxian;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bounded pool of missiles. Missiles live in the slots of an EntityStore that
+ * never grows past the pool's capacity; a missile that hits something or
+ * leaves the playfield gives its slot back, so firing does not allocate once
+ * the store has grown to its working size. Keeps counters of how the pool is used.
+ */
+public class MissilePool {
+    public static final int DEFAULT_CAPACITY = 512;
+
+    private final EntityStore missiles;
+    private int highWaterMark;
+    private long hits;
+    private long misses;
+    private long dropped;
+
+    /**
+     * Creates an empty pool.
+     * @param capacity Integer value of the most missiles that can be in flight at once
+     */
+    public MissilePool(int capacity) {
+        this.missiles = new EntityStore(Missile.WIDTH, Missile.HEIGHT, capacity);
+    }
+
+    /**
+     * Takes a missile slot out of the pool and fires it from its starting position.
+     * @param startX Double value of the horizontal centre of the missile's starting position
+     * @param startY Double value of the bottom of the missile's starting position
+     * @param directionX Double value that tells the missile if it is travelling right or left
+     * @param directionY Double value that tells the missile if it is travelling up or down
+     * @param speed Double value of the missile's speed in pixels per tick
+     * @param shooter Byte value of who fired the missile: Missile.FROM_PLAYER,
+     *                FROM_SECOND_PLAYER or FROM_ENEMY
+     * @return Integer slot of the missile, or -1 if every missile is already in flight
+     */
+    public int acquire(double startX, double startY, double directionX, double directionY,
+                       double speed, byte shooter) {
+        int i = missiles.add(startX - Missile.WIDTH / 2, startY - Missile.HEIGHT, shooter, 0, 0);
+        if (i < 0) {
+            dropped++;
+            return -1;
+        }
+        missiles.vx[i] = directionX * speed;
+        missiles.vy[i] = directionY * speed;
+        highWaterMark = Math.max(highWaterMark, missiles.getCount());
+        return i;
+    }
+
+    /**
+     * Retires a missile. Its slot is freed by the next call to compact, so
+     * slots stay valid for the rest of the tick. Releasing a missile twice does
+     * nothing, so a missile that hits two enemies in the same tick is only counted once.
+     * @param i Integer slot of the missile
+     * @param hit boolean that is true if the missile hit something, false if it left the playfield
+     */
+    public void release(int i, boolean hit) {
+        if (missiles.isDead(i)) {
+            return;
+        }
+        missiles.destroy(i);
+        if (hit) {
+            hits++;
+        } else {
+            misses++;
+        }
+    }
+
+    /**
+     * Gets the number of bytes save writes.
+     * @return Integer size of the pool's saved form
+     */
+    public int getSaveSize() {
+        return 4 * Long.BYTES + missiles.getSaveSize();
+    }
+
+    /**
+     * Writes the pool's counters and every missile in flight.
+     * @param out ByteBuffer with getSaveSize bytes left
+     */
+    public void save(ByteBuffer out) {
+        out.putInt(highWaterMark);
+        out.putInt(0);
+        out.putLong(hits);
+        out.putLong(misses);
+        out.putLong(dropped);
+        missiles.save(out);
+    }
+
+    /**
+     * Replaces the pool's counters and missiles with ones written by save.
+     * @param in ByteBuffer to read from
+     */
+    public void load(ByteBuffer in) {
+        highWaterMark = in.getInt();
+        in.getInt();
+        hits = in.getLong();
+        misses = in.getLong();
+        dropped = in.getLong();
+        missiles.load(in);
+    }
+
+    /**
+     * Frees the slots of every missile released since the last call.
+     */
+    public void compact() {
+        missiles.applyDestroys();
+    }
+
+    /**
+     * Gets the store holding the missiles in flight.
+     * @return EntityStore of missiles
+     */
+    public EntityStore getStore() {
+        return missiles;
+    }
+
+    /**
+     * Gets the most missiles the pool will hand out at once.
+     * @return Integer capacity of the pool
+     */
+    public int getCapacity() {
+        return missiles.getMaxCapacity();
+    }
+
+    /**
+     * Gets the number of missile slots the pool has allocated so far.
+     * @return Integer number of slots
+     */
+    public int getSize() {
+        return missiles.getCapacity();
+    }
+
+    /**
+     * Gets the number of missiles currently in flight.
+     * @return Integer number of missiles handed out and not yet freed
+     */
+    public int getInUse() {
+        return missiles.getCount();
+    }
+
+    /**
+     * Gets the most missiles that have been in flight at the same time.
+     * @return Integer high-water mark of missiles in use
+     */
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Gets the number of missiles retired because they hit something.
+     * @return Long count of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of missiles retired because they left the playfield.
+     * @return Long count of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of shots that were not fired because the pool was empty.
+     * @return Long count of dropped shots
+     */
+    public long getDropped() {
+        return dropped;
+    }
+}
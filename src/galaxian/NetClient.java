@@ -0,0 +1,299 @@
+package galaxian;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thin client for a NetServer. It runs no simulation: it decodes the
+ * snapshots the server sends, keeping the last few as baselines for the
+ * deltas that follow, and sends the player's input back once per tick along
+ * with the newest state it has. Snapshots that arrive late, twice or out of
+ * order are dropped, as are ones whose baseline is gone or whose hash does
+ * not match; the server keeps encoding against the last state the client
+ * acknowledged, so the client catches up with the next snapshot that gets
+ * through. Every snapshot names the player the client controls, which is
+ * the second one when it joined a two-player session after another client.
+ * With the autopilot on, the client steers and fires by itself,
+ * which is how NetRunner drives it. Without it, the keys come from
+ * setKeyHeld, and every state decoded is published as a GameSnapshot
+ * through a SnapshotExchange for the JavaFX thread to draw, as Main does
+ * with {@code --connect}.
+ */
+public class NetClient implements Runnable {
+    private static final int HISTORY = 64;
+    private static final long POLL_NANOS = 1_000_000L;
+    private static final int FIRE_INTERVAL = GameClock.TICKS_PER_SECOND / 2;
+
+    private final DatagramChannel channel;
+    private final NetShim shim;
+    private final boolean autopilot;
+    private final NetState[] states = new NetState[HISTORY];
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(NetServer.MAX_DATAGRAM);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(64);
+    private final AtomicInteger heldKeys = new AtomicInteger();
+    private final AtomicInteger fireCount = new AtomicInteger();
+    private final SnapshotExchange exchange;
+    private final Thread thread;
+    private volatile boolean running;
+    private NetState scratch = new NetState();
+    private NetState latest;
+    private int player;
+    private int next;
+    private long inputSequence;
+    private long lastInputTime;
+    private long lastFireSequence;
+    private long decoded;
+    private long stale;
+    private long missingBaseline;
+    private long corrupt;
+    private long bytesReceived;
+
+    /**
+     * Opens a socket to the server. Nothing is sent until start is called.
+     * @param server InetSocketAddress of the server
+     * @param shim NetShim that outgoing datagrams go through
+     * @param autopilot boolean that is true to steer and fire automatically
+     * @throws IOException if the socket can't be opened
+     */
+    public NetClient(InetSocketAddress server, NetShim shim, boolean autopilot) throws IOException {
+        this.shim = shim;
+        this.autopilot = autopilot;
+        channel = DatagramChannel.open();
+        channel.connect(server);
+        channel.configureBlocking(false);
+        exchange = autopilot ? null : new SnapshotExchange(GameManager.MAX_ENEMIES);
+        thread = new Thread(this, "net-client");
+    }
+
+    /**
+     * Starts talking to the server on the client's own thread.
+     */
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the client, waits for its thread to finish and closes the socket.
+     * The statistics and the latest state can be read afterwards.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Could not close the client socket: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Receives snapshots and sends input once per tick until the client is stopped.
+     */
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                receive();
+                long now = System.nanoTime();
+                if (now - lastInputTime >= GameClock.NANOS_PER_TICK) {
+                    lastInputTime = now;
+                    sendInput();
+                }
+                shim.flush(channel);
+                LockSupport.parkNanos(POLL_NANOS);
+            }
+        } catch (IOException e) {
+            System.err.println("Client stopped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles every datagram waiting on the socket.
+     * @throws IOException if the socket fails
+     */
+    private void receive() throws IOException {
+        while (true) {
+            receiveBuffer.clear();
+            try {
+                if (channel.receive(receiveBuffer) == null) {
+                    return;
+                }
+            } catch (PortUnreachableException e) {
+                // The server isn't up yet; the next input will try again.
+                return;
+            }
+            receiveBuffer.flip();
+            bytesReceived += receiveBuffer.remaining();
+            handleSnapshot(receiveBuffer);
+        }
+    }
+
+    /**
+     * Decodes a snapshot into the scratch state and, if it decodes cleanly,
+     * makes it the latest state.
+     * @param in ByteBuffer holding the datagram
+     */
+    private void handleSnapshot(ByteBuffer in) {
+        try {
+            if (in.get() != NetServer.SNAPSHOT) {
+                corrupt++;
+                return;
+            }
+            int snapshotPlayer = in.get();
+            if (snapshotPlayer < 0 || snapshotPlayer >= GameManager.MAX_PLAYERS) {
+                corrupt++;
+                return;
+            }
+            long sequence = NetState.getVarLong(in);
+            long baseGap = NetState.getVarLong(in);
+            if (latest != null && sequence <= latest.getSequence()) {
+                stale++;
+                return;
+            }
+            NetState base = null;
+            if (baseGap != 0) {
+                base = find(sequence - (baseGap - 1));
+                if (base == null) {
+                    missingBaseline++;
+                    return;
+                }
+            }
+            scratch.decode(sequence, base, in);
+            if (snapshotPlayer >= scratch.getPlayerCount()) {
+                corrupt++;
+                return;
+            }
+            player = snapshotPlayer;
+        } catch (RuntimeException e) {
+            corrupt++;
+            return;
+        }
+
+        // The oldest state makes way; its buffers are reused for the next decode.
+        NetState oldest = states[next];
+        states[next] = scratch;
+        latest = scratch;
+        scratch = oldest != null ? oldest : new NetState();
+        next = (next + 1) % HISTORY;
+        decoded++;
+        if (autopilot) {
+            steer(latest);
+        } else {
+            exchange.getBack().capture(latest, player);
+            exchange.publish();
+        }
+    }
+
+    /**
+     * Finds a decoded state by its sequence.
+     * @param sequence Long value of the state's sequence
+     * @return NetState with that sequence, or null if it is no longer kept
+     */
+    private NetState find(long sequence) {
+        for (NetState state : states) {
+            if (state != null && state.getSequence() == sequence) {
+                return state;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sweeps the client's player from side to side and fires at a fixed
+     * interval, like the autopilot of ParallelRunner.
+     * @param state NetState that was just received
+     */
+    private void steer(NetState state) {
+        double x = state.getPlayerX(player);
+        int held = heldKeys.get();
+        if (x <= 0 || held == 0) {
+            held = SimulationThread.RIGHT;
+        } else if (x >= GameManager.SCREEN_WIDTH - Player.WIDTH) {
+            held = SimulationThread.LEFT;
+        }
+        heldKeys.set(held);
+        if (state.getSequence() - lastFireSequence >= FIRE_INTERVAL) {
+            lastFireSequence = state.getSequence();
+            fireCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Sends the keys held down, the number of presses of the fire key and
+     * the sequence of the newest state received.
+     * @throws IOException if the socket fails
+     */
+    private void sendInput() throws IOException {
+        sendBuffer.clear();
+        sendBuffer.put(NetServer.INPUT);
+        NetState.putVarLong(sendBuffer, ++inputSequence);
+        NetState.putVarLong(sendBuffer, latest == null ? 0 : latest.getSequence() + 1);
+        sendBuffer.put((byte) heldKeys.get());
+        NetState.putVarLong(sendBuffer, fireCount.get() & 0xFFFFFFFFL);
+        sendBuffer.flip();
+        try {
+            shim.send(channel, sendBuffer, null);
+        } catch (PortUnreachableException e) {
+            // The server isn't up yet; try again next tick.
+        }
+    }
+
+    /**
+     * Holds a key down or lets it go. Presses of the fire key are also
+     * counted, so a tap shorter than the time between two inputs still
+     * shoots. Called from any thread.
+     * @param key Integer key, SimulationThread.LEFT, RIGHT or FIRE
+     * @param held boolean that is true if the key went down
+     */
+    public void setKeyHeld(int key, boolean held) {
+        if (key == SimulationThread.FIRE && held) {
+            fireCount.incrementAndGet();
+        }
+        if (held) {
+            heldKeys.accumulateAndGet(key, (keys, bit) -> keys | bit);
+        } else {
+            heldKeys.accumulateAndGet(key, (keys, bit) -> keys & ~bit);
+        }
+    }
+
+    /**
+     * Gets the newest state received as a snapshot. Only for a client
+     * without the autopilot; called from the JavaFX thread.
+     * @return GameSnapshot to draw, unchanged until the next call
+     */
+    public GameSnapshot getSnapshot() {
+        return exchange.read();
+    }
+
+    /**
+     * Gets the newest state received. Only safe to call once the client has stopped.
+     * @return NetState of the game, or null if nothing has been received
+     */
+    public NetState getLatest() {
+        return latest;
+    }
+
+    /**
+     * Prints how many snapshots were decoded and why the others were dropped,
+     * and where the client's player stood in the last state.
+     * @param name String naming the client in the output
+     */
+    public void printReport(String name) {
+        System.out.printf("%s: %d snapshots decoded (%d stale, %d without baseline, %d corrupt), "
+                        + "%d bytes received, %d dropped by the shim; at tick %d as player %d of %d "
+                        + "with score %d, %d lives%s%n",
+                name, decoded, stale, missingBaseline, corrupt, bytesReceived, shim.getDropped(),
+                latest == null ? 0 : latest.getSequence(), player + 1, latest == null ? 0 : latest.getPlayerCount(),
+                latest == null ? 0 : latest.getScore(player), latest == null ? 0 : latest.getLives(player),
+                latest != null && latest.isGameOver() ? ", game over" : "");
+    }
+}
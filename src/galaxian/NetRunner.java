@@ -0,0 +1,179 @@
+package galaxian;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Plays networked games entirely over localhost: starts a NetServer and a
+ * number of autopiloted NetClients in one process, lets them run for a while
+ * through a loss and latency shim, and prints what the server sent and what
+ * the clients made of it. Takes {@code --key=value} settings: sessions
+ * (defaults to 2), players per session (1 or 2, defaults to 1), seconds
+ * (defaults to 10), seed, sendInterval, loss, latency and jitter, and the
+ * stress settings, whose duration is ignored. One client is started for
+ * every player of every session.
+ * <p>
+ * With {@code --verify}, it checks the delta encoding instead, without
+ * sockets: a game is played for a number of ticks (defaults to 20000), each
+ * tick's state is encoded against the newest state the simulated client has
+ * acknowledged, and the snapshots and acknowledgements are lost at the
+ * given loss rate (defaults to 0.05). Every snapshot that gets through must
+ * decode to exactly the state the server kept, and be within the encoder's
+ * tolerance of the game itself. With two players, the second one sweeps
+ * the other way. Exits with status 1 if any is not.
+ */
+public class NetRunner {
+    private static final int HISTORY = 64;
+    private static final int FIRE_INTERVAL = GameClock.TICKS_PER_SECOND / 4;
+
+    /**
+     * Runs the server and its clients.
+     * @param args Settings as {@code --key=value} arguments
+     * @throws IOException if a socket can't be opened
+     * @throws InterruptedException if the main thread is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> named = StressConfig.parseArguments(args);
+        if (named.containsKey("verify")) {
+            System.exit(verify(named) ? 0 : 1);
+        }
+        int sessions = Integer.parseInt(named.getOrDefault("sessions", "2"));
+        int players = Integer.parseInt(named.getOrDefault("players", "1"));
+        double seconds = Double.parseDouble(named.getOrDefault("seconds", "10"));
+        long seed = Long.parseLong(named.getOrDefault("seed", "1"));
+        StressConfig stress = StressConfig.isRequested(named) ? StressConfig.from(named) : null;
+
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        NetServer server = new NetServer(new InetSocketAddress(loopback, 0), seed, stress,
+                Integer.parseInt(named.getOrDefault("sendInterval", "2")), sessions, players,
+                NetShim.fromArguments(named, seed));
+        InetSocketAddress address = new InetSocketAddress(loopback, server.getPort());
+        NetClient[] clients = new NetClient[sessions * players];
+        for (int c = 0; c < clients.length; c++) {
+            clients[c] = new NetClient(address, NetShim.fromArguments(named, seed + 1 + c), true);
+        }
+
+        System.out.printf("%d sessions of %d players for %.1f s, loss %s, latency %s ms, jitter %s ms%s%n",
+                sessions, players, seconds, named.getOrDefault("loss", "0"), named.getOrDefault("latency", "0"),
+                named.getOrDefault("jitter", "0"), stress != null ? ", stress: " + stress : "");
+        long start = System.nanoTime();
+        server.start();
+        for (NetClient client : clients) {
+            client.start();
+        }
+        Thread.sleep(Math.round(seconds * 1000));
+        for (NetClient client : clients) {
+            client.stop();
+        }
+        server.stop();
+
+        server.printReport(System.nanoTime() - start);
+        for (int c = 0; c < clients.length; c++) {
+            clients[c].printReport("Client " + c);
+        }
+    }
+
+    /**
+     * Plays a game and sends every tick's state through the delta encoding
+     * to a simulated client over a lossy link, checking each state decoded.
+     * @param named Map of argument names to values
+     * @return boolean that is true if every state decoded as it should
+     * @throws IOException if the stress settings file can't be read
+     */
+    private static boolean verify(Map<String, String> named) throws IOException {
+        long ticks = Long.parseLong(named.getOrDefault("ticks", "20000"));
+        double loss = Double.parseDouble(named.getOrDefault("loss", "0.05"));
+        long seed = Long.parseLong(named.getOrDefault("seed", "1"));
+        StressDriver stress = StressConfig.isRequested(named) ? new StressDriver(StressConfig.from(named)) : null;
+        GameManager gameManager = stress != null ? stress.getGameManager() : new GameManager(seed);
+        if (stress == null) {
+            gameManager.setLives(Integer.MAX_VALUE);
+            gameManager.setDiveRate(10);
+        }
+        if (named.getOrDefault("players", "1").equals("2")) {
+            gameManager.addSecondPlayer();
+        }
+        SplittableRandom link = new SplittableRandom(seed);
+
+        NetState[] sent = new NetState[HISTORY];
+        NetState[] received = new NetState[HISTORY];
+        for (int k = 0; k < HISTORY; k++) {
+            sent[k] = new NetState();
+            received[k] = new NetState();
+        }
+        NetState truth = new NetState();
+        ByteBuffer buffer = ByteBuffer.allocate(NetServer.MAX_DATAGRAM * 64);
+        long acked = -1;
+        long delivered = 0;
+        long deltas = 0;
+        long bytes = 0;
+        int direction = 1;
+        for (long t = 0; t < ticks && !gameManager.isGameOver(); t++) {
+            if (stress != null) {
+                stress.tick();
+            } else {
+                if (t % FIRE_INTERVAL == 0) {
+                    for (int p = 0; p < gameManager.getPlayerCount(); p++) {
+                        gameManager.playerShootIfReady(p);
+                    }
+                }
+                double x = gameManager.getPlayerXPosition();
+                if (x <= 0) {
+                    direction = 1;
+                } else if (x >= gameManager.getWidth() - Player.WIDTH) {
+                    direction = -1;
+                }
+                gameManager.tick(direction, -direction);
+            }
+
+            long sequence = gameManager.getTickCount();
+            int slot = (int) (sequence % HISTORY);
+            boolean hasBase = acked >= 0 && sequence - acked < HISTORY;
+            int baseSlot = (int) (acked % HISTORY);
+            NetState state = sent[slot];
+            state.capture(gameManager);
+            truth.capture(gameManager);
+            buffer.clear();
+            state.encode(hasBase ? sent[baseSlot] : null, buffer);
+            buffer.flip();
+            bytes += buffer.remaining();
+            if (link.nextDouble() < loss) {
+                continue;
+            }
+
+            NetState decoded = received[slot];
+            try {
+                decoded.decode(sequence, hasBase ? received[baseSlot] : null, buffer);
+            } catch (RuntimeException e) {
+                System.err.println("Tick " + sequence + " did not decode: " + e.getMessage());
+                return false;
+            }
+            if (decoded.difference(state, false) != 0 || decoded.difference(state, true) != 0) {
+                System.err.println("Tick " + sequence + " decoded to a different state than was sent");
+                return false;
+            }
+            if (decoded.difference(truth, false) > NetState.getTolerance(false)
+                    || decoded.difference(truth, true) > NetState.getTolerance(true)) {
+                System.err.println("Tick " + sequence + " is further from the game than the tolerance allows");
+                return false;
+            }
+            delivered++;
+            if (hasBase) {
+                deltas++;
+            }
+            if (link.nextDouble() >= loss) {
+                acked = sequence;
+            }
+        }
+        System.out.printf("Verified %d ticks: %d states decoded (%d as deltas), %d lost, %.1f bytes/tick, "
+                        + "%d enemies and %d missiles at the end%n",
+                gameManager.getTickCount(), delivered, deltas, gameManager.getTickCount() - delivered,
+                (double) bytes / Math.max(gameManager.getTickCount(), 1),
+                gameManager.getEnemies().getCount(), gameManager.getMissiles().getCount());
+        return true;
+    }
+}
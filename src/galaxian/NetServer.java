@@ -0,0 +1,488 @@
+package galaxian;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Authoritative game server for networked play over UDP. A session is one
+ * game with one or two players, and all sessions are stepped on one thread
+ * at the game clock's fixed rate. With one player per session, every client
+ * that sends input gets a game of its own, which is how one process serves
+ * many games at once. With two, a new client takes the second player of the
+ * newest session that is still waiting for one, or opens a session and
+ * waits as its first player; the game starts once both have joined, and
+ * both clients see the same game. Every few ticks the session's state is
+ * sent to each of its clients as a NetState delta against the newest state
+ * that client has acknowledged, or in full if there is none, so each client
+ * keeps a history of its own.
+ * <p>
+ * Datagrams start with a type byte. A snapshot carries the index of the
+ * player the receiving client controls, the state's sequence (the game's
+ * tick count), one plus the number of ticks back to its baseline (0 when
+ * there is none), and the encoded state. An input carries
+ * the client's input sequence, one plus the sequence of the newest state it
+ * has (0 when it has none), the keys held down, and the number of times
+ * the fire key has been pressed so far. Input is sent as state rather than as
+ * events, so a lost datagram is made up for by the next one.
+ */
+public class NetServer implements Runnable {
+    public static final byte SNAPSHOT = 1;
+    public static final byte INPUT = 2;
+    public static final int MAX_DATAGRAM = 65507;
+    private static final int HISTORY = 64;
+    private static final long SESSION_TIMEOUT_NANOS = 5_000_000_000L;
+    private static final long POLL_NANOS = 1_000_000L;
+
+    private final DatagramChannel channel;
+    private final NetShim shim;
+    private final long seed;
+    private final StressConfig stress;
+    private final int sendInterval;
+    private final int maxSessions;
+    private final int playersPerSession;
+    private final Map<SocketAddress, Client> clientsByAddress = new HashMap<>();
+    private final List<Session> sessions = new ArrayList<>();
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+    private final GameClock clock = new GameClock();
+    private final Thread thread;
+    private final RingHistogram snapshotSizes = new RingHistogram(1 << 16);
+    private volatile boolean running;
+    private long tickCount;
+    private long sessionTicks;
+    private long sessionsOpened;
+    private long snapshotsSent;
+    private long fullSnapshots;
+    private long oversized;
+    private long bytesSent;
+    private long malformed;
+    private long busyNanos;
+
+    /**
+     * Opens the server's socket. Nothing runs until start is called.
+     * @param address InetSocketAddress to listen on; port 0 picks a free port
+     * @param seed Long value of the first session's seed; each later session gets the next one
+     * @param stress StressConfig that the sessions' games are made from, or null for normal games
+     * @param sendInterval Integer number of ticks between two snapshots of a session
+     * @param maxSessions Integer value of the most sessions served at once
+     * @param playersPerSession Integer number of clients that share each game, 1 or 2
+     * @param shim NetShim that outgoing datagrams go through
+     * @throws IOException if the socket can't be opened
+     * @throws IllegalArgumentException if playersPerSession is not 1 or 2
+     */
+    public NetServer(InetSocketAddress address, long seed, StressConfig stress, int sendInterval,
+                     int maxSessions, int playersPerSession, NetShim shim) throws IOException {
+        if (playersPerSession < 1 || playersPerSession > GameManager.MAX_PLAYERS) {
+            throw new IllegalArgumentException("A session has 1 or " + GameManager.MAX_PLAYERS
+                    + " players, not " + playersPerSession);
+        }
+        this.seed = seed;
+        this.stress = stress;
+        this.sendInterval = sendInterval;
+        this.maxSessions = maxSessions;
+        this.playersPerSession = playersPerSession;
+        this.shim = shim;
+        channel = DatagramChannel.open();
+        channel.bind(address);
+        channel.configureBlocking(false);
+        thread = new Thread(this, "net-server");
+    }
+
+    /**
+     * Runs a server until the process is stopped, printing its statistics every ten seconds.
+     * @param args Settings as {@code --key=value} arguments: port (defaults to 7777), seed,
+     *             sendInterval, sessions, players (1 or 2, defaults to 1), loss,
+     *             latency and jitter, and the stress settings
+     * @throws IOException if the socket can't be opened
+     * @throws InterruptedException if the main thread is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> named = StressConfig.parseArguments(args);
+        long seed = Long.parseLong(named.getOrDefault("seed", "1"));
+        NetServer server = new NetServer(new InetSocketAddress(Integer.parseInt(named.getOrDefault("port", "7777"))),
+                seed, StressConfig.isRequested(named) ? StressConfig.from(named) : null,
+                Integer.parseInt(named.getOrDefault("sendInterval", "2")),
+                Integer.parseInt(named.getOrDefault("sessions", "8")),
+                Integer.parseInt(named.getOrDefault("players", "1")), NetShim.fromArguments(named, seed));
+        System.out.println("Listening on port " + server.getPort());
+        server.start();
+        long start = System.nanoTime();
+        while (true) {
+            Thread.sleep(10_000);
+            server.printReport(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Starts serving on the server's own thread.
+     */
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the server, waits for its thread to finish and closes the socket.
+     * The statistics can be read afterwards.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Could not close the server socket: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Receives input, runs the ticks that are due for every session and
+     * sends the snapshots, until the server is stopped.
+     */
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                receive(now);
+                int ticks = clock.advance(now);
+                for (int t = 0; t < ticks; t++) {
+                    tickCount++;
+                    for (int s = 0; s < sessions.size(); s++) {
+                        step(sessions.get(s));
+                    }
+                }
+                busyNanos += System.nanoTime() - now;
+                shim.flush(channel);
+                expire(now);
+                LockSupport.parkNanos(Math.min(clock.getNanosUntilNextTick(), POLL_NANOS));
+            }
+        } catch (IOException e) {
+            System.err.println("Server stopped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles every datagram waiting on the socket.
+     * @param now Long value of the current time in nanoseconds
+     * @throws IOException if the socket fails
+     */
+    private void receive(long now) throws IOException {
+        while (true) {
+            receiveBuffer.clear();
+            SocketAddress from = channel.receive(receiveBuffer);
+            if (from == null) {
+                return;
+            }
+            receiveBuffer.flip();
+            try {
+                handleInput(from, receiveBuffer, now);
+            } catch (RuntimeException e) {
+                malformed++;
+            }
+        }
+    }
+
+    /**
+     * Applies an input datagram to its client's player, seating a new client
+     * in a session first. Inputs older than the newest one received are ignored.
+     * @param from SocketAddress of the client
+     * @param in ByteBuffer holding the datagram
+     * @param now Long value of the current time in nanoseconds
+     */
+    private void handleInput(SocketAddress from, ByteBuffer in, long now) {
+        if (in.get() != INPUT) {
+            malformed++;
+            return;
+        }
+        long inputSequence = NetState.getVarLong(in);
+        long ack = NetState.getVarLong(in) - 1;
+        int held = in.get() & (SimulationThread.LEFT | SimulationThread.RIGHT | SimulationThread.FIRE);
+        int fireCount = (int) NetState.getVarLong(in);
+
+        Client client = clientsByAddress.get(from);
+        if (client == null) {
+            client = seat(from);
+            if (client == null) {
+                return;
+            }
+            client.fireCount = fireCount;
+        }
+        if (inputSequence <= client.inputSequence) {
+            return;
+        }
+        client.inputSequence = inputSequence;
+        client.lastHeard = now;
+        client.ackedSequence = Math.max(client.ackedSequence, ack);
+        client.heldKeys = held;
+        if (fireCount - client.fireCount > 0) {
+            client.pendingFire = true;
+        }
+        client.fireCount = fireCount;
+    }
+
+    /**
+     * Gives a new client the next free player of a session that has not
+     * started yet, opening a new session if none is waiting.
+     * @param address SocketAddress of the client
+     * @return Client seated in a session, or null if every session is taken
+     */
+    private Client seat(SocketAddress address) {
+        Session session = null;
+        for (int s = sessions.size() - 1; s >= 0 && session == null; s--) {
+            if (!sessions.get(s).started) {
+                session = sessions.get(s);
+            }
+        }
+        if (session == null) {
+            if (sessions.size() >= maxSessions) {
+                return null;
+            }
+            session = new Session(seed + sessionsOpened++, stress, playersPerSession);
+            sessions.add(session);
+        }
+        int player = 0;
+        while (session.clients[player] != null) {
+            player++;
+        }
+        Client client = new Client(address, session, player);
+        session.clients[player] = client;
+        session.started = player == session.clients.length - 1;
+        clientsByAddress.put(address, client);
+        return client;
+    }
+
+    /**
+     * Runs one tick of a session once all its players have joined, and sends
+     * its snapshot to each client when one is due. Until then the game stands
+     * still, but its state is still sent, so the first player sees the
+     * playfield while waiting. A session whose game is over keeps sending its
+     * last state until its clients go away, so they learn of the end even if
+     * a datagram is lost.
+     * @param session Session to step
+     * @throws IOException if the socket fails
+     */
+    private void step(Session session) throws IOException {
+        GameManager gameManager = session.gameManager;
+        if (session.started && !gameManager.isGameOver()) {
+            if (session.stress != null) {
+                session.stress.beforeTick();
+            }
+            for (Client client : session.clients) {
+                if (client != null && (client.pendingFire || (client.heldKeys & SimulationThread.FIRE) != 0)) {
+                    gameManager.playerShootIfReady(client.player);
+                }
+            }
+            gameManager.tick(direction(session.clients[0]),
+                    session.clients.length > 1 ? direction(session.clients[1]) : 0);
+            sessionTicks++;
+        }
+        for (Client client : session.clients) {
+            if (client != null) {
+                client.pendingFire = false;
+            }
+        }
+        if (tickCount % sendInterval == 0) {
+            for (Client client : session.clients) {
+                if (client != null) {
+                    sendSnapshot(client);
+                }
+            }
+        }
+    }
+
+    /**
+     * Works out which way a client wants its player to move.
+     * @param client Client whose keys to read, or null if the player's client has gone
+     * @return Integer direction, -1, 0 or 1
+     */
+    private static int direction(Client client) {
+        if (client == null) {
+            return 0;
+        }
+        int held = client.heldKeys;
+        return ((held & SimulationThread.RIGHT) != 0 ? 1 : 0) - ((held & SimulationThread.LEFT) != 0 ? 1 : 0);
+    }
+
+    /**
+     * Captures a session's state and sends it to one of its clients,
+     * encoded against the newest state that client has acknowledged if that
+     * is still in its history.
+     * @param client Client to send to
+     * @throws IOException if the socket fails
+     */
+    private void sendSnapshot(Client client) throws IOException {
+        int slot = client.historyNext;
+        NetState base = client.find(client.ackedSequence, slot);
+        NetState state = client.history[slot];
+        if (state == null) {
+            state = new NetState();
+            client.history[slot] = state;
+        }
+        state.capture(client.session.gameManager);
+
+        sendBuffer.clear();
+        try {
+            sendBuffer.put(SNAPSHOT);
+            sendBuffer.put((byte) client.player);
+            NetState.putVarLong(sendBuffer, state.getSequence());
+            NetState.putVarLong(sendBuffer, base == null ? 0 : state.getSequence() - base.getSequence() + 1);
+            state.encode(base, sendBuffer);
+        } catch (BufferOverflowException e) {
+            oversized++;
+            return;
+        }
+        sendBuffer.flip();
+        int size = sendBuffer.remaining();
+        shim.send(channel, sendBuffer, client.address);
+        client.historyNext = (slot + 1) % HISTORY;
+
+        snapshotsSent++;
+        bytesSent += size;
+        snapshotSizes.record(size);
+        if (base == null) {
+            fullSnapshots++;
+        }
+    }
+
+    /**
+     * Drops the clients that have not been heard from for a while, and
+     * closes the sessions that have none left. The player of a client that
+     * went away stands still for the rest of the game.
+     * @param now Long value of the current time in nanoseconds
+     */
+    private void expire(long now) {
+        for (int s = sessions.size() - 1; s >= 0; s--) {
+            Session session = sessions.get(s);
+            boolean empty = true;
+            for (int p = 0; p < session.clients.length; p++) {
+                Client client = session.clients[p];
+                if (client != null && now - client.lastHeard > SESSION_TIMEOUT_NANOS) {
+                    clientsByAddress.remove(client.address);
+                    session.clients[p] = null;
+                    client = null;
+                }
+                empty &= client == null;
+            }
+            if (empty) {
+                sessions.remove(s);
+            }
+        }
+    }
+
+    /**
+     * Gets the port the server listens on.
+     * @return Integer port number
+     * @throws IOException if the socket is closed
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Prints the tick rate, how much of one core the ticks took, and how
+     * many bytes the snapshots cost per tick.
+     * @param elapsedNanos Long value of the wall-clock time the server has run
+     */
+    public void printReport(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        double busySeconds = busyNanos / 1e9;
+        System.out.printf("Server: %d sessions opened, %d session ticks in %.2f s (%.0f ticks/s), "
+                        + "busy %.1f%% of one core (%.0f session ticks/s at full load)%n",
+                sessionsOpened, sessionTicks, seconds, sessionTicks / seconds,
+                100 * busySeconds / seconds, sessionTicks / Math.max(busySeconds, 1e-9));
+        snapshotSizes.snapshot();
+        System.out.printf("Snapshots: %d sent (%d full, %d too big for a datagram), %.1f bytes/tick per session, "
+                        + "size p50 %d p99 %d max %d bytes; %d dropped by the shim, %d malformed inputs%n",
+                snapshotsSent, fullSnapshots, oversized, (double) bytesSent / Math.max(sessionTicks, 1),
+                snapshotSizes.percentile(50), snapshotSizes.percentile(99), snapshotSizes.max(),
+                shim.getDropped(), malformed);
+    }
+
+    /**
+     * One game and the clients playing it, one per player.
+     */
+    private static final class Session {
+        private final GameManager gameManager;
+        private final StressDriver stress;
+        private final Client[] clients;
+        // Set once every player has had a client; a player whose client leaves stays empty.
+        private boolean started;
+
+        /**
+         * Creates a session with a new game.
+         * @param seed Long value of the game's seed
+         * @param config StressConfig that the game is made from, or null for a normal game
+         * @param players Integer number of players, 1 or 2
+         */
+        private Session(long seed, StressConfig config, int players) {
+            if (config != null) {
+                stress = new StressDriver(config.withSeed(seed));
+                gameManager = stress.getGameManager();
+            } else {
+                stress = null;
+                gameManager = new GameManager(seed);
+            }
+            if (players > 1) {
+                gameManager.addSecondPlayer();
+            }
+            clients = new Client[players];
+        }
+    }
+
+    /**
+     * One client's player, its input, and the states recently sent to it.
+     */
+    private static final class Client {
+        private final SocketAddress address;
+        private final Session session;
+        private final int player;
+        private final NetState[] history = new NetState[HISTORY];
+        private int historyNext;
+        private long ackedSequence = -1;
+        private long inputSequence;
+        private int heldKeys;
+        private int fireCount;
+        private boolean pendingFire;
+        private long lastHeard;
+
+        /**
+         * Creates a client playing one of a session's players.
+         * @param address SocketAddress of the client
+         * @param session Session the client plays in
+         * @param player Integer index of the player it controls
+         */
+        private Client(SocketAddress address, Session session, int player) {
+            this.address = address;
+            this.session = session;
+            this.player = player;
+        }
+
+        /**
+         * Finds a state in the history.
+         * @param sequence Long value of the state's sequence
+         * @param skip Integer slot to leave out, because it is about to be overwritten
+         * @return NetState with that sequence, or null if it is no longer kept
+         */
+        private NetState find(long sequence, int skip) {
+            for (int k = 0; k < HISTORY; k++) {
+                if (k != skip && history[k] != null && history[k].getSequence() == sequence) {
+                    return history[k];
+                }
+            }
+            return null;
+        }
+    }
+}
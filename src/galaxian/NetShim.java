@@ -0,0 +1,147 @@
+package galaxian;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Stands between a sender and its datagram channel and makes localhost
+ * behave like a real network: each datagram is dropped with a fixed
+ * probability, and the rest are held back for a fixed latency plus a random
+ * jitter, which also reorders them. Delayed datagrams are sent by flush,
+ * which the sender calls from its loop. With no loss and no latency,
+ * datagrams go straight through. The random numbers come from a seed, so a
+ * run can be repeated.
+ */
+public class NetShim {
+    private final double loss;
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final SplittableRandom random;
+    private final PriorityQueue<Delayed> delayed = new PriorityQueue<>();
+    private final ArrayDeque<Delayed> spare = new ArrayDeque<>();
+    private long queued;
+    private long dropped;
+
+    /**
+     * Creates a shim.
+     * @param loss Double value of the probability that a datagram is dropped
+     * @param latencyMillis Double value of the delay every datagram gets, in milliseconds
+     * @param jitterMillis Double value of the most extra delay a datagram gets, in milliseconds
+     * @param seed Long value of the seed for the drops and the jitter
+     */
+    public NetShim(double loss, double latencyMillis, double jitterMillis, long seed) {
+        this.loss = loss;
+        latencyNanos = Math.round(latencyMillis * 1e6);
+        jitterNanos = Math.round(jitterMillis * 1e6);
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Creates a shim from the {@code loss}, {@code latency} and {@code jitter}
+     * arguments, with the times in milliseconds. Missing ones default to 0.
+     * @param named Map of argument names to values
+     * @param seed Long value of the seed for the drops and the jitter
+     * @return NetShim with the given settings
+     */
+    public static NetShim fromArguments(Map<String, String> named, long seed) {
+        return new NetShim(Double.parseDouble(named.getOrDefault("loss", "0")),
+                Double.parseDouble(named.getOrDefault("latency", "0")),
+                Double.parseDouble(named.getOrDefault("jitter", "0")), seed);
+    }
+
+    /**
+     * Sends a datagram through the shim.
+     * @param channel DatagramChannel to send on
+     * @param data ByteBuffer holding the datagram between its position and limit
+     * @param target SocketAddress to send to, or null if the channel is connected
+     * @throws IOException if the channel fails
+     */
+    public void send(DatagramChannel channel, ByteBuffer data, SocketAddress target) throws IOException {
+        if (loss > 0 && random.nextDouble() < loss) {
+            dropped++;
+            return;
+        }
+        if (latencyNanos == 0 && jitterNanos == 0) {
+            write(channel, data, target);
+            return;
+        }
+        Delayed packet = spare.poll();
+        if (packet == null) {
+            packet = new Delayed();
+        }
+        if (packet.data == null || packet.data.capacity() < data.remaining()) {
+            packet.data = ByteBuffer.allocate(Math.max(data.remaining(), 1024));
+        }
+        packet.data.clear();
+        packet.data.put(data).flip();
+        packet.target = target;
+        packet.due = System.nanoTime() + latencyNanos + (jitterNanos > 0 ? random.nextLong(jitterNanos) : 0);
+        packet.order = queued++;
+        delayed.add(packet);
+    }
+
+    /**
+     * Sends every delayed datagram that is due.
+     * @param channel DatagramChannel to send on
+     * @throws IOException if the channel fails
+     */
+    public void flush(DatagramChannel channel) throws IOException {
+        long now = System.nanoTime();
+        while (!delayed.isEmpty() && delayed.peek().due <= now) {
+            Delayed packet = delayed.poll();
+            write(channel, packet.data, packet.target);
+            packet.target = null;
+            spare.add(packet);
+        }
+    }
+
+    /**
+     * Writes a datagram to the channel.
+     * @param channel DatagramChannel to send on
+     * @param data ByteBuffer holding the datagram
+     * @param target SocketAddress to send to, or null if the channel is connected
+     * @throws IOException if the channel fails
+     */
+    private static void write(DatagramChannel channel, ByteBuffer data, SocketAddress target) throws IOException {
+        if (target == null) {
+            channel.write(data);
+        } else {
+            channel.send(data, target);
+        }
+    }
+
+    /**
+     * Gets the number of datagrams dropped on purpose.
+     * @return Long number of dropped datagrams
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * A datagram waiting for its time. Ties are broken by the order they were sent in.
+     */
+    private static final class Delayed implements Comparable<Delayed> {
+        private ByteBuffer data;
+        private SocketAddress target;
+        private long due;
+        private long order;
+
+        /**
+         * Orders datagrams by when they are due.
+         * @param other Delayed datagram to compare with
+         * @return Integer that is negative if this one is due first
+         */
+        @Override
+        public int compareTo(Delayed other) {
+            int byTime = Long.compare(due, other.due);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+}
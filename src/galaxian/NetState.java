@@ -0,0 +1,680 @@
+package galaxian;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The state of a game at one tick as it is sent over the network, and its
+ * delta encoding. Positions are quantized to eighths of a pixel and
+ * velocities to 1/256ths of a pixel per tick, so every field is a small
+ * integer. A state is encoded against a baseline state the client is known
+ * to have: entities are matched by id, each one's position is predicted from
+ * its baseline position and velocity, and only the difference from the
+ * prediction is written, as a zigzag varint. Enemies in the formation keep
+ * their position relative to the group and missiles fly in straight lines,
+ * so most entities come out exactly as predicted and cost nothing. A
+ * difference of a unit or two is not sent at all: the encoder moves its own
+ * copy to the prediction instead, so both sides keep the same state and the
+ * error stays within that bound.
+ * <p>
+ * An encoded table is a list of entries in increasing id order, ended by a
+ * zero: the gap to the previous id plus one, a flags byte, and the fields
+ * the flags name. An entity that is new, or whose id was reused, is written
+ * in full; one that is gone is written with just the REMOVED flag. Every
+ * state ends with a hash of its contents, which the decoder checks.
+ * <p>
+ * Each player's score, lives and position are sent in full with every
+ * state, after the number of players; they are a handful of bytes.
+ */
+public class NetState {
+    static final int POSITION_SCALE = 8;
+    static final int VELOCITY_SCALE = 256;
+    // Turns velocity units times ticks into position units.
+    private static final int VELOCITY_SHIFT = 5;
+    // Differences from the prediction this small are not sent.
+    private static final int POSITION_TOLERANCE = 1;
+    private static final int VELOCITY_TOLERANCE = 2;
+    private static final NetState EMPTY = new NetState();
+
+    private static final int X = 1;
+    private static final int Y = 1 << 1;
+    private static final int VX = 1 << 2;
+    private static final int VY = 1 << 3;
+    private static final int KIND = 1 << 4;
+    private static final int REMOVED = 1 << 6;
+    private static final int NEW = 1 << 7;
+
+    private final Table enemies = new Table();
+    private final Table missiles = new Table();
+    private final int[] scores = new int[GameManager.MAX_PLAYERS];
+    private final int[] lives = new int[GameManager.MAX_PLAYERS];
+    private final int[] playerX = new int[GameManager.MAX_PLAYERS];
+    private final int[] playerY = new int[GameManager.MAX_PLAYERS];
+    private long sequence;
+    private int playerCount;
+    private int fleetsDestroyed;
+    private boolean gameOver;
+    private int formationOffsetX;
+
+    /**
+     * Quantizes the game's current state.
+     * @param gameManager Instance of game manager to copy
+     */
+    public void capture(GameManager gameManager) {
+        sequence = gameManager.getTickCount();
+        playerCount = gameManager.getPlayerCount();
+        for (int p = 0; p < playerCount; p++) {
+            Player player = gameManager.getPlayer(p);
+            scores[p] = gameManager.getScore(p);
+            lives[p] = gameManager.getLives(p);
+            playerX[p] = quantize(player.getXPosition());
+            playerY[p] = quantize(player.getYPosition());
+        }
+        fleetsDestroyed = gameManager.getFleetsDestroyed();
+        gameOver = gameManager.isGameOver();
+        formationOffsetX = quantize(gameManager.getFormation().getOffsetX());
+        enemies.capture(gameManager.getEnemies());
+        missiles.capture(gameManager.getMissiles());
+    }
+
+    /**
+     * Writes the state as a delta from a baseline.
+     * @param base NetState the receiver already has, or null to write the state in full
+     * @param out ByteBuffer to write to
+     * @throws java.nio.BufferOverflowException if the state does not fit
+     */
+    public void encode(NetState base, ByteBuffer out) {
+        NetState from = base != null ? base : EMPTY;
+        long gap = sequence - from.sequence;
+        putVarLong(out, playerCount);
+        for (int p = 0; p < playerCount; p++) {
+            putVarLong(out, scores[p]);
+            putSigned(out, lives[p]);
+            putSigned(out, playerX[p]);
+            putSigned(out, playerY[p]);
+        }
+        putVarLong(out, fleetsDestroyed);
+        out.put((byte) (gameOver ? 1 : 0));
+        putSigned(out, formationOffsetX);
+        enemies.encode(from.enemies, gap, out);
+        missiles.encode(from.missiles, gap, out);
+        out.putInt(hash());
+    }
+
+    /**
+     * Reads a state written by encode.
+     * @param stateSequence Long value of the tick the state was taken at
+     * @param base NetState the state was encoded against, or null if it was written in full
+     * @param in ByteBuffer positioned at the encoded state
+     * @throws IllegalStateException if the data does not decode to the state that was sent
+     */
+    public void decode(long stateSequence, NetState base, ByteBuffer in) {
+        NetState from = base != null ? base : EMPTY;
+        long gap = stateSequence - from.sequence;
+        sequence = stateSequence;
+        playerCount = (int) getVarLong(in);
+        if (playerCount < 1 || playerCount > GameManager.MAX_PLAYERS) {
+            throw new IllegalStateException("State " + stateSequence + " has " + playerCount + " players");
+        }
+        for (int p = 0; p < playerCount; p++) {
+            scores[p] = (int) getVarLong(in);
+            lives[p] = getSigned(in);
+            playerX[p] = getSigned(in);
+            playerY[p] = getSigned(in);
+        }
+        fleetsDestroyed = (int) getVarLong(in);
+        gameOver = in.get() != 0;
+        formationOffsetX = getSigned(in);
+        enemies.decode(from.enemies, gap, in);
+        missiles.decode(from.missiles, gap, in);
+        if (in.getInt() != hash()) {
+            throw new IllegalStateException("State " + stateSequence + " does not match its hash");
+        }
+    }
+
+    /**
+     * Hashes every field, in the order both sides keep them.
+     * @return Integer hash of the state
+     */
+    private int hash() {
+        int h = Long.hashCode(sequence);
+        h = 31 * h + playerCount;
+        for (int p = 0; p < playerCount; p++) {
+            h = 31 * h + scores[p];
+            h = 31 * h + lives[p];
+            h = 31 * h + playerX[p];
+            h = 31 * h + playerY[p];
+        }
+        h = 31 * h + fleetsDestroyed;
+        h = 31 * h + (gameOver ? 1 : 0);
+        h = 31 * h + formationOffsetX;
+        h = 31 * h + enemies.hash();
+        return 31 * h + missiles.hash();
+    }
+
+    /**
+     * Converts a coordinate to position units.
+     * @param value Double value in pixels
+     * @return Integer value in eighths of a pixel
+     */
+    static int quantize(double value) {
+        return (int) Math.round(value * POSITION_SCALE);
+    }
+
+    /**
+     * Predicts where an entity is after some ticks, moving in a straight line.
+     * Integer arithmetic, so the encoder and decoder agree exactly.
+     * @param position Integer position in position units
+     * @param velocity Integer velocity in velocity units
+     * @param ticks Long number of ticks since the position
+     * @return Integer predicted position
+     */
+    private static int predict(int position, int velocity, long ticks) {
+        return position + (int) ((velocity * ticks) >> VELOCITY_SHIFT);
+    }
+
+    /**
+     * Writes a non-negative number in seven-bit groups, low group first.
+     * @param out ByteBuffer to write to
+     * @param value Long value to write
+     */
+    static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Reads a number written by putVarLong.
+     * @param in ByteBuffer to read from
+     * @return Long value read
+     */
+    static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Varint too long");
+    }
+
+    /**
+     * Writes a number that may be negative, zigzag encoded so small
+     * magnitudes stay short.
+     * @param out ByteBuffer to write to
+     * @param value Integer value to write
+     */
+    static void putSigned(ByteBuffer out, int value) {
+        putVarLong(out, ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Reads a number written by putSigned.
+     * @param in ByteBuffer to read from
+     * @return Integer value read
+     */
+    static int getSigned(ByteBuffer in) {
+        int zigzag = (int) getVarLong(in);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * Measures how far this state is from another one. Used by NetRunner's
+     * verify mode to check that a decoded state matches the one that was sent.
+     * @param other NetState to compare with
+     * @param velocities boolean that is true to compare velocities, false to compare positions
+     * @return Integer largest difference between two matching entities, in
+     *         velocity or position units, or Integer.MAX_VALUE if the states
+     *         differ in anything else: their tick, players, scores, lives,
+     *         fleets, the game being over, or which entities there are and
+     *         their rows and states
+     */
+    int difference(NetState other, boolean velocities) {
+        if (sequence != other.sequence || playerCount != other.playerCount
+                || fleetsDestroyed != other.fleetsDestroyed || gameOver != other.gameOver) {
+            return Integer.MAX_VALUE;
+        }
+        int largest = velocities ? 0 : Math.abs(formationOffsetX - other.formationOffsetX);
+        for (int p = 0; p < playerCount; p++) {
+            if (scores[p] != other.scores[p] || lives[p] != other.lives[p]) {
+                return Integer.MAX_VALUE;
+            }
+            if (!velocities) {
+                largest = Math.max(largest, Math.max(Math.abs(playerX[p] - other.playerX[p]),
+                        Math.abs(playerY[p] - other.playerY[p])));
+            }
+        }
+        return Math.max(largest, Math.max(enemies.difference(other.enemies, velocities),
+                missiles.difference(other.missiles, velocities)));
+    }
+
+    /**
+     * Gets the largest difference from a prediction that is not sent.
+     * @param velocities boolean that is true for velocities, false for positions
+     * @return Integer tolerance in velocity or position units
+     */
+    static int getTolerance(boolean velocities) {
+        return velocities ? VELOCITY_TOLERANCE : POSITION_TOLERANCE;
+    }
+
+    /**
+     * Gets the tick the state was taken at.
+     * @return Long value of the game's tick count
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the number of players.
+     * @return Integer value of 1 or 2
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Gets a player's score.
+     * @param p Integer index of the player, below getPlayerCount
+     * @return Integer score
+     */
+    public int getScore(int p) {
+        return scores[p];
+    }
+
+    /**
+     * Gets the lives a player has left.
+     * @param p Integer index of the player, below getPlayerCount
+     * @return Integer number of lives
+     */
+    public int getLives(int p) {
+        return lives[p];
+    }
+
+    /**
+     * Checks whether the game is over.
+     * @return boolean that is true once every player has run out of lives
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Gets a player's left edge.
+     * @param p Integer index of the player, below getPlayerCount
+     * @return Double value of the player's x coordinate in pixels
+     */
+    public double getPlayerX(int p) {
+        return (double) playerX[p] / POSITION_SCALE;
+    }
+
+    /**
+     * Gets a player's top edge.
+     * @param p Integer index of the player, below getPlayerCount
+     * @return Double value of the player's y coordinate in pixels
+     */
+    public double getPlayerY(int p) {
+        return (double) playerY[p] / POSITION_SCALE;
+    }
+
+    /**
+     * Gets the formation's horizontal offset.
+     * @return Double value of the offset in pixels
+     */
+    public double getFormationOffsetX() {
+        return (double) formationOffsetX / POSITION_SCALE;
+    }
+
+    /**
+     * Gets the number of fleets destroyed.
+     * @return Integer number of fleets
+     */
+    public int getFleetsDestroyed() {
+        return fleetsDestroyed;
+    }
+
+    /**
+     * Copies the entities into stores a renderer can draw. Each entity's
+     * previous position is worked out from its velocity, so the renderer can
+     * interpolate over the last tick as it does for a local game.
+     * @param enemyStore EntityStore to fill with the enemies
+     * @param missileStore EntityStore to fill with the missiles
+     */
+    public void copyTo(EntityStore enemyStore, EntityStore missileStore) {
+        enemies.copyTo(enemyStore);
+        missiles.copyTo(missileStore);
+    }
+
+    /**
+     * Gets the number of enemies.
+     * @return Integer number of enemies in the state
+     */
+    public int getEnemyCount() {
+        return enemies.count;
+    }
+
+    /**
+     * Gets the number of missiles.
+     * @return Integer number of missiles in the state
+     */
+    public int getMissileCount() {
+        return missiles.count;
+    }
+
+    /**
+     * The entities of one store, sorted by id, with quantized fields.
+     */
+    private static final class Table {
+        private int count;
+        private int[] ids = new int[0];
+        private int[] generations = new int[0];
+        private int[] x = new int[0];
+        private int[] y = new int[0];
+        private int[] vx = new int[0];
+        private int[] vy = new int[0];
+        private int[] rows = new int[0];
+        private byte[] states = new byte[0];
+        private long[] order = new long[0];
+        private int lastId;
+
+        /**
+         * Copies a store, sorting its entities by id. Velocities are taken
+         * from how far each entity moved in the last tick.
+         * @param store EntityStore to copy
+         */
+        void capture(EntityStore store) {
+            int n = store.getCount();
+            ensureCapacity(n);
+            if (order.length < n) {
+                order = new long[ids.length];
+            }
+            for (int i = 0; i < n; i++) {
+                order[i] = (store.getHandle(i) & 0xFFFFFFFFL) << 32 | i;
+            }
+            Arrays.sort(order, 0, n);
+            for (int k = 0; k < n; k++) {
+                int i = (int) order[k];
+                long handle = store.getHandle(i);
+                ids[k] = (int) handle;
+                generations[k] = (int) (handle >>> 32);
+                x[k] = quantize(store.x[i]);
+                y[k] = quantize(store.y[i]);
+                vx[k] = (int) Math.round((store.x[i] - store.previousX[i]) * VELOCITY_SCALE);
+                vy[k] = (int) Math.round((store.y[i] - store.previousY[i]) * VELOCITY_SCALE);
+                rows[k] = store.row[i];
+                states[k] = store.state[i];
+            }
+            count = n;
+        }
+
+        /**
+         * Writes the table as a delta from a baseline table.
+         * @param base Table the receiver has
+         * @param gap Long number of ticks between the baseline and this table
+         * @param out ByteBuffer to write to
+         */
+        void encode(Table base, long gap, ByteBuffer out) {
+            lastId = -1;
+            int b = 0;
+            int c = 0;
+            while (b < base.count || c < count) {
+                int baseId = b < base.count ? base.ids[b] : Integer.MAX_VALUE;
+                int id = c < count ? ids[c] : Integer.MAX_VALUE;
+                if (baseId < id) {
+                    putHeader(out, baseId, REMOVED);
+                    b++;
+                } else if (id < baseId || generations[c] != base.generations[b]) {
+                    putHeader(out, id, NEW);
+                    putVarLong(out, generations[c] & 0xFFFFFFFFL);
+                    putSigned(out, x[c]);
+                    putSigned(out, y[c]);
+                    putSigned(out, vx[c]);
+                    putSigned(out, vy[c]);
+                    putVarLong(out, rows[c]);
+                    out.put(states[c]);
+                    if (id == baseId) {
+                        b++;
+                    }
+                    c++;
+                } else {
+                    int dx = settle(x, c, predict(base.x[b], base.vx[b], gap), POSITION_TOLERANCE);
+                    int dy = settle(y, c, predict(base.y[b], base.vy[b], gap), POSITION_TOLERANCE);
+                    int dvx = settle(vx, c, base.vx[b], VELOCITY_TOLERANCE);
+                    int dvy = settle(vy, c, base.vy[b], VELOCITY_TOLERANCE);
+                    boolean kind = rows[c] != base.rows[b] || states[c] != base.states[b];
+                    int flags = (dx != 0 ? X : 0) | (dy != 0 ? Y : 0) | (dvx != 0 ? VX : 0)
+                            | (dvy != 0 ? VY : 0) | (kind ? KIND : 0);
+                    if (flags != 0) {
+                        putHeader(out, id, flags);
+                        if (dx != 0) {
+                            putSigned(out, dx);
+                        }
+                        if (dy != 0) {
+                            putSigned(out, dy);
+                        }
+                        if (dvx != 0) {
+                            putSigned(out, dvx);
+                        }
+                        if (dvy != 0) {
+                            putSigned(out, dvy);
+                        }
+                        if (kind) {
+                            putVarLong(out, rows[c]);
+                            out.put(states[c]);
+                        }
+                    }
+                    b++;
+                    c++;
+                }
+            }
+            putVarLong(out, 0);
+        }
+
+        /**
+         * Works out how far a field is from the value the receiver will
+         * predict for it. A difference within the tolerance is not sent: the
+         * field is set to the prediction instead, so that this table keeps
+         * matching what the receiver decodes, and the error never grows
+         * beyond the tolerance.
+         * @param field Array of the field's values
+         * @param c Integer index of the entity
+         * @param predicted Integer value the receiver will predict
+         * @param tolerance Integer largest difference that is not sent
+         * @return Integer difference to send, or 0
+         */
+        private static int settle(int[] field, int c, int predicted, int tolerance) {
+            int difference = field[c] - predicted;
+            if (Math.abs(difference) <= tolerance) {
+                field[c] = predicted;
+                return 0;
+            }
+            return difference;
+        }
+
+        /**
+         * Starts an entry.
+         * @param out ByteBuffer to write to
+         * @param id Integer id of the entity, greater than the last one written
+         * @param flags Integer flags of the entry
+         */
+        private void putHeader(ByteBuffer out, int id, int flags) {
+            putVarLong(out, id - lastId);
+            out.put((byte) flags);
+            lastId = id;
+        }
+
+        /**
+         * Reads a table written by encode, filling this table.
+         * @param base Table the delta was written against
+         * @param gap Long number of ticks between the baseline and this table
+         * @param in ByteBuffer to read from
+         */
+        void decode(Table base, long gap, ByteBuffer in) {
+            count = 0;
+            int b = 0;
+            long step = getVarLong(in);
+            int id = step == 0 ? Integer.MAX_VALUE : (int) (step - 1);
+            while (b < base.count || id != Integer.MAX_VALUE) {
+                int baseId = b < base.count ? base.ids[b] : Integer.MAX_VALUE;
+                if (baseId < id) {
+                    appendPredicted(base, b++, gap);
+                    continue;
+                }
+                int flags = in.get() & 0xFF;
+                if ((flags & NEW) != 0) {
+                    int k = append(id);
+                    generations[k] = (int) getVarLong(in);
+                    x[k] = getSigned(in);
+                    y[k] = getSigned(in);
+                    vx[k] = getSigned(in);
+                    vy[k] = getSigned(in);
+                    rows[k] = (int) getVarLong(in);
+                    states[k] = in.get();
+                    if (baseId == id) {
+                        b++;
+                    }
+                } else if (baseId != id) {
+                    throw new IllegalStateException("Entry for unknown entity " + id);
+                } else if ((flags & REMOVED) != 0) {
+                    b++;
+                } else {
+                    int k = appendPredicted(base, b++, gap);
+                    if ((flags & X) != 0) {
+                        x[k] += getSigned(in);
+                    }
+                    if ((flags & Y) != 0) {
+                        y[k] += getSigned(in);
+                    }
+                    if ((flags & VX) != 0) {
+                        vx[k] += getSigned(in);
+                    }
+                    if ((flags & VY) != 0) {
+                        vy[k] += getSigned(in);
+                    }
+                    if ((flags & KIND) != 0) {
+                        rows[k] = (int) getVarLong(in);
+                        states[k] = in.get();
+                    }
+                }
+                step = getVarLong(in);
+                id = step == 0 ? Integer.MAX_VALUE : id + (int) step;
+            }
+        }
+
+        /**
+         * Measures how far this table is from another one.
+         * @param other Table to compare with
+         * @param velocities boolean that is true to compare velocities, false to compare positions
+         * @return Integer largest difference between two matching entities,
+         *         or Integer.MAX_VALUE if the tables hold different entities
+         */
+        int difference(Table other, boolean velocities) {
+            if (count != other.count) {
+                return Integer.MAX_VALUE;
+            }
+            int largest = 0;
+            for (int k = 0; k < count; k++) {
+                if (ids[k] != other.ids[k] || generations[k] != other.generations[k]
+                        || rows[k] != other.rows[k] || states[k] != other.states[k]) {
+                    return Integer.MAX_VALUE;
+                }
+                int dx = velocities ? vx[k] - other.vx[k] : x[k] - other.x[k];
+                int dy = velocities ? vy[k] - other.vy[k] : y[k] - other.y[k];
+                largest = Math.max(largest, Math.max(Math.abs(dx), Math.abs(dy)));
+            }
+            return largest;
+        }
+
+        /**
+         * Replaces a store's contents with the table's entities, in pixels.
+         * Entities beyond the store's capacity are left out.
+         * @param store EntityStore to fill
+         */
+        void copyTo(EntityStore store) {
+            store.clear();
+            for (int k = 0; k < count; k++) {
+                int i = store.add((double) x[k] / POSITION_SCALE, (double) y[k] / POSITION_SCALE,
+                        states[k], rows[k], 0);
+                if (i < 0) {
+                    return;
+                }
+                store.previousX[i] = store.x[i] - (double) vx[k] / VELOCITY_SCALE;
+                store.previousY[i] = store.y[i] - (double) vy[k] / VELOCITY_SCALE;
+            }
+        }
+
+        /**
+         * Adds an entity at the position its baseline predicts.
+         * @param base Table holding the baseline entity
+         * @param b Integer index of the baseline entity
+         * @param gap Long number of ticks since the baseline
+         * @return Integer index of the added entity
+         */
+        private int appendPredicted(Table base, int b, long gap) {
+            int k = append(base.ids[b]);
+            generations[k] = base.generations[b];
+            x[k] = predict(base.x[b], base.vx[b], gap);
+            y[k] = predict(base.y[b], base.vy[b], gap);
+            vx[k] = base.vx[b];
+            vy[k] = base.vy[b];
+            rows[k] = base.rows[b];
+            states[k] = base.states[b];
+            return k;
+        }
+
+        /**
+         * Adds an entity at the end of the table.
+         * @param id Integer id of the entity
+         * @return Integer index of the added entity
+         */
+        private int append(int id) {
+            if (count == ids.length) {
+                ensureCapacity(Math.max(64, count * 2));
+            }
+            ids[count] = id;
+            return count++;
+        }
+
+        /**
+         * Grows the arrays to hold at least the given number of entities.
+         * @param capacity Integer number of entities
+         */
+        private void ensureCapacity(int capacity) {
+            if (ids.length >= capacity) {
+                return;
+            }
+            ids = Arrays.copyOf(ids, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            vx = Arrays.copyOf(vx, capacity);
+            vy = Arrays.copyOf(vy, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+            states = Arrays.copyOf(states, capacity);
+        }
+
+        /**
+         * Hashes the table's entities.
+         * @return Integer hash
+         */
+        int hash() {
+            int h = count;
+            for (int k = 0; k < count; k++) {
+                h = 31 * h + ids[k];
+                h = 31 * h + generations[k];
+                h = 31 * h + x[k];
+                h = 31 * h + y[k];
+                h = 31 * h + vx[k];
+                h = 31 * h + vy[k];
+                h = 31 * h + rows[k];
+                h = 31 * h + states[k];
+            }
+            return h;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package galaxian;
+
+import javafx.scene.Group;
+import javafx.scene.image.ImageView;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shows an integer with image views cut from a DigitAtlas. Setting the value
+ * that is already shown does nothing, and a new value only changes the
+ * viewports of the digits that differ.
+ */
+public class NumberDisplay {
+    private final DigitAtlas atlas;
+    private final Group group = new Group();
+    private final List<ImageView> glyphs = new ArrayList<>();
+    private final int[] shownGlyphs = new int[11];
+    private final int[] newGlyphs = new int[11];
+    private int shownLength;
+    private int value;
+    private boolean shown;
+
+    /**
+     * Creates an empty display.
+     * @param atlas DigitAtlas that the digits are taken from
+     */
+    public NumberDisplay(DigitAtlas atlas) {
+        this.atlas = atlas;
+    }
+
+    /**
+     * Shows a new value.
+     * @param newValue Integer to show
+     * @return boolean that is true if the value was different from the one shown
+     */
+    public boolean setValue(int newValue) {
+        if (shown && newValue == value) {
+            return false;
+        }
+        value = newValue;
+        shown = true;
+
+        int length = 0;
+        long remaining = Math.abs((long) newValue);
+        do {
+            newGlyphs[length++] = (int) (remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        if (newValue < 0) {
+            newGlyphs[length++] = DigitAtlas.MINUS;
+        }
+
+        while (glyphs.size() < length) {
+            ImageView glyph = new ImageView(atlas.getImage());
+            glyph.setLayoutX(glyphs.size() * atlas.getCellWidth());
+            glyphs.add(glyph);
+            group.getChildren().add(glyph);
+        }
+        // newGlyphs holds the least significant digit first
+        for (int k = 0; k < length; k++) {
+            int glyph = newGlyphs[length - 1 - k];
+            if (k >= shownLength || shownGlyphs[k] != glyph) {
+                glyphs.get(k).setViewport(atlas.getViewport(glyph));
+                shownGlyphs[k] = glyph;
+            }
+            if (k >= shownLength) {
+                glyphs.get(k).setVisible(true);
+            }
+        }
+        for (int k = length; k < shownLength; k++) {
+            glyphs.get(k).setVisible(false);
+        }
+        shownLength = length;
+        return true;
+    }
+
+    /**
+     * Gets the value being shown.
+     * @return Integer value of the display
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the node that holds the digits.
+     * @return Group to add to the scene graph
+     */
+    public Group getNode() {
+        return group;
+    }
+}
@@ -0,0 +1,103 @@
+package galaxian;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs many independent games at once, one per task on a fork-join pool that
+ * uses every core. Each game has its own seed and is steered by a simple
+ * autopilot that sweeps from side to side and fires at a fixed interval.
+ * Reports the combined tick rate and how the scores are distributed, which
+ * is what balance changes are judged by.
+ */
+public class ParallelRunner {
+    private static final int FIRE_INTERVAL = GameClock.TICKS_PER_SECOND / 2;
+
+    /**
+     * Runs a batch of headless games.
+     * @param args Optional number of games (defaults to 64), ticks per game
+     *             (defaults to 100000) and base seed (defaults to 1)
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        long maxTicks = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+        long baseSeed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        if (games < 1) {
+            System.err.println("Usage: ParallelRunner [games >= 1] [ticks per game] [base seed]");
+            System.exit(2);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        long start = System.nanoTime();
+        List<ForkJoinTask<GameManager>> tasks = new ArrayList<>(games);
+        for (int g = 0; g < games; g++) {
+            long seed = baseSeed + g;
+            tasks.add(pool.submit(() -> play(seed, maxTicks)));
+        }
+
+        long totalTicks = 0;
+        int[] scores = new int[games];
+        int[] fleets = new int[games];
+        int finished = 0;
+        for (int g = 0; g < games; g++) {
+            GameManager gameManager = tasks.get(g).join();
+            totalTicks += gameManager.getTickCount();
+            scores[g] = gameManager.getScore();
+            fleets[g] = gameManager.getFleetsDestroyed();
+            if (gameManager.isGameOver()) {
+                finished++;
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        System.out.printf("%d games on %d threads: %d ticks in %.2f s (%.0f ticks/s)%n",
+                games, pool.getParallelism(), totalTicks, elapsedSeconds, totalTicks / elapsedSeconds);
+        System.out.printf("Game over in %d of %d games%n", finished, games);
+        Arrays.sort(scores);
+        Arrays.sort(fleets);
+        System.out.printf("Score: min %d, p25 %d, median %d, p75 %d, max %d, mean %.1f%n",
+                scores[0], percentile(scores, 25), percentile(scores, 50), percentile(scores, 75),
+                scores[games - 1], Arrays.stream(scores).average().orElse(0));
+        System.out.printf("Fleets destroyed: min %d, median %d, max %d%n",
+                fleets[0], percentile(fleets, 50), fleets[games - 1]);
+    }
+
+    /**
+     * Plays one game until it is over or has run for the given number of ticks.
+     * @param seed Long value of the game's seed
+     * @param maxTicks Long value of the most ticks to simulate
+     * @return GameManager of the finished game
+     */
+    private static GameManager play(long seed, long maxTicks) {
+        GameManager gameManager = new GameManager(seed);
+        int direction = 1;
+        while (gameManager.getTickCount() < maxTicks && !gameManager.isGameOver()) {
+            if (gameManager.getTickCount() % FIRE_INTERVAL == 0) {
+                gameManager.playerShoot();
+            }
+            double x = gameManager.getPlayerXPosition();
+            if (x <= 0) {
+                direction = 1;
+            } else if (x >= gameManager.getWidth() - Player.WIDTH) {
+                direction = -1;
+            }
+            gameManager.tick(direction);
+        }
+        return gameManager;
+    }
+
+    /**
+     * Gets a percentile of sorted values by the nearest-rank method.
+     * @param sorted Integer array sorted in ascending order
+     * @param p Integer percentile between 0 and 100
+     * @return Integer value at that percentile
+     */
+    private static int percentile(int[] sorted, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
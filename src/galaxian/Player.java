@@ -0,0 +1,231 @@
+package galaxian;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Contains the logic for the player's behavior and position.
+ */
+public class Player implements Sprite {
+    public static final double WIDTH = 30;
+    public static final double HEIGHT = 45;
+    private static final double MISSILE_SPEED = 30.0 / GameClock.TICKS_PER_SECOND;
+    // Shortest time between two shots fired from the keyboard.
+    public static final int FIRE_COOLDOWN_TICKS = GameClock.TICKS_PER_SECOND / 4;
+    static final int SAVE_SIZE = 5 * Long.BYTES;
+    private final double fieldWidth;
+    private final double fieldHeight;
+    private final byte shooter;
+
+    private double x;
+    private double y;
+    private double maxX;
+    private double maxY;
+    private double previousX;
+    private double previousY;
+    private long nextFireTick;
+
+    /**
+     * Initializes player fields and sets the position of the player.
+     * @param fieldWidth Double value of the playfield's width
+     * @param fieldHeight Double value of the playfield's height
+     */
+    public Player(double fieldWidth, double fieldHeight) {
+        this(fieldWidth, fieldHeight, Missile.FROM_PLAYER);
+    }
+
+    /**
+     * Initializes player fields for one of two players.
+     * @param fieldWidth Double value of the playfield's width
+     * @param fieldHeight Double value of the playfield's height
+     * @param shooter Byte value that marks the player's missiles,
+     *                Missile.FROM_PLAYER or FROM_SECOND_PLAYER
+     */
+    public Player(double fieldWidth, double fieldHeight, byte shooter) {
+        this.fieldWidth = fieldWidth;
+        this.fieldHeight = fieldHeight;
+        this.shooter = shooter;
+        resetPosition();
+    }
+
+    /**
+     * Sets the player's position to the bottom middle of the window.
+     */
+    public void resetPosition() {
+        moveTo((fieldWidth - WIDTH) / 2, fieldHeight - 75);
+        savePosition();
+    }
+
+    /**
+     * Handles player movement, and ensure that the player can't move
+     * outside the coundaries of the window.
+     * @param xIncrement Double value representing the number of pixels that the player will move side to side
+     * @param yIncrement Double value representing the number of pixels that the player will move up and down
+     */
+    public void move(double xIncrement, double yIncrement) {
+
+        double newX = x + xIncrement;
+        double newY = y + yIncrement;
+
+        if (newX < 0) {
+            newX = 0;
+        }
+        if (newX > fieldWidth - WIDTH) {
+            newX = fieldWidth - WIDTH;
+        }
+        moveTo(newX, newY);
+    }
+
+    /**
+     * Allows the player to shoot missiles towards the enemies.
+     * @param pool MissilePool that the missile is taken from
+     * @return Integer slot of a missile that travels directly upwards, or -1 if the pool is empty
+     */
+    public int shoot(MissilePool pool) {
+        return pool.acquire(x + WIDTH / 2, y, 0, -1, MISSILE_SPEED, shooter);
+    }
+
+    /**
+     * Starts the fire cooldown if it has run out.
+     * @param tick Long value of the current tick
+     * @return boolean that is true if the player may fire now
+     */
+    public boolean tryFire(long tick) {
+        if (tick < nextFireTick) {
+            return false;
+        }
+        nextFireTick = tick + FIRE_COOLDOWN_TICKS;
+        return true;
+    }
+
+    /**
+     * Gets the player's horizontal position
+     * @return Double value indicating the player's x position
+     */
+    public double getXPosition() {
+        return x;
+    }
+
+    /**
+     * Gets the player's vertical position
+     * @return Double value indicating the player's y position
+     */
+    public double getYPosition() {
+        return y;
+    }
+
+    /**
+     * Writes the player's position and when it may fire next.
+     * @param out ByteBuffer with SAVE_SIZE bytes left
+     */
+    public void save(ByteBuffer out) {
+        out.putDouble(x);
+        out.putDouble(y);
+        out.putDouble(previousX);
+        out.putDouble(previousY);
+        out.putLong(nextFireTick);
+    }
+
+    /**
+     * Replaces the player's position and fire cooldown with ones written by save.
+     * @param in ByteBuffer to read from
+     */
+    public void load(ByteBuffer in) {
+        moveTo(in.getDouble(), in.getDouble());
+        previousX = in.getDouble();
+        previousY = in.getDouble();
+        nextFireTick = in.getLong();
+    }
+
+    /**
+     * Places the player at a new position and updates its bounds.
+     * @param newX Double value of the new left edge
+     * @param newY Double value of the new top edge
+     */
+    private void moveTo(double newX, double newY) {
+        x = newX;
+        y = newY;
+        maxX = newX + WIDTH;
+        maxY = newY + HEIGHT;
+    }
+
+    /**
+     * Gets the left edge of the player.
+     * @return Double value of the player's smallest x coordinate
+     */
+    @Override
+    public double getMinX() {
+        return x;
+    }
+
+    /**
+     * Gets the top edge of the player.
+     * @return Double value of the player's smallest y coordinate
+     */
+    @Override
+    public double getMinY() {
+        return y;
+    }
+
+    /**
+     * Gets the right edge of the player.
+     * @return Double value of the player's largest x coordinate
+     */
+    @Override
+    public double getMaxX() {
+        return maxX;
+    }
+
+    /**
+     * Gets the bottom edge of the player.
+     * @return Double value of the player's largest y coordinate
+     */
+    @Override
+    public double getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * Gets the width of the player.
+     * @return Double value of the player's width
+     */
+    @Override
+    public double getWidth() {
+        return WIDTH;
+    }
+
+    /**
+     * Gets the height of the player.
+     * @return Double value of the player's height
+     */
+    @Override
+    public double getHeight() {
+        return HEIGHT;
+    }
+
+    /**
+     * Gets the horizontal position the player had at the start of the current tick.
+     * @return Double value of the player's previous left edge
+     */
+    @Override
+    public double getPreviousX() {
+        return previousX;
+    }
+
+    /**
+     * Gets the vertical position the player had at the start of the current tick.
+     * @return Double value of the player's previous top edge
+     */
+    @Override
+    public double getPreviousY() {
+        return previousY;
+    }
+
+    /**
+     * Remembers the player's current position as its previous position.
+     */
+    @Override
+    public void savePosition() {
+        previousX = x;
+        previousY = y;
+    }
+}
@@ -0,0 +1,204 @@
+package galaxian;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Replays a session recorded with {@code --record=<file>} without JavaFX, as
+ * fast as the simulation runs. The game is seeded from the recording and the
+ * recorded inputs are applied before the same ticks as in the original
+ * session, so the replay ends in exactly the same state. Reports how fast the
+ * ticks ran and which tick was the slowest.
+ * <p>
+ * With {@code --verify}, it checks the other way of resuming a game
+ * instead. It first checks that GameRandom draws exactly the numbers
+ * SplittableRandom draws for the same seeds, across splits and a save and
+ * load. Then it plays a game for half the given number of ticks (defaults
+ * to 6000), saves it to a file and loads it back, and steps the original
+ * and the loaded game side by side for the full number. Their saved images
+ * must be identical before every tick. Takes {@code --ticks},
+ * {@code --seed} and {@code --fleet}, and exits with status 1 on the first
+ * difference.
+ */
+public class ReplayRunner {
+    private static final int RANDOM_DRAWS = 100_000;
+    private static final int SPLIT_INTERVAL = 1000;
+    private static final int FIRE_INTERVAL = GameClock.TICKS_PER_SECOND / 4;
+    private static final int SWEEP_TICKS = 2 * GameClock.TICKS_PER_SECOND;
+
+    /**
+     * Replays a recorded session.
+     * @param args The path of the recording, or {@code --verify} and its settings
+     * @throws IOException if the recording can't be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--verify")) {
+            System.exit(verify(StressConfig.parseArguments(args)) ? 0 : 1);
+        }
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayRunner <recording> | --verify [--ticks=<n>] [--seed=<n>] [--fleet=<n>]");
+            System.exit(2);
+        }
+        InputRecording recording = InputRecording.read(Path.of(args[0]));
+        GameManager gameManager = new GameManager(recording.getSeed());
+
+        boolean left = false;
+        boolean right = false;
+        int next = 0;
+        long slowestTick = 0;
+        long slowestNanos = 0;
+        long start = System.nanoTime();
+        while (gameManager.getTickCount() < recording.getLength() && !gameManager.isGameOver()) {
+            long tick = gameManager.getTickCount();
+            for (; next < recording.getCount() && recording.getTick(next) == tick; next++) {
+                switch (recording.getEvent(next)) {
+                    case InputRecording.PRESS_LEFT -> left = true;
+                    case InputRecording.RELEASE_LEFT -> left = false;
+                    case InputRecording.PRESS_RIGHT -> right = true;
+                    case InputRecording.RELEASE_RIGHT -> right = false;
+                    case InputRecording.FIRE -> gameManager.playerShoot();
+                    default -> throw new IOException("Unknown event " + recording.getEvent(next));
+                }
+            }
+
+            long tickStart = System.nanoTime();
+            gameManager.tick((right ? 1 : 0) - (left ? 1 : 0));
+            long tickNanos = System.nanoTime() - tickStart;
+            if (tickNanos > slowestNanos) {
+                slowestNanos = tickNanos;
+                slowestTick = tick;
+            }
+        }
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        long ticks = gameManager.getTickCount();
+        System.out.printf("Replayed %d ticks, %d events in %.1f ms (%.0f ticks/ms)%n",
+                ticks, next, elapsedMillis, ticks / Math.max(elapsedMillis, 1e-6));
+        System.out.printf("Slowest tick: %d (%.3f ms)%n", slowestTick, slowestNanos / 1_000_000.0);
+        System.out.printf("Score: %d, Lives: %d, Fleets Destroyed: %d%n",
+                gameManager.getScore(), gameManager.getLives(), gameManager.getFleetsDestroyed());
+    }
+
+    /**
+     * Checks GameRandom against SplittableRandom, then a save and load.
+     * @param named Map of argument names to values
+     * @return boolean that is true if both checks pass
+     * @throws IOException if the save can't be written or read
+     */
+    private static boolean verify(Map<String, String> named) throws IOException {
+        long seed = Long.parseLong(named.getOrDefault("seed", "1"));
+        long ticks = Long.parseLong(named.getOrDefault("ticks", "6000"));
+        return verifyRandom(seed) && verifySave(named, seed, ticks);
+    }
+
+    /**
+     * Draws numbers of every kind from GameRandom and SplittableRandom with
+     * the same seeds and checks that they agree. Both are split every
+     * SPLIT_INTERVAL draws, and halfway through the GameRandom is saved and
+     * replaced by one loaded from the save.
+     * @param seed Long value of the first seed; some edge cases are tried too
+     * @return boolean that is true if every draw matched
+     */
+    private static boolean verifyRandom(long seed) {
+        long[] seeds = {seed, 0, -1, Long.MIN_VALUE, Long.MAX_VALUE};
+        int[] bounds = {1, 2, 3, 7, 100, 1 << 30, (1 << 30) + 1, Integer.MAX_VALUE};
+        ByteBuffer saved = ByteBuffer.allocate(GameRandom.SAVE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (long s : seeds) {
+            GameRandom game = new GameRandom(s);
+            SplittableRandom reference = new SplittableRandom(s);
+            for (int i = 0; i < RANDOM_DRAWS; i++) {
+                if (i > 0 && i % SPLIT_INTERVAL == 0) {
+                    game = game.split();
+                    reference = reference.split();
+                }
+                if (i == RANDOM_DRAWS / 2) {
+                    game.save(saved.clear());
+                    game = new GameRandom(0);
+                    game.load(saved.flip());
+                }
+                int bound = bounds[i % bounds.length];
+                boolean same = switch (i % 4) {
+                    case 0 -> game.nextLong() == reference.nextLong();
+                    case 1 -> game.nextInt() == reference.nextInt();
+                    case 2 -> game.nextInt(bound) == reference.nextInt(bound);
+                    default -> Double.doubleToRawLongBits(game.nextDouble())
+                            == Double.doubleToRawLongBits(reference.nextDouble());
+                };
+                if (!same) {
+                    System.err.println("GameRandom differs from SplittableRandom for seed " + s + " at draw " + i);
+                    return false;
+                }
+            }
+        }
+        System.out.printf("GameRandom matches SplittableRandom for %d seeds, %d draws each%n",
+                seeds.length, RANDOM_DRAWS);
+        return true;
+    }
+
+    /**
+     * Plays a game, saves it to a file, loads it back and steps both games
+     * together, comparing their saved images before every tick.
+     * @param named Map of argument names to values
+     * @param seed Long value of the game's seed
+     * @param ticks Long number of ticks to compare the games for; the save is
+     *              made after half as many
+     * @return boolean that is true if the games stayed identical
+     * @throws IOException if the save can't be written or read
+     */
+    private static boolean verifySave(Map<String, String> named, long seed, long ticks) throws IOException {
+        GameManager original = new GameManager(seed);
+        if (named.containsKey("fleet")) {
+            original.setFleetSize(Integer.parseInt(named.get("fleet")));
+        }
+        original.setLives(Integer.MAX_VALUE);
+        original.setDiveRate(10);
+        while (original.getTickCount() < ticks / 2) {
+            stepAutopilot(original);
+        }
+
+        Path file = Files.createTempFile("galaxian", ".sav");
+        try {
+            SaveState.write(SaveState.capture(original, null), file);
+            GameManager loaded = SaveState.read(file);
+            ByteBuffer expected = null;
+            ByteBuffer actual = null;
+            long end = original.getTickCount() + ticks;
+            while (original.getTickCount() < end) {
+                expected = SaveState.capture(original, expected);
+                actual = SaveState.capture(loaded, actual);
+                if (!expected.equals(actual)) {
+                    System.err.println("The loaded game differs from the original at tick " + original.getTickCount());
+                    return false;
+                }
+                stepAutopilot(original);
+                stepAutopilot(loaded);
+            }
+            System.out.printf("Saved at tick %d (%d KB); the loaded game matched the original for %d ticks, "
+                            + "ending with %d enemies, %d missiles and score %d%n",
+                    ticks / 2, Files.size(file) / 1024, ticks, original.getEnemies().getCount(),
+                    original.getMissiles().getCount(), original.getScore());
+            return true;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Steps a game with inputs that depend only on its tick count, so two
+     * games in the same state get the same inputs: fires at a fixed
+     * interval and sweeps from side to side.
+     * @param gameManager Instance of game manager to step
+     */
+    private static void stepAutopilot(GameManager gameManager) {
+        long tick = gameManager.getTickCount();
+        if (tick % FIRE_INTERVAL == 0) {
+            gameManager.playerShoot();
+        }
+        gameManager.tick(tick / SWEEP_TICKS % 2 == 0 ? 1 : -1);
+    }
+}
@@ -0,0 +1,83 @@
+package galaxian;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent samples of a timing in a fixed-size ring. Recording a
+ * sample is a single array write; percentiles are only worked out when they
+ * are asked for, by sorting a copy of the ring into a scratch array, so
+ * neither recording nor reading allocates.
+ */
+public class RingHistogram {
+    private final long[] samples;
+    private final long[] sorted;
+    private int next;
+    private int size;
+
+    /**
+     * Creates an empty histogram.
+     * @param capacity Integer number of recent samples to keep
+     */
+    public RingHistogram(int capacity) {
+        samples = new long[capacity];
+        sorted = new long[capacity];
+    }
+
+    /**
+     * Records a sample, overwriting the oldest one once the ring is full.
+     * @param value Long value of the sample
+     */
+    public void record(long value) {
+        samples[next] = value;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Sorts the recorded samples so percentiles can be read. Call once before
+     * reading a group of percentiles.
+     */
+    public void snapshot() {
+        System.arraycopy(samples, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size);
+    }
+
+    /**
+     * Gets a percentile of the samples sorted by the last snapshot.
+     * @param percentile Double value between 0 and 100
+     * @return Long value of the sample at that percentile, or 0 if there are no samples
+     */
+    public long percentile(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    /**
+     * Gets the largest sample in the last snapshot.
+     * @return Long value of the largest sample, or 0 if there are no samples
+     */
+    public long max() {
+        return size == 0 ? 0 : sorted[size - 1];
+    }
+
+    /**
+     * Gets the number of samples held.
+     * @return Integer number of samples, at most the capacity
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Removes every sample.
+     */
+    public void clear() {
+        next = 0;
+        size = 0;
+    }
+}
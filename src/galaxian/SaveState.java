@@ -0,0 +1,113 @@
+package galaxian;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * A saved game: the whole state of a GameManager in a fixed binary layout,
+ * so a game can be resumed without replaying it from the start. A file
+ * starts with a magic number, the format version, the length of the state
+ * and a checksum of it, followed by the state as GameManager.save writes it,
+ * little-endian, with every array of doubles aligned to eight bytes.
+ * <p>
+ * Saving is split in two. capture copies the game into a buffer, which is
+ * quick and has to happen between ticks; write checksums the buffer and puts
+ * it in a file, which is slow and can happen on any thread. The file is
+ * written next to its destination and moved over it when complete, so a
+ * crash never leaves a half-written save behind. read maps the file into
+ * memory and copies the arrays straight out of the mapping.
+ */
+public class SaveState {
+    private static final int MAGIC = 0x474C5853; // "GLXS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 3 * Long.BYTES;
+    private static final int CHECKSUM_OFFSET = 2 * Long.BYTES;
+
+    /**
+     * Copies a game into a buffer, ready to be written.
+     * @param gameManager Instance of game manager to save, between ticks
+     * @param spare ByteBuffer from an earlier capture that has been written and can be reused, or null
+     * @return ByteBuffer holding the file's contents between its position and limit
+     */
+    public static ByteBuffer capture(GameManager gameManager, ByteBuffer spare) {
+        int size = gameManager.getSaveSize();
+        ByteBuffer buffer = spare;
+        if (buffer == null || buffer.capacity() < HEADER_SIZE + size) {
+            buffer = ByteBuffer.allocateDirect(HEADER_SIZE + size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        buffer.clear();
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(size);
+        buffer.putLong(0);
+        gameManager.save(buffer);
+        return buffer.flip();
+    }
+
+    /**
+     * Writes a captured game to a file, replacing any file already there.
+     * @param state ByteBuffer returned by capture
+     * @param path Path of the file to write
+     * @throws IOException if the file can't be written
+     */
+    public static void write(ByteBuffer state, Path path) throws IOException {
+        CRC32C checksum = new CRC32C();
+        checksum.update(state.position(HEADER_SIZE));
+        state.putInt(CHECKSUM_OFFSET, (int) checksum.getValue()).position(0);
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (state.hasRemaining()) {
+                channel.write(state);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a saved game from a file.
+     * @param path Path of the file to read
+     * @return GameManager in the saved state
+     * @throws IOException if the file can't be read or isn't a saved game
+     */
+    public static GameManager read(Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer in = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC) {
+            throw new IOException(path + " is not a saved game");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported save version " + version);
+        }
+        long size = in.getLong();
+        int expected = in.getInt();
+        in.getInt();
+        if (size != in.remaining()) {
+            throw new IOException(path + " is truncated");
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(in.duplicate());
+        if ((int) checksum.getValue() != expected) {
+            throw new IOException(path + " is corrupt");
+        }
+        try {
+            return GameManager.load(in);
+        } catch (IllegalStateException | BufferUnderflowException e) {
+            throw new IOException(path + " does not hold a valid game: " + e.getMessage(), e);
+        }
+    }
+}
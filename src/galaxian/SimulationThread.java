@@ -0,0 +1,286 @@
+package galaxian;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Steps the game on its own thread, so a slow frame on the JavaFX thread does
+ * not hold the simulation back and a slow tick does not drop frames. The
+ * thread runs ticks at the game clock's fixed rate, sleeping in between, and
+ * after each batch of ticks copies the game into a snapshot and publishes it
+ * through a SnapshotExchange. While the thread runs, the JavaFX thread only
+ * reads the latest snapshot and never touches the game itself.
+ * <p>
+ * Input goes the other way through an InputQueue of timestamped key events,
+ * which is drained at the start of each tick. Auto-repeated presses never
+ * reach the queue. While the fire key is down, or if it was tapped since the
+ * last tick, the player shoots whenever the fire cooldown has run out, so
+ * holding or hammering the key cannot flood the screen. The input is added
+ * to the recording as it is applied, so the recording lines up with the
+ * ticks exactly. The time of the first input since the last snapshot
+ * travels with the next snapshot, so the JavaFX thread can measure how long
+ * input takes to show on screen, and so does the number of bytes this
+ * thread has allocated, which the diagnostics add to the frame's. Game
+ * events are moved into batches that are queued for the JavaFX thread,
+ * which delivers them in dispatchEvents.
+ * <p>
+ * A save asked for with save is captured between two ticks and written to
+ * its file by a writer thread of its own, so neither the ticks nor the
+ * frames wait for the disk.
+ */
+public class SimulationThread implements Runnable {
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+    public static final int FIRE = 4;
+    private static final int EVENT_CAPACITY = 64;
+    private static final int INPUT_CAPACITY = 256;
+
+    private final GameManager gameManager;
+    private final StressDriver stress;
+    private final InputRecording recording;
+    private final SnapshotExchange exchange;
+    private final GameClock clock = new GameClock();
+    private final Thread thread;
+    private final InputQueue input = new InputQueue(INPUT_CAPACITY);
+    private final Queue<GameEventBuffer> eventBatches = new ConcurrentLinkedQueue<>();
+    private final Queue<GameEventBuffer> spareBatches = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Path> saveRequest = new AtomicReference<>();
+    // Buffer of the last save once it has been written, kept for the next one
+    private final AtomicReference<ByteBuffer> spareSave = new AtomicReference<>();
+    private final ExecutorService saveWriter = Executors.newSingleThreadExecutor(task -> {
+        Thread writer = new Thread(task, "save-writer");
+        writer.setDaemon(true);
+        return writer;
+    });
+    private final long[] phaseNanos = new long[FrameProfiler.Phase.values().length];
+    private volatile boolean running;
+    private int heldKeys;
+    private int lastHeldKeys;
+    private long firstInputTime;
+
+    /**
+     * Creates the thread without starting it. Until it is started, the game
+     * belongs to the calling thread.
+     * @param gameManager Instance of game manager to step
+     * @param stress StressDriver that plays the game, or null to take the player's input
+     * @param recording InputRecording that the input is added to, or null
+     */
+    public SimulationThread(GameManager gameManager, StressDriver stress, InputRecording recording) {
+        this.gameManager = gameManager;
+        this.stress = stress;
+        this.recording = recording;
+        exchange = new SnapshotExchange(gameManager);
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Starts stepping the game.
+     */
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops the thread and waits for it to finish its tick and for saves
+     * still being written. Afterwards the game belongs to the calling thread again.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        if (thread.isAlive() && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        saveWriter.shutdown();
+        try {
+            saveWriter.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs ticks as they fall due until the game ends or the thread is
+     * stopped, and publishes a final snapshot on the way out.
+     */
+    @Override
+    public void run() {
+        while (running && !isFinished()) {
+            int ticks = clock.advance(System.nanoTime());
+            for (int i = 0; i < ticks && !isFinished(); i++) {
+                step();
+            }
+            if (ticks > 0) {
+                publish();
+            }
+            Path savePath = saveRequest.getAndSet(null);
+            if (savePath != null) {
+                captureSave(savePath);
+            }
+            LockSupport.parkNanos(clock.getNanosUntilNextTick());
+        }
+        publish();
+    }
+
+    /**
+     * Runs one tick, adding the time spent in each phase to the running totals.
+     */
+    private void step() {
+        long start = System.nanoTime();
+        int direction = applyInput();
+        if (stress != null) {
+            stress.beforeTick();
+            direction = stress.getDirection();
+        }
+        gameManager.step(direction, phaseNanos);
+        if (stress != null) {
+            stress.recordTick(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Applies the key events queued since the last tick: records the arrow
+     * keys that changed, and shoots if the fire key is held or was pressed
+     * since the last tick and the cooldown allows it.
+     * @return Integer direction the held keys steer the player in
+     */
+    private int applyInput() {
+        boolean firePressed = false;
+        while (input.poll()) {
+            int key = input.getKey();
+            if (input.isPressed()) {
+                heldKeys |= key;
+                firePressed |= key == FIRE;
+            } else {
+                heldKeys &= ~key;
+            }
+            if (firstInputTime == 0) {
+                firstInputTime = input.getTime();
+            }
+        }
+
+        int held = heldKeys;
+        int changed = held ^ lastHeldKeys;
+        if ((changed & LEFT) != 0) {
+            record((held & LEFT) != 0 ? InputRecording.PRESS_LEFT : InputRecording.RELEASE_LEFT);
+        }
+        if ((changed & RIGHT) != 0) {
+            record((held & RIGHT) != 0 ? InputRecording.PRESS_RIGHT : InputRecording.RELEASE_RIGHT);
+        }
+        lastHeldKeys = held;
+
+        if ((firePressed || (held & FIRE) != 0) && gameManager.playerShootIfReady()) {
+            record(InputRecording.FIRE);
+        }
+        return ((held & RIGHT) != 0 ? 1 : 0) - ((held & LEFT) != 0 ? 1 : 0);
+    }
+
+    /**
+     * Adds an input event to the recording, if the session is being recorded.
+     * @param event Byte code of the event, one of the constants in InputRecording
+     */
+    private void record(byte event) {
+        if (recording != null) {
+            recording.record(gameManager.getTickCount(), event);
+        }
+    }
+
+    /**
+     * Queues the events of the ticks just run and publishes a snapshot of the game.
+     */
+    private void publish() {
+        if (gameManager.getPendingEventCount() > 0) {
+            GameEventBuffer batch = spareBatches.poll();
+            if (batch == null) {
+                batch = new GameEventBuffer(EVENT_CAPACITY);
+            }
+            gameManager.drainEvents(batch);
+            eventBatches.offer(batch);
+        }
+        exchange.getBack().capture(gameManager, phaseNanos, firstInputTime,
+                FrameProfiler.currentThreadAllocatedBytes(), isFinished() || !running);
+        exchange.publish();
+        firstInputTime = 0;
+    }
+
+    /**
+     * Copies the game into a buffer and queues it for the writer thread.
+     * @param path Path of the file to write
+     */
+    private void captureSave(Path path) {
+        ByteBuffer state = SaveState.capture(gameManager, spareSave.getAndSet(null));
+        saveWriter.execute(() -> {
+            try {
+                SaveState.write(state, path);
+            } catch (IOException e) {
+                System.err.println("Could not save the game: " + e.getMessage());
+            }
+            spareSave.set(state);
+        });
+    }
+
+    /**
+     * Checks whether the game is over or the stress run has lasted long enough.
+     * @return boolean that is true once no more ticks should run
+     */
+    private boolean isFinished() {
+        return gameManager.isGameOver() || (stress != null && stress.isFinished());
+    }
+
+    /**
+     * Queues a key going down or up, stamped with the current time, for the
+     * next tick. Called from the JavaFX thread, once per change of the key.
+     * @param key Integer key, LEFT, RIGHT or FIRE
+     * @param held boolean that is true if the key went down
+     */
+    public void setKeyHeld(int key, boolean held) {
+        input.offer(key, held, System.nanoTime());
+    }
+
+    /**
+     * Asks for the game to be saved after the current tick. Once the game is
+     * over or the thread has stopped, there is nothing to save and the
+     * request is ignored. Called from any thread.
+     * @param path Path of the file to write
+     */
+    public void save(Path path) {
+        if (!running || !thread.isAlive()) {
+            return;
+        }
+        saveRequest.set(path);
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Gets the latest snapshot of the game. Called from the JavaFX thread.
+     * @return GameSnapshot to draw, unchanged until the next call
+     */
+    public GameSnapshot getSnapshot() {
+        return exchange.read();
+    }
+
+    /**
+     * Delivers the queued event batches to the game's listeners, in order,
+     * and hands the emptied batches back. Called from the JavaFX thread.
+     */
+    public void dispatchEvents() {
+        GameEventBuffer batch;
+        while ((batch = eventBatches.poll()) != null) {
+            gameManager.deliverEvents(batch);
+            spareBatches.offer(batch);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package galaxian;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free handoff of snapshots from the simulation thread to the JavaFX
+ * thread. There are three snapshots: the writer fills the back one, the
+ * reader draws the front one, and the third sits in between as the latest
+ * published one. Publishing swaps the back snapshot with the one in between,
+ * and reading swaps the front one with it if something new was published
+ * since, each with a single atomic exchange of an index. Neither side ever
+ * waits, and the reader always gets the newest complete snapshot; snapshots
+ * that the reader was too slow to pick up are overwritten.
+ */
+public class SnapshotExchange {
+    // Set in the exchanged index while the snapshot in between has not been read.
+    private static final int FRESH = 4;
+    private static final int INDEX = 3;
+
+    private final GameSnapshot[] snapshots = new GameSnapshot[3];
+    private final AtomicInteger latest = new AtomicInteger(1);
+    // Owned by the writer and the reader respectively.
+    private int back = 0;
+    private int front = 2;
+
+    /**
+     * Creates the three snapshots, each holding the game's current state, so
+     * the reader has something to draw before the first publish.
+     * @param gameManager Instance of game manager whose state is handed over
+     */
+    public SnapshotExchange(GameManager gameManager) {
+        long[] noPhases = new long[FrameProfiler.Phase.values().length];
+        for (int k = 0; k < snapshots.length; k++) {
+            snapshots[k] = new GameSnapshot(gameManager);
+            snapshots[k].capture(gameManager, noPhases, 0, 0, false);
+        }
+    }
+
+    /**
+     * Creates three empty snapshots, for a writer that fills them from
+     * states received over the network.
+     * @param maxEntities Integer value of the most enemies, and the most missiles, a snapshot will hold
+     */
+    public SnapshotExchange(int maxEntities) {
+        for (int k = 0; k < snapshots.length; k++) {
+            snapshots[k] = new GameSnapshot(maxEntities);
+        }
+    }
+
+    /**
+     * Gets the snapshot the writer may fill. Only called by the writer.
+     * @return GameSnapshot that the reader cannot see until it is published
+     */
+    public GameSnapshot getBack() {
+        return snapshots[back];
+    }
+
+    /**
+     * Makes the back snapshot the latest one and takes the previous latest
+     * one as the new back snapshot. Only called by the writer.
+     */
+    public void publish() {
+        back = latest.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /**
+     * Gets the latest published snapshot, taking it over as the front one if
+     * it is new. The returned snapshot stays untouched until the next call.
+     * Only called by the reader.
+     * @return GameSnapshot to draw
+     */
+    public GameSnapshot read() {
+        if ((latest.get() & FRESH) != 0) {
+            front = latest.getAndSet(front) & INDEX;
+        }
+        return snapshots[front];
+    }
+}
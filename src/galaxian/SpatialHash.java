@@ -0,0 +1,145 @@
+package galaxian;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the playfield that is used as a collision broadphase.
+ * Entities are bucketed by slot index into every cell they overlap, so a query
+ * only has to look at the entities in the cells its rectangle touches.
+ * Entities outside the playfield are clamped into the border cells. The grid
+ * is rebuilt whenever its entities have moved and stops allocating once its
+ * arrays have grown to fit the largest fleet.
+ */
+public class SpatialHash {
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellHeads;
+
+    private int[] itemQueryStamps = new int[64];
+
+    private int[] entryItems = new int[256];
+    private int[] entryNext = new int[256];
+    private int entryCount;
+
+    private int[] results = new int[16];
+    private int queryStamp;
+
+    /**
+     * Creates an empty grid covering the playfield.
+     * @param width Double value of the playfield's width
+     * @param height Double value of the playfield's height
+     * @param cellSize Double value of the side length of a cell
+     */
+    public SpatialHash(double width, double height, double cellSize) {
+        this.cellSize = cellSize;
+        this.columns = (int) Math.ceil(width / cellSize);
+        this.rows = (int) Math.ceil(height / cellSize);
+        this.cellHeads = new int[columns * rows];
+        clear();
+    }
+
+    /**
+     * Removes every entity from the grid.
+     */
+    public void clear() {
+        Arrays.fill(cellHeads, -1);
+        entryCount = 0;
+    }
+
+    /**
+     * Adds an entity to every cell that its rectangle overlaps.
+     * @param item Integer slot index of the entity
+     * @param minX Double value of the entity's left edge
+     * @param minY Double value of the entity's top edge
+     * @param maxX Double value of the entity's right edge
+     * @param maxY Double value of the entity's bottom edge
+     */
+    public void insert(int item, double minX, double minY, double maxX, double maxY) {
+        if (item >= itemQueryStamps.length) {
+            itemQueryStamps = Arrays.copyOf(itemQueryStamps, Math.max(item + 1, itemQueryStamps.length * 2));
+        }
+        itemQueryStamps[item] = queryStamp;
+
+        int minColumn = column(minX);
+        int maxColumn = column(maxX);
+        int minRow = row(minY);
+        int maxRow = row(maxY);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                if (entryCount == entryItems.length) {
+                    entryItems = Arrays.copyOf(entryItems, entryCount * 2);
+                    entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+                }
+                int cell = row * columns + column;
+                entryItems[entryCount] = item;
+                entryNext[entryCount] = cellHeads[cell];
+                cellHeads[cell] = entryCount;
+                entryCount++;
+            }
+        }
+    }
+
+    /**
+     * Finds the entities in the cells that a rectangle overlaps. Each entity is
+     * reported once, even if it spans several of those cells. The entities are
+     * only candidates; the caller still has to test them for an actual overlap.
+     * The results stay valid until the next query.
+     * @param minX Double value of the rectangle's left edge
+     * @param minY Double value of the rectangle's top edge
+     * @param maxX Double value of the rectangle's right edge
+     * @param maxY Double value of the rectangle's bottom edge
+     * @return Integer number of candidates, read with getResult
+     */
+    public int query(double minX, double minY, double maxX, double maxY) {
+        queryStamp++;
+        int count = 0;
+
+        int minColumn = column(minX);
+        int maxColumn = column(maxX);
+        int minRow = row(minY);
+        int maxRow = row(maxY);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                for (int entry = cellHeads[row * columns + column]; entry != -1; entry = entryNext[entry]) {
+                    int item = entryItems[entry];
+                    if (itemQueryStamps[item] != queryStamp) {
+                        itemQueryStamps[item] = queryStamp;
+                        if (count == results.length) {
+                            results = Arrays.copyOf(results, count * 2);
+                        }
+                        results[count++] = item;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets one of the candidates found by the last query.
+     * @param index Integer index below the count returned by query
+     * @return Integer slot index of an entity that may overlap the queried rectangle
+     */
+    public int getResult(int index) {
+        return results[index];
+    }
+
+    /**
+     * Finds the grid column that contains a horizontal position.
+     * @param x Double value of the position
+     * @return Integer column, clamped to the grid
+     */
+    private int column(double x) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor(x / cellSize)));
+    }
+
+    /**
+     * Finds the grid row that contains a vertical position.
+     * @param y Double value of the position
+     * @return Integer row, clamped to the grid
+     */
+    private int row(double y) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor(y / cellSize)));
+    }
+}
@@ -0,0 +1,85 @@
+package galaxian;
+
+/**
+ * Interface for all sprites. Defines methods for moving a sprite,
+ * checking collisions, and reading the bounds of a sprite.
+ * Sprites keep their state in plain fields, so the game can be simulated
+ * without JavaFX; their graphical representation lives in GameView.
+ */
+public interface Sprite {
+
+    public void move(double xIncrement, double yIncrement);
+
+    /**
+     * Gets the left edge of the sprite.
+     * @return Double value of the smallest x coordinate the sprite covers
+     */
+    public double getMinX();
+
+    /**
+     * Gets the top edge of the sprite.
+     * @return Double value of the smallest y coordinate the sprite covers
+     */
+    public double getMinY();
+
+    /**
+     * Gets the right edge of the sprite. Kept up to date as the sprite moves.
+     * @return Double value of the largest x coordinate the sprite covers
+     */
+    public double getMaxX();
+
+    /**
+     * Gets the bottom edge of the sprite. Kept up to date as the sprite moves.
+     * @return Double value of the largest y coordinate the sprite covers
+     */
+    public double getMaxY();
+
+    public double getWidth();
+
+    public double getHeight();
+
+    /**
+     * Gets the horizontal position the sprite had at the start of the current tick.
+     * @return Double value used to interpolate the sprite's position when rendering
+     */
+    public double getPreviousX();
+
+    /**
+     * Gets the vertical position the sprite had at the start of the current tick.
+     * @return Double value used to interpolate the sprite's position when rendering
+     */
+    public double getPreviousY();
+
+    /**
+     * Remembers the sprite's current position as its previous position.
+     * Called at the start of every tick.
+     */
+    public void savePosition();
+
+    /**
+     * Checks whether the bounds of this sprite overlap the bounds of another
+     * sprite. Touching edges count as an overlap. Which pairs of sprites can
+     * hit each other is decided by the caller.
+     * @param other Instance of Sprite
+     * @return boolean indicating whether a collision has occurred or not
+     */
+    public default boolean collidesWith(Sprite other) {
+        return collidesWith(other.getMinX(), other.getMinY(), other.getMaxX(), other.getMaxY());
+    }
+
+    /**
+     * Checks whether the bounds of this sprite overlap a rectangle. Touching
+     * edges count as an overlap.
+     * @param minX Double value of the rectangle's left edge
+     * @param minY Double value of the rectangle's top edge
+     * @param maxX Double value of the rectangle's right edge
+     * @param maxY Double value of the rectangle's bottom edge
+     * @return boolean indicating whether a collision has occurred or not
+     */
+    public default boolean collidesWith(double minX, double minY, double maxX, double maxY) {
+        return getMinX() <= maxX
+                && minX <= getMaxX()
+                && getMinY() <= maxY
+                && minY <= getMaxY();
+    }
+}
@@ -0,0 +1,155 @@
+package galaxian;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Settings for a stress run, read from a properties file and from
+ * {@code --key=value} arguments, with arguments taking precedence. The keys
+ * are the names of the fields below; every rate is given per second of game
+ * time.
+ */
+public class StressConfig {
+    public static final String FILE_KEY = "stress";
+
+    int fleet = 10_000;
+    double playerFireRate = 20;
+    double enemyFireRate = 50;
+    double diveRate = 2;
+    double diverFireRate = GameManager.DEFAULT_FIRE_RATE;
+    double duration = 30;
+    int missiles = 4096;
+    int lives = Integer.MAX_VALUE;
+    long seed = 1;
+
+    /**
+     * Collects {@code --key=value} command-line arguments into a map, the
+     * way JavaFX does for the game. A {@code --key} without a value maps to
+     * an empty string, and arguments without the dashes are ignored.
+     * @param args Array of command-line arguments
+     * @return Map of argument names to values
+     */
+    public static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> named = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                named.put(arg.substring(2), "");
+            } else {
+                named.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return named;
+    }
+
+    /**
+     * Checks whether the arguments ask for a stress run, which they do by
+     * naming a properties file or a fleet size.
+     * @param named Map of argument names to values
+     * @return boolean that is true if a stress run was asked for
+     */
+    public static boolean isRequested(Map<String, String> named) {
+        return named.containsKey(FILE_KEY) || named.containsKey("fleet");
+    }
+
+    /**
+     * Reads the settings. A {@code stress} entry names a properties file
+     * that is read first; the other entries override it.
+     * @param named Map of argument names to values, as given to the application
+     * @return StressConfig with the defaults for every setting not given
+     * @throws IOException if the properties file can't be read
+     */
+    public static StressConfig from(Map<String, String> named) throws IOException {
+        Properties properties = new Properties();
+        String file = named.get(FILE_KEY);
+        if (file != null && !file.isEmpty()) {
+            try (Reader reader = Files.newBufferedReader(Path.of(file))) {
+                properties.load(reader);
+            }
+        }
+        properties.putAll(named);
+
+        StressConfig config = new StressConfig();
+        config.fleet = Integer.parseInt(properties.getProperty("fleet", String.valueOf(config.fleet)));
+        config.playerFireRate = parseDouble(properties, "playerFireRate", config.playerFireRate);
+        config.enemyFireRate = parseDouble(properties, "enemyFireRate", config.enemyFireRate);
+        config.diveRate = parseDouble(properties, "diveRate", config.diveRate);
+        config.diverFireRate = parseDouble(properties, "diverFireRate", config.diverFireRate);
+        config.duration = parseDouble(properties, "duration", config.duration);
+        config.missiles = Integer.parseInt(properties.getProperty("missiles", String.valueOf(config.missiles)));
+        config.lives = Integer.parseInt(properties.getProperty("lives", String.valueOf(config.lives)));
+        config.seed = Long.parseLong(properties.getProperty("seed", String.valueOf(config.seed)));
+        return config;
+    }
+
+    /**
+     * Reads a setting that is a number with a fraction.
+     * @param properties Properties holding the settings
+     * @param key String name of the setting
+     * @param fallback Double value to use if the setting is missing
+     * @return Double value of the setting
+     */
+    private static double parseDouble(Properties properties, String key, double fallback) {
+        String value = properties.getProperty(key);
+        return value == null ? fallback : Double.parseDouble(value);
+    }
+
+    /**
+     * Creates a game set up for the stress run.
+     * @return GameManager with the configured fleet, rates, lives and missile pool
+     */
+    public GameManager createGame() {
+        GameManager gameManager = new GameManager(seed, GameManager.SCREEN_WIDTH, GameManager.SCREEN_HEIGHT, missiles);
+        gameManager.setFleetSize(fleet);
+        gameManager.setDiveRate(diveRate);
+        gameManager.setFireRate(diverFireRate);
+        gameManager.setLives(lives);
+        return gameManager;
+    }
+
+    /**
+     * Copies the settings with another seed, for running several games from one configuration.
+     * @param newSeed Long value of the copy's seed
+     * @return StressConfig that differs from this one only in its seed
+     */
+    public StressConfig withSeed(long newSeed) {
+        StressConfig copy = new StressConfig();
+        copy.fleet = fleet;
+        copy.playerFireRate = playerFireRate;
+        copy.enemyFireRate = enemyFireRate;
+        copy.diveRate = diveRate;
+        copy.diverFireRate = diverFireRate;
+        copy.duration = duration;
+        copy.missiles = missiles;
+        copy.lives = lives;
+        copy.seed = newSeed;
+        return copy;
+    }
+
+    /**
+     * Gets the number of ticks that the run lasts.
+     * @return Long value of the duration in ticks
+     */
+    public long getDurationTicks() {
+        return Math.round(duration * GameClock.TICKS_PER_SECOND);
+    }
+
+    /**
+     * Describes the settings in one line.
+     * @return String listing every setting
+     */
+    @Override
+    public String toString() {
+        return String.format("fleet=%d playerFireRate=%.1f enemyFireRate=%.1f diveRate=%.2f diverFireRate=%.3f "
+                        + "duration=%.1fs missiles=%d seed=%d",
+                fleet, playerFireRate, enemyFireRate, diveRate, diverFireRate, duration, missiles, seed);
+    }
+}
@@ -0,0 +1,175 @@
+package galaxian;
+
+import java.util.SplittableRandom;
+
+/**
+ * Plays a stress run. Before every tick it steers the player from side to
+ * side, fires the player's missiles at the configured rate and makes random
+ * enemies in the formation fire at the player, and it keeps the numbers
+ * that the end-of-run report is built from, some of them from the game's events.
+ */
+public class StressDriver implements GameEventListener {
+    private static final int HISTORY = 1 << 20;
+
+    private final StressConfig config;
+    private final GameManager gameManager;
+    private final SplittableRandom random;
+    private final RingHistogram tickTimes;
+    private final RingHistogram frameTimes = new RingHistogram(1 << 16);
+    private double playerShots;
+    private double enemyShots;
+    private int direction = 1;
+    private long enemyUpdates;
+    private long maxMissiles;
+    private long kills;
+    private long playerHits;
+
+    /**
+     * Creates a driver for a game made from the configuration.
+     * @param config StressConfig of the run
+     */
+    public StressDriver(StressConfig config) {
+        this.config = config;
+        gameManager = config.createGame();
+        gameManager.addListener(this);
+        random = new SplittableRandom(config.seed).split();
+        tickTimes = new RingHistogram((int) Math.min(HISTORY, Math.max(1, config.getDurationTicks())));
+    }
+
+    /**
+     * Fires and steers for the coming tick.
+     */
+    public void beforeTick() {
+        playerShots += config.playerFireRate / GameClock.TICKS_PER_SECOND;
+        for (; playerShots >= 1; playerShots--) {
+            gameManager.playerShoot();
+        }
+
+        EntityStore enemies = gameManager.getEnemies();
+        enemyShots += config.enemyFireRate / GameClock.TICKS_PER_SECOND;
+        for (; enemyShots >= 1; enemyShots--) {
+            if (enemies.getCount() > 0) {
+                int i = random.nextInt(enemies.getCount());
+                Enemy.shootTowardsPlayer(enemies, i, gameManager.getFormation(), gameManager.getMissilePool(),
+                        gameManager.getPlayerXPosition(), gameManager.getPlayerYPosition(), gameManager.getHeight());
+            }
+        }
+
+        double x = gameManager.getPlayerXPosition();
+        if (x <= 0) {
+            direction = 1;
+        } else if (x >= gameManager.getWidth() - Player.WIDTH) {
+            direction = -1;
+        }
+    }
+
+    /**
+     * Steps the game by one tick and records how long the tick took.
+     */
+    public void tick() {
+        beforeTick();
+        long start = System.nanoTime();
+        gameManager.tick(direction);
+        recordTick(System.nanoTime() - start);
+    }
+
+    /**
+     * Records a tick that was stepped elsewhere.
+     * @param nanos Long value of the tick's duration in nanoseconds
+     */
+    public void recordTick(long nanos) {
+        tickTimes.record(nanos);
+        enemyUpdates += gameManager.getEnemies().getCount();
+        maxMissiles = Math.max(maxMissiles, gameManager.getMissiles().getCount());
+    }
+
+    /**
+     * Counts an enemy shot down.
+     * @param x Double value of the enemy's left edge on screen
+     * @param y Double value of the enemy's top edge
+     * @param row Integer row of the enemy in the formation
+     * @param points Integer number of points the enemy was worth
+     * @param score Integer score after the points were added
+     */
+    @Override
+    public void enemyKilled(double x, double y, int row, int points, int score) {
+        kills++;
+    }
+
+    /**
+     * Counts a hit on the player.
+     * @param byDiver boolean that is true if a diving enemy crashed into the player
+     * @param lives Integer number of lives left after the hit
+     */
+    @Override
+    public void playerHit(boolean byDiver, int lives) {
+        playerHits++;
+    }
+
+    /**
+     * Records the time between two frames.
+     * @param nanos Long value of the frame interval in nanoseconds
+     */
+    public void recordFrame(long nanos) {
+        frameTimes.record(nanos);
+    }
+
+    /**
+     * Checks whether the run has lasted its configured duration or the game is over.
+     * @return boolean that is true once the run should stop
+     */
+    public boolean isFinished() {
+        return gameManager.getTickCount() >= config.getDurationTicks() || gameManager.isGameOver();
+    }
+
+    /**
+     * Gets the game being stressed.
+     * @return GameManager of the run
+     */
+    public GameManager getGameManager() {
+        return gameManager;
+    }
+
+    /**
+     * Gets the direction the player is being steered in.
+     * @return Integer that is -1 for left and 1 for right
+     */
+    public int getDirection() {
+        return direction;
+    }
+
+    /**
+     * Prints the throughput and timing statistics of the run.
+     * @param elapsedNanos Long value of the wall-clock time the run took
+     */
+    public void printReport(long elapsedNanos) {
+        long ticks = gameManager.getTickCount();
+        double seconds = elapsedNanos / 1e9;
+        System.out.println("Stress run: " + config);
+        System.out.printf("%d ticks in %.2f s: %.0f ticks/s, %.3g enemy updates/s%s%n",
+                ticks, seconds, ticks / seconds, enemyUpdates / seconds,
+                gameManager.isGameOver() ? " (ended by game over)" : "");
+        printTimes("Tick", tickTimes);
+        printTimes("Frame", frameTimes);
+        MissilePool pool = gameManager.getMissilePool();
+        System.out.printf("Enemies: %d left; missiles: %d most in flight, %d hits, %d misses, %d dropped%n",
+                gameManager.getEnemies().getCount(), maxMissiles, pool.getHits(), pool.getMisses(), pool.getDropped());
+        System.out.printf("Score: %d, Fleets Destroyed: %d, Enemies killed: %d, Player hit: %d times%n",
+                gameManager.getScore(), gameManager.getFleetsDestroyed(), kills, playerHits);
+    }
+
+    /**
+     * Prints the percentiles of a timing, if it has samples.
+     * @param label String naming the timing
+     * @param histogram RingHistogram of times in nanoseconds
+     */
+    private static void printTimes(String label, RingHistogram histogram) {
+        if (histogram.getSize() == 0) {
+            return;
+        }
+        histogram.snapshot();
+        System.out.printf("%s time: p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms%n", label,
+                histogram.percentile(50) / 1e6, histogram.percentile(90) / 1e6,
+                histogram.percentile(99) / 1e6, histogram.max() / 1e6);
+    }
+}
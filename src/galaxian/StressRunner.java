@@ -0,0 +1,26 @@
+package galaxian;
+
+import java.io.IOException;
+
+/**
+ * Runs a stress test without JavaFX, as fast as the simulation runs, and
+ * prints throughput and tick-time statistics at the end. Takes the same
+ * {@code --key=value} settings as the stress mode of the game, including
+ * {@code --stress=<file>} for a properties file.
+ */
+public class StressRunner {
+
+    /**
+     * Runs a headless stress test.
+     * @param args Settings as {@code --key=value} arguments
+     * @throws IOException if the properties file can't be read
+     */
+    public static void main(String[] args) throws IOException {
+        StressDriver driver = new StressDriver(StressConfig.from(StressConfig.parseArguments(args)));
+        long start = System.nanoTime();
+        while (!driver.isFinished()) {
+            driver.tick();
+        }
+        driver.printReport(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,148 @@
+package galaxian;
+
+import javafx.scene.Node;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hold elements of the user interface. The labels are laid out once; the
+ * numbers next to them are drawn from a digit atlas and are only touched
+ * when the game's events report that they changed.
+ */
+public class UI implements GameEventListener {
+    private static final Font FONT = new Font(15);
+    private static final double LABEL_GAP = 4;
+    private final Text scoreLabel;
+    private final Text livesLabel;
+    private final Text fleetsDestroyedLabel;
+    private final NumberDisplay score;
+    private final NumberDisplay lives;
+    private final NumberDisplay fleetsDestroyed;
+
+    /**
+     * Constructor for UI elements; Adds text to display the score, number of
+     * lives remaining, and the number of fleets destroyed.
+     */
+    public UI() {
+        DigitAtlas atlas = new DigitAtlas(FONT, Color.BLACK);
+
+        fleetsDestroyedLabel = createLabel("Fleets Destroyed:", 70);
+        scoreLabel = createLabel("Score:", 20);
+        livesLabel = createLabel("Lives:", 45);
+
+        fleetsDestroyed = createNumber(atlas, fleetsDestroyedLabel);
+        score = createNumber(atlas, scoreLabel);
+        lives = createNumber(atlas, livesLabel);
+    }
+
+    /**
+     * Creates one of the fixed labels.
+     * @param text String of the label
+     * @param baseline Double value of the label's vertical position
+     * @return Text node of the label
+     */
+    private static Text createLabel(String text, double baseline) {
+        Text label = new Text(text);
+        label.setFont(FONT);
+        label.setLayoutX(10);
+        label.setLayoutY(baseline);
+        return label;
+    }
+
+    /**
+     * Creates the number shown after a label.
+     * @param atlas DigitAtlas that the digits are taken from
+     * @param label Text node that the number follows
+     * @return NumberDisplay placed right after the label
+     */
+    private static NumberDisplay createNumber(DigitAtlas atlas, Text label) {
+        NumberDisplay number = new NumberDisplay(atlas);
+        number.getNode().setLayoutX(label.getLayoutX() + label.getLayoutBounds().getWidth() + LABEL_GAP);
+        number.getNode().setLayoutY(label.getLayoutY() + label.getLayoutBounds().getMinY());
+        return number;
+    }
+
+    /**
+     * Shows the game's current values, before any events have arrived.
+     * @param gameManager Instance of game manager whose values are shown
+     */
+    public void refresh(GameManager gameManager) {
+        updateScore(gameManager.getScore());
+        updateLives(gameManager.getLives());
+        updateFleetsDestroyed(gameManager.getFleetsDestroyed());
+    }
+
+    /**
+     * Shows the new score.
+     * @param x Double value of the enemy's left edge on screen
+     * @param y Double value of the enemy's top edge
+     * @param row Integer row of the enemy in the formation
+     * @param points Integer number of points the enemy was worth
+     * @param score Integer score after the points were added
+     */
+    @Override
+    public void enemyKilled(double x, double y, int row, int points, int score) {
+        updateScore(score);
+    }
+
+    /**
+     * Shows the lives left.
+     * @param byDiver boolean that is true if a diving enemy crashed into the player
+     * @param lives Integer number of lives left after the hit
+     */
+    @Override
+    public void playerHit(boolean byDiver, int lives) {
+        updateLives(lives);
+    }
+
+    /**
+     * Shows the new number of fleets destroyed.
+     * @param fleetsDestroyed Integer number of fleets destroyed so far
+     */
+    @Override
+    public void fleetCleared(int fleetsDestroyed) {
+        updateFleetsDestroyed(fleetsDestroyed);
+    }
+
+    /**
+     * Updates the score.
+     * @param score Integer that holds the player's score in the game.
+     */
+    public void updateScore(int score) {
+        this.score.setValue(score);
+    }
+
+    /**
+     * Updates the number of lives remaining,
+     * @param lives Integer that holds the number of lives remaining.
+     */
+    public void updateLives(int lives) {
+        this.lives.setValue(lives);
+    }
+
+    /**
+     * Updates the number of fleets destroyed.
+     * @param fleetsDestroyed Integer that holds the number of fleets destroyed.
+     */
+    public void updateFleetsDestroyed(int fleetsDestroyed) {
+        this.fleetsDestroyed.setValue(fleetsDestroyed);
+    }
+
+    /**
+     * Gets the text nodes.
+     * @return List of Nodes of UI elements
+     */
+    public List<Node> getUINodes() {
+        List<Node> uiElements = new ArrayList<>();
+        uiElements.add(fleetsDestroyedLabel);
+        uiElements.add(fleetsDestroyed.getNode());
+        uiElements.add(scoreLabel);
+        uiElements.add(score.getNode());
+        uiElements.add(livesLabel);
+        uiElements.add(lives.getNode());
+        return uiElements;
+    }
+}
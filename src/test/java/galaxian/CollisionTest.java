@@ -0,0 +1,94 @@
+package galaxian;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks Collision.timeOfImpact at the edges: rectangles that already
+ * overlap, that only touch, that pass right through each other within a
+ * tick, and that move parallel to or away from each other.
+ */
+class CollisionTest {
+    private static final double EPSILON = 1e-12;
+
+    /**
+     * A rectangle standing still on top of another hits at the start.
+     */
+    @Test
+    void overlappingAtStartHitsImmediately() {
+        assertEquals(0, Collision.timeOfImpact(5, 5, 10, 10, 0, 0, 0, 0, 10, 10));
+        assertEquals(0, Collision.timeOfImpact(5, 5, 10, 10, 3, -4, 0, 0, 10, 10));
+    }
+
+    /**
+     * A rectangle standing still and apart never hits.
+     */
+    @Test
+    void standingApartMisses() {
+        assertEquals(Collision.MISS, Collision.timeOfImpact(20, 0, 10, 10, 0, 0, 0, 0, 10, 10));
+        assertEquals(Collision.MISS, Collision.timeOfImpact(0, 20, 10, 10, 0, 0, 0, 0, 10, 10));
+    }
+
+    /**
+     * Touching edges count as a hit, at the start and at the end of the tick.
+     */
+    @Test
+    void touchingEdgesHit() {
+        assertEquals(0, Collision.timeOfImpact(10, 0, 10, 10, 0, 0, 0, 0, 10, 10));
+        assertEquals(0, Collision.timeOfImpact(0, 10, 10, 10, 0, 0, 0, 0, 10, 10));
+        assertEquals(1, Collision.timeOfImpact(30, 0, 10, 10, -20, 0, 0, 0, 10, 10), EPSILON);
+        assertEquals(1, Collision.timeOfImpact(0, -20, 10, 10, 0, 10, 0, 0, 10, 10), EPSILON);
+    }
+
+    /**
+     * Stopping just short of the other rectangle misses.
+     */
+    @Test
+    void stoppingShortMisses() {
+        assertEquals(Collision.MISS, Collision.timeOfImpact(30, 0, 10, 10, -19.9, 0, 0, 0, 10, 10));
+    }
+
+    /**
+     * A fast rectangle that ends the tick past a thin one still hits it, at
+     * the moment the two first touch.
+     */
+    @Test
+    void tunnellingIsCaught() {
+        // A missile 5 x 15 moving up 100 pixels through a 30 x 30 enemy 40 above it
+        assertEquals(0.4, Collision.timeOfImpact(0, 85, 5, 15, 0, -100, 0, 15, 30, 30), EPSILON);
+        // The same movement with the enemy just to the side misses
+        assertEquals(Collision.MISS, Collision.timeOfImpact(0, 85, 5, 15, 0, -100, 6, 15, 30, 30));
+    }
+
+    /**
+     * A diagonal movement hits only if both axes overlap at the same time.
+     */
+    @Test
+    void diagonalNeedsBothAxesAtOnce() {
+        // Overlaps in x during [0.1, 0.5] and in y during [0.6, 1]: never both
+        assertEquals(Collision.MISS, Collision.timeOfImpact(-20, -40, 10, 10, 100, 50, 0, 0, 30, 10));
+        // Overlaps in x during [0.2, 0.6] and in y during [0.4, 0.8]: first touch at 0.4
+        assertEquals(0.4, Collision.timeOfImpact(-20, -30, 10, 10, 50, 50, 0, 0, 10, 10), EPSILON);
+    }
+
+    /**
+     * Sliding along the other rectangle's edge is a hit from the first
+     * moment the edges line up; sliding one pixel off it is not.
+     */
+    @Test
+    void slidingAlongAnEdge() {
+        assertEquals(0.5, Collision.timeOfImpact(-30, 10, 10, 10, 40, 0, 0, 0, 10, 10), EPSILON);
+        assertEquals(Collision.MISS, Collision.timeOfImpact(-30, 11, 10, 10, 40, 0, 0, 0, 10, 10));
+    }
+
+    /**
+     * Moving away from an overlapping rectangle still hits at the start, and
+     * moving away from a separate one never hits.
+     */
+    @Test
+    void movingAway() {
+        assertEquals(0, Collision.timeOfImpact(5, 0, 10, 10, 50, 0, 0, 0, 10, 10));
+        assertEquals(Collision.MISS, Collision.timeOfImpact(20, 0, 10, 10, 50, 0, 0, 0, 10, 10));
+    }
+}
@@ -0,0 +1,89 @@
+package galaxian;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that GameRandom draws the same numbers as SplittableRandom, and
+ * that saving and loading it does not change what it draws next.
+ */
+class GameRandomTest {
+    private static final long[] SEEDS = {1, 0, -1, Long.MIN_VALUE, Long.MAX_VALUE};
+    private static final int[] BOUNDS = {1, 2, 3, 7, 100, 1 << 30, (1 << 30) + 1, Integer.MAX_VALUE};
+    private static final int DRAWS = 10_000;
+
+    /**
+     * Draws every kind of number from both generators for several seeds.
+     */
+    @Test
+    void matchesSplittableRandom() {
+        for (long seed : SEEDS) {
+            GameRandom game = new GameRandom(seed);
+            SplittableRandom reference = new SplittableRandom(seed);
+            for (int i = 0; i < DRAWS; i++) {
+                assertSameDraw(game, reference, i, "seed " + seed + ", draw " + i);
+            }
+        }
+    }
+
+    /**
+     * Splits both generators repeatedly and compares the split-off ones.
+     */
+    @Test
+    void splitMatchesSplittableRandom() {
+        for (long seed : SEEDS) {
+            GameRandom game = new GameRandom(seed);
+            SplittableRandom reference = new SplittableRandom(seed);
+            for (int i = 0; i < DRAWS; i++) {
+                if (i % 100 == 0) {
+                    game = game.split();
+                    reference = reference.split();
+                }
+                assertSameDraw(game, reference, i, "seed " + seed + ", draw " + i);
+            }
+        }
+    }
+
+    /**
+     * Saves a generator halfway, loads the state into another one and
+     * checks that it carries on with the original's numbers.
+     */
+    @Test
+    void loadedGeneratorCarriesOn() {
+        GameRandom original = new GameRandom(42).split();
+        for (int i = 0; i < DRAWS / 2; i++) {
+            original.nextLong();
+        }
+        ByteBuffer saved = ByteBuffer.allocate(GameRandom.SAVE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        original.save(saved);
+        assertEquals(0, saved.remaining());
+
+        GameRandom loaded = new GameRandom(0);
+        loaded.load(saved.flip());
+        for (int i = 0; i < DRAWS / 2; i++) {
+            assertEquals(original.nextLong(), loaded.nextLong(), "draw " + i);
+        }
+    }
+
+    /**
+     * Draws one number of a kind picked by the draw's index from both generators.
+     * @param game GameRandom under test
+     * @param reference SplittableRandom it should match
+     * @param i Integer index of the draw
+     * @param message String describing the draw if they differ
+     */
+    private static void assertSameDraw(GameRandom game, SplittableRandom reference, int i, String message) {
+        int bound = BOUNDS[i % BOUNDS.length];
+        switch (i % 4) {
+            case 0 -> assertEquals(reference.nextLong(), game.nextLong(), message);
+            case 1 -> assertEquals(reference.nextInt(), game.nextInt(), message);
+            case 2 -> assertEquals(reference.nextInt(bound), game.nextInt(bound), message);
+            default -> assertEquals(Double.doubleToRawLongBits(reference.nextDouble()),
+                    Double.doubleToRawLongBits(game.nextDouble()), message);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package galaxian;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Encodes the states of a running game, in full and as deltas, decodes them
+ * again and checks that the receiver ends up with what was sent.
+ */
+class NetStateTest {
+    private static final int HISTORY = 32;
+    private static final int FIRE_INTERVAL = GameClock.TICKS_PER_SECOND / 4;
+
+    /**
+     * Sends every state in full.
+     */
+    @Test
+    void fullStatesRoundTrip() {
+        assertRoundTrips(new GameManager(1), 2000, 0);
+    }
+
+    /**
+     * Sends deltas against a baseline acknowledged a few ticks before, as
+     * over a link with some delay.
+     */
+    @Test
+    void deltaStatesRoundTrip() {
+        GameManager gameManager = new GameManager(2);
+        gameManager.setDiveRate(3);
+        assertRoundTrips(gameManager, 5000, 5);
+    }
+
+    /**
+     * Sends deltas of a stress fleet, where many entities appear and
+     * disappear between baselines.
+     */
+    @Test
+    void stressFleetRoundTrips() {
+        GameManager gameManager = new GameManager(3);
+        gameManager.setFleetSize(3000);
+        gameManager.setDiveRate(10);
+        assertRoundTrips(gameManager, 1000, 7);
+    }
+
+    /**
+     * Sends deltas of a game of two, whose players move and score apart.
+     */
+    @Test
+    void twoPlayerStatesRoundTrip() {
+        GameManager gameManager = new GameManager(5);
+        gameManager.addSecondPlayer();
+        gameManager.setDiveRate(3);
+        assertRoundTrips(gameManager, 5000, 5);
+    }
+
+    /**
+     * Checks that a state that was damaged on the way fails its hash.
+     */
+    @Test
+    void damagedStateIsRejected() {
+        GameManager gameManager = new GameManager(4);
+        for (int t = 0; t < 300; t++) {
+            step(gameManager);
+        }
+        NetState state = new NetState();
+        state.capture(gameManager);
+        ByteBuffer buffer = ByteBuffer.allocate(NetServer.MAX_DATAGRAM * 64);
+        state.encode(null, buffer);
+        buffer.flip();
+        int last = buffer.limit() - 1;
+        buffer.put(last, (byte) (buffer.get(last) ^ 1));
+        assertThrows(IllegalStateException.class,
+                () -> new NetState().decode(gameManager.getTickCount(), null, buffer));
+    }
+
+    /**
+     * Writes numbers at the edges of their ranges and reads them back.
+     */
+    @Test
+    void numbersRoundTrip() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        long[] unsigned = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, Long.MAX_VALUE, -1};
+        int[] signed = {0, 1, -1, 63, -64, 64, -65, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (long value : unsigned) {
+            NetState.putVarLong(buffer, value);
+        }
+        for (int value : signed) {
+            NetState.putSigned(buffer, value);
+        }
+        buffer.flip();
+        for (long value : unsigned) {
+            assertEquals(value, NetState.getVarLong(buffer));
+        }
+        for (int value : signed) {
+            assertEquals(value, NetState.getSigned(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    /**
+     * Plays a game and sends its state after every tick. The receiver has to
+     * decode exactly the state the sender encoded, and stay within the
+     * codec's tolerance of the game itself.
+     * @param gameManager GameManager to play
+     * @param ticks Integer number of ticks to play
+     * @param delay Integer number of ticks an acknowledgement takes to come
+     *              back, or 0 to send every state in full
+     */
+    private static void assertRoundTrips(GameManager gameManager, int ticks, int delay) {
+        NetState[] sent = new NetState[HISTORY];
+        NetState[] received = new NetState[HISTORY];
+        for (int k = 0; k < HISTORY; k++) {
+            sent[k] = new NetState();
+            received[k] = new NetState();
+        }
+        NetState truth = new NetState();
+        ByteBuffer buffer = ByteBuffer.allocate(NetServer.MAX_DATAGRAM * 64);
+        int deltas = 0;
+        for (int t = 0; t < ticks && !gameManager.isGameOver(); t++) {
+            step(gameManager);
+            long sequence = gameManager.getTickCount();
+            long acked = sequence - delay;
+            boolean hasBase = delay > 0 && acked > 0;
+            NetState base = hasBase ? sent[(int) (acked % HISTORY)] : null;
+            NetState state = sent[(int) (sequence % HISTORY)];
+            state.capture(gameManager);
+            truth.capture(gameManager);
+            buffer.clear();
+            state.encode(base, buffer);
+            buffer.flip();
+
+            NetState decoded = received[(int) (sequence % HISTORY)];
+            decoded.decode(sequence, hasBase ? received[(int) (acked % HISTORY)] : null, buffer);
+            assertFalse(buffer.hasRemaining(), "tick " + sequence + " left bytes unread");
+            assertEquals(0, decoded.difference(state, false), "positions at tick " + sequence);
+            assertEquals(0, decoded.difference(state, true), "velocities at tick " + sequence);
+            assertTrue(decoded.difference(truth, false) <= NetState.getTolerance(false),
+                    "positions at tick " + sequence + " are further from the game than the tolerance");
+            assertTrue(decoded.difference(truth, true) <= NetState.getTolerance(true),
+                    "velocities at tick " + sequence + " are further from the game than the tolerance");
+            if (hasBase) {
+                deltas++;
+            }
+        }
+        assertTrue(delay == 0 || deltas > 0, "no state was sent as a delta");
+    }
+
+    /**
+     * Runs one tick steered by an autopilot that sweeps from side to side and
+     * fires at a fixed interval; a second player sweeps the other way.
+     * @param gameManager GameManager to step
+     */
+    private static void step(GameManager gameManager) {
+        if (gameManager.getTickCount() % FIRE_INTERVAL == 0) {
+            gameManager.playerShoot();
+            if (gameManager.getPlayerCount() > 1) {
+                gameManager.playerShootIfReady(1);
+            }
+        }
+        long sweep = gameManager.getTickCount() / (GameClock.TICKS_PER_SECOND * 4);
+        int direction = sweep % 2 == 0 ? 1 : -1;
+        gameManager.tick(direction, -direction);
+    }
+}
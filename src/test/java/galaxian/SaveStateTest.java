@@ -0,0 +1,142 @@
+package galaxian;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Saves games to a file, loads them back and checks that the loaded game
+ * goes on exactly as the original does.
+ */
+class SaveStateTest {
+    private static final int FIRE_INTERVAL = GameClock.TICKS_PER_SECOND / 4;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Round trips the normal fleet partway through a game.
+     * @throws IOException if the save can't be written or read
+     */
+    @Test
+    void loadedGameMatchesOriginal() throws IOException {
+        GameManager original = new GameManager(7);
+        original.setDiveRate(2);
+        assertLoadedGameMatches(original, 3000, 3000);
+    }
+
+    /**
+     * Round trips a stress fleet, which stacks enemies in the same cells.
+     * @throws IOException if the save can't be written or read
+     */
+    @Test
+    void loadedStressFleetMatchesOriginal() throws IOException {
+        GameManager original = new GameManager(11);
+        original.setFleetSize(2000);
+        original.setDiveRate(5);
+        assertLoadedGameMatches(original, 1000, 1000);
+    }
+
+    /**
+     * Round trips a game of two, whose second player is saved after the rest.
+     * @throws IOException if the save can't be written or read
+     */
+    @Test
+    void loadedTwoPlayerGameMatchesOriginal() throws IOException {
+        GameManager original = new GameManager(13);
+        original.addSecondPlayer();
+        original.setDiveRate(2);
+        assertLoadedGameMatches(original, 3000, 3000);
+    }
+
+    /**
+     * Checks that a damaged or cut-off file is refused rather than loaded.
+     * @throws IOException if the save can't be written
+     */
+    @Test
+    void damagedFileIsRefused() throws IOException {
+        GameManager original = new GameManager(5);
+        play(original, 200);
+        Path file = directory.resolve("game.sav");
+        SaveState.write(SaveState.capture(original, null), file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        byte[] corrupt = bytes.clone();
+        corrupt[corrupt.length / 2] ^= 1;
+        Files.write(file, corrupt);
+        assertThrows(IOException.class, () -> SaveState.read(file));
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> SaveState.read(file));
+
+        Files.write(file, new byte[] {1, 2, 3});
+        assertThrows(IOException.class, () -> SaveState.read(file));
+    }
+
+    /**
+     * Plays a game, saves and loads it, then steps both games with the same
+     * input and compares their saved images before every tick.
+     * @param original GameManager to play
+     * @param ticksBefore Integer number of ticks to play before saving
+     * @param ticksAfter Integer number of ticks to compare the games for
+     * @throws IOException if the save can't be written or read
+     */
+    private void assertLoadedGameMatches(GameManager original, int ticksBefore, int ticksAfter)
+            throws IOException {
+        play(original, ticksBefore);
+        Path file = directory.resolve("game.sav");
+        SaveState.write(SaveState.capture(original, null), file);
+        GameManager loaded = SaveState.read(file);
+
+        ByteBuffer expected = null;
+        ByteBuffer actual = null;
+        for (int t = 0; t < ticksAfter && !original.isGameOver(); t++) {
+            expected = SaveState.capture(original, expected);
+            actual = SaveState.capture(loaded, actual);
+            assertEquals(expected, actual, "games differ " + t + " ticks after loading");
+            step(original);
+            step(loaded);
+        }
+        assertEquals(original.getPlayerCount(), loaded.getPlayerCount());
+        for (int p = 0; p < original.getPlayerCount(); p++) {
+            assertEquals(original.getScore(p), loaded.getScore(p));
+        }
+    }
+
+    /**
+     * Plays a number of ticks.
+     * @param gameManager GameManager to play
+     * @param ticks Integer number of ticks
+     */
+    private static void play(GameManager gameManager, int ticks) {
+        for (int t = 0; t < ticks && !gameManager.isGameOver(); t++) {
+            step(gameManager);
+        }
+    }
+
+    /**
+     * Runs one tick steered by an autopilot that sweeps from side to side and
+     * fires at a fixed interval; a second player sweeps the other way. Its
+     * choices depend only on the game's state, so two identical games get
+     * the same input.
+     * @param gameManager GameManager to step
+     */
+    private static void step(GameManager gameManager) {
+        if (gameManager.getTickCount() % FIRE_INTERVAL == 0) {
+            gameManager.playerShoot();
+            if (gameManager.getPlayerCount() > 1) {
+                gameManager.playerShootIfReady(1);
+            }
+        }
+        long sweep = gameManager.getTickCount() / (GameClock.TICKS_PER_SECOND * 4);
+        int direction = sweep % 2 == 0 ? 1 : -1;
+        gameManager.tick(direction, -direction);
+    }
+}
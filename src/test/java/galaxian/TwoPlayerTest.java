@@ -0,0 +1,83 @@
+package galaxian;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Plays games of two and checks that the players share the playfield but
+ * keep their own score and lives.
+ */
+class TwoPlayerTest {
+
+    /**
+     * Only the player who shoots an enemy scores for it.
+     */
+    @Test
+    void killsScoreForTheShooter() {
+        GameManager gameManager = new GameManager(3);
+        gameManager.addSecondPlayer();
+        gameManager.setDiveRate(0);
+        for (int t = 0; t < GameClock.TICKS_PER_SECOND * 60; t++) {
+            gameManager.playerShootIfReady(1);
+            gameManager.tick(0, 0);
+        }
+        assertEquals(0, gameManager.getScore(0));
+        assertTrue(gameManager.getScore(1) > 0, "the second player hit nothing");
+        assertEquals(gameManager.getScore(1), gameManager.getScore());
+    }
+
+    /**
+     * The players start apart, either side of the middle, and move on
+     * their own input.
+     */
+    @Test
+    void playersMoveApart() {
+        GameManager gameManager = new GameManager(4);
+        gameManager.addSecondPlayer();
+        double first = gameManager.getPlayer(0).getXPosition();
+        double second = gameManager.getPlayer(1).getXPosition();
+        assertTrue(first < second);
+        gameManager.tick(-1, 1);
+        assertTrue(gameManager.getPlayer(0).getXPosition() < first);
+        assertTrue(gameManager.getPlayer(1).getXPosition() > second);
+    }
+
+    /**
+     * The game goes on while either player has lives left, and a player
+     * without any no longer shoots.
+     */
+    @Test
+    void gameEndsWhenBothAreOut() {
+        GameManager gameManager = new GameManager(6);
+        gameManager.addSecondPlayer();
+        gameManager.setLives(1);
+        gameManager.setDiveRate(50);
+        gameManager.setFireRate(50);
+        boolean oneOut = false;
+        for (int t = 0; t < GameClock.TICKS_PER_SECOND * 600 && !gameManager.isGameOver(); t++) {
+            if (gameManager.getLives(0) <= 0 ^ gameManager.getLives(1) <= 0) {
+                oneOut = true;
+                int out = gameManager.getLives(0) <= 0 ? 0 : 1;
+                assertFalse(gameManager.playerShootIfReady(out), "a player out of lives fired");
+            }
+            gameManager.tick(0, 0);
+        }
+        assertTrue(oneOut, "both players lost their last life in the same tick");
+        assertTrue(gameManager.isGameOver());
+        assertEquals(0, gameManager.getLives());
+    }
+
+    /**
+     * A game has at most two players.
+     */
+    @Test
+    void thirdPlayerIsRefused() {
+        GameManager gameManager = new GameManager(7);
+        gameManager.addSecondPlayer();
+        assertThrows(IllegalStateException.class, gameManager::addSecondPlayer);
+    }
+}